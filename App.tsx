@@ -14,6 +14,9 @@ import {SettingsProvider} from './src/context/SettingsContext';
 import {ProfileProvider, useProfile} from './src/context/ProfileContext';
 import DatabaseService from './src/services/DatabaseService';
 import FirebaseService from './src/services/FirebaseService';
+import StartupMetricsService, {
+  StartupPhases,
+} from './src/services/StartupMetricsService';
 import OnboardingModal from './src/components/OnboardingModal';
 
 // Список всех иконок для предзагрузки
@@ -50,11 +53,16 @@ const AppContent = () => {
 
   // Сначала инициализируем базу данных
   useEffect(() => {
+    // Эффект выполняется после первой отрисовки
+    StartupMetricsService.mark(StartupPhases.FIRST_FRAME);
+
     const initializeDatabase = async () => {
       try {
         setLoadingText('Инициализация базы данных...');
         console.log('Initializing database...');
+        StartupMetricsService.markPhaseStart(StartupPhases.DATABASE_INIT);
         await DatabaseService.initializeDatabase();
+        StartupMetricsService.markPhaseEnd(StartupPhases.DATABASE_INIT);
         console.log('Database initialized');
         setIsDatabaseReady(true);
       } catch (error) {
@@ -106,6 +114,7 @@ const AppContent = () => {
       // Просто ждем, пока ProfileContext загрузится
       await new Promise(resolve => setTimeout(resolve, 100));
 
+      StartupMetricsService.mark(StartupPhases.APP_READY);
       setIsAppReady(true);
     } catch (error) {
       console.error('App initialization error:', error);
@@ -0,0 +1,182 @@
+package com.medarithmi;
+
+import android.content.Context;
+
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+
+import com.facebook.flipper.core.FlipperArray;
+import com.facebook.flipper.core.FlipperConnection;
+import com.facebook.flipper.core.FlipperObject;
+import com.facebook.flipper.core.FlipperPlugin;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Плагин Flipper (только debug): раз в POLL_MILLIS отправляет в десктоп снимок
+ * PulseMetrics — задержки запросов к PulseSportDB.db, методов NotificationModule и
+ * показа уведомлений любым путем, включая будильник напоминаний (notification.dispatch),
+ * число вызовов каждого нативного модуля (счетчики bridge.<модуль>). Состояние планировщика напоминаний и задач
+ * WorkManager с тегом NotificationModule.WORKER_TAG отправляется при подключении
+ * и по запросу.
+ *
+ * События: "metrics" {counters, histograms}, "reminders" {nextFireAt,
+ * adaptiveMinuteOfDay, reminders, workers}. Запросы: "refresh" — оба снимка сразу.
+ */
+public final class PulseFlipperPlugin implements FlipperPlugin {
+    public static final String ID = "MedArithmi";
+    private static final String TAG = "PulseFlipperPlugin";
+    private static final long POLL_MILLIS = 1000;
+
+    private final Context context;
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> poll;
+    private FlipperConnection connection;
+    // Сумма счетчиков и числа записей гистограмм на момент последней отправки
+    private volatile long lastMetricsVersion = -1;
+
+    public PulseFlipperPlugin(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public synchronized void onConnect(FlipperConnection connection) {
+        this.connection = connection;
+        lastMetricsVersion = -1;
+        connection.receive("refresh", (params, responder) -> {
+            executor().execute(() -> {
+                lastMetricsVersion = -1;
+                sendMetrics();
+                sendReminders();
+            });
+            responder.success(new FlipperObject.Builder().build());
+        });
+
+        executor().execute(this::sendReminders);
+        poll = executor().scheduleWithFixedDelay(this::sendMetrics, 0, POLL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void onDisconnect() {
+        if (poll != null) {
+            poll.cancel(false);
+            poll = null;
+        }
+        connection = null;
+    }
+
+    // Только пока вкладка плагина открыта в десктопе
+    @Override
+    public boolean runInBackground() {
+        return false;
+    }
+
+    private synchronized ScheduledExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "PulseFlipper"));
+        }
+        return executor;
+    }
+
+    private synchronized FlipperConnection connection() {
+        return connection;
+    }
+
+    private void sendMetrics() {
+        FlipperConnection target = connection();
+        if (target == null) {
+            return;
+        }
+        try {
+            Map<String, Long> counterValues = PulseMetrics.counterValues();
+            Map<String, LatencyHistogram.Snapshot> snapshots = PulseMetrics.histogramSnapshots();
+
+            long version = 0;
+            FlipperObject.Builder counters = new FlipperObject.Builder();
+            for (Map.Entry<String, Long> entry : counterValues.entrySet()) {
+                counters.put(entry.getKey(), entry.getValue());
+                version += entry.getValue();
+            }
+            FlipperObject.Builder histograms = new FlipperObject.Builder();
+            for (Map.Entry<String, LatencyHistogram.Snapshot> entry : snapshots.entrySet()) {
+                LatencyHistogram.Snapshot snapshot = entry.getValue();
+                histograms.put(entry.getKey(), new FlipperObject.Builder()
+                    .put("calls", snapshot.count)
+                    .put("errors", snapshot.errors)
+                    .put("meanMs", snapshot.meanMs())
+                    .put("p50Ms", snapshot.percentileMs(0.5))
+                    .put("p90Ms", snapshot.percentileMs(0.9))
+                    .put("p99Ms", snapshot.percentileMs(0.99))
+                    .put("maxMs", snapshot.maxMs())
+                    .build());
+                version += snapshot.count;
+            }
+            // Без новых вызовов снимок не меняется, повторно его не шлем
+            if (version == lastMetricsVersion) {
+                return;
+            }
+            lastMetricsVersion = version;
+
+            target.send("metrics", new FlipperObject.Builder()
+                .put("time", System.currentTimeMillis())
+                .put("counters", counters.build())
+                .put("histograms", histograms.build())
+                .build());
+        } catch (Exception e) {
+            PulseLog.e(TAG, "sendMetrics error", e);
+        }
+    }
+
+    private void sendReminders() {
+        FlipperConnection target = connection();
+        if (target == null) {
+            return;
+        }
+        try {
+            ReminderScheduler scheduler = ReminderScheduler.getInstance(context);
+            FlipperArray.Builder reminders = new FlipperArray.Builder();
+            for (Reminder reminder : scheduler.getReminders()) {
+                reminders.put(new FlipperObject.Builder()
+                    .put("id", reminder.id)
+                    .put("daysMask", reminder.daysMask)
+                    .put("hour", reminder.hour)
+                    .put("minute", reminder.minute)
+                    .put("adaptive", reminder.adaptive)
+                    .put("title", reminder.title)
+                    .build());
+            }
+
+            // Периодические задачи прошлых версий: после миграции список должен быть пуст
+            FlipperArray.Builder workers = new FlipperArray.Builder();
+            List<WorkInfo> infos = WorkManager.getInstance(context)
+                .getWorkInfosByTag(NotificationModule.WORKER_TAG)
+                .get(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            for (WorkInfo info : infos) {
+                workers.put(new FlipperObject.Builder()
+                    .put("id", info.getId().toString())
+                    .put("state", info.getState().name())
+                    .put("runAttemptCount", info.getRunAttemptCount())
+                    .build());
+            }
+
+            target.send("reminders", new FlipperObject.Builder()
+                .put("nextFireAt", scheduler.getNextFireAtMillis())
+                .put("adaptiveMinuteOfDay", scheduler.getAdaptiveMinuteOfDay())
+                .put("reminders", reminders.build())
+                .put("workers", workers.build())
+                .build());
+        } catch (Exception e) {
+            PulseLog.e(TAG, "sendReminders error", e);
+        }
+    }
+}
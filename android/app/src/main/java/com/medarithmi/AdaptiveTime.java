@@ -0,0 +1,44 @@
+package com.medarithmi;
+
+/**
+ * Время адаптивного напоминания по гистограмме часов сохранения расчетов:
+ * за LEAD_MINUTES до часа, когда пользователь обычно считает зоны. Соседние
+ * часы учитываются с половинным весом, чтобы пик не прыгал от одного расчета.
+ * Без зависимостей от Android.
+ */
+public final class AdaptiveTime {
+    static final int MIN_SAMPLES = 5;
+    static final int EARLIEST_HOUR = 8;
+    static final int LATEST_HOUR = 21;
+    static final int LEAD_MINUTES = 30;
+
+    private AdaptiveTime() {
+    }
+
+    // Минута суток для напоминания или -1, если данных мало (остается исходное время)
+    public static int pickMinuteOfDay(int[] hourCounts) {
+        int total = 0;
+        for (int count : hourCounts) {
+            total += count;
+        }
+        if (total < MIN_SAMPLES) {
+            return -1;
+        }
+
+        int bestHour = -1;
+        int bestScore = 0;
+        for (int hour = EARLIEST_HOUR; hour <= LATEST_HOUR; hour++) {
+            int score = 2 * hourCounts[hour]
+                + hourCounts[(hour + 23) % 24]
+                + hourCounts[(hour + 1) % 24];
+            if (score > bestScore) {
+                bestScore = score;
+                bestHour = hour;
+            }
+        }
+        if (bestHour < 0) {
+            return -1;
+        }
+        return Math.max(EARLIEST_HOUR * 60, bestHour * 60 - LEAD_MINUTES);
+    }
+}
@@ -0,0 +1,80 @@
+package com.medarithmi;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+// Ограниченная очередь событий аналитики. Без зависимостей от Android и без
+// синхронизации: используется только из потока конвейера
+public final class AnalyticsBuffer {
+    private final int capacity;
+    private final int batchSize;
+    private final ArrayDeque<AnalyticsEvent> queue;
+
+    private String lastScreen;
+    private long droppedCount;
+
+    public AnalyticsBuffer(int capacity, int batchSize) {
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.queue = new ArrayDeque<>(Math.min(capacity, 64));
+    }
+
+    /**
+     * Добавляет событие; повторный просмотр того же экрана подряд пропускается.
+     * При переполнении вытесняется самое старое событие.
+     * Возвращает true, когда набралась пачка для отправки.
+     */
+    public boolean add(AnalyticsEvent event) {
+        if (event.screenView) {
+            if (event.name.equals(lastScreen)) {
+                return false;
+            }
+            lastScreen = event.name;
+        }
+        if (queue.size() >= capacity) {
+            queue.pollFirst();
+            droppedCount++;
+        }
+        queue.addLast(event);
+        return queue.size() >= batchSize;
+    }
+
+    // Следующая пачка не больше batchSize событий в порядке поступления
+    public List<AnalyticsEvent> nextBatch() {
+        int size = Math.min(batchSize, queue.size());
+        List<AnalyticsEvent> batch = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            batch.add(queue.pollFirst());
+        }
+        return batch;
+    }
+
+    // Возврат неотправленной пачки в начало очереди (в пределах capacity)
+    public void requeue(List<AnalyticsEvent> batch) {
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            if (queue.size() >= capacity) {
+                droppedCount++;
+                continue;
+            }
+            queue.addFirst(batch.get(i));
+        }
+    }
+
+    public void clear() {
+        queue.clear();
+        lastScreen = null;
+    }
+
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    public long droppedCount() {
+        return droppedCount;
+    }
+}
@@ -0,0 +1,19 @@
+package com.medarithmi;
+
+import java.util.Collections;
+import java.util.Map;
+
+// Событие аналитики в очереди; для просмотра экрана name — имя экрана
+public final class AnalyticsEvent {
+    public final String name;
+    public final Map<String, Object> params;
+    public final boolean screenView;
+    public final long timestampMillis;
+
+    public AnalyticsEvent(String name, Map<String, Object> params, boolean screenView, long timestampMillis) {
+        this.name = name;
+        this.params = params != null ? params : Collections.emptyMap();
+        this.screenView = screenView;
+        this.timestampMillis = timestampMillis;
+    }
+}
@@ -0,0 +1,66 @@
+package com.medarithmi;
+
+import com.facebook.react.bridge.LifecycleEventListener;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableMap;
+
+// Нативный модуль аналитики: вызовы из JS ничего не ждут, отправка идет пачками
+public class AnalyticsModule extends ReactContextBaseJavaModule implements LifecycleEventListener {
+    public static final String NAME = "AnalyticsModule";
+    private static final StripedCounter CALLS = PulseMetrics.counter(PulseMetrics.BRIDGE_CALLS_PREFIX + NAME);
+
+    private final AnalyticsPipeline pipeline;
+
+    public AnalyticsModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.pipeline = AnalyticsPipeline.getInstance(reactContext);
+        reactContext.addLifecycleEventListener(this);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @ReactMethod
+    public void logEvent(String name, ReadableMap params) {
+        CALLS.increment();
+        pipeline.logEvent(name, params != null ? params.toHashMap() : null);
+    }
+
+    @ReactMethod
+    public void logScreenView(String screenName) {
+        CALLS.increment();
+        pipeline.logScreenView(screenName);
+    }
+
+    @ReactMethod
+    public void setCollectionEnabled(boolean enabled) {
+        CALLS.increment();
+        pipeline.setCollectionEnabled(enabled);
+    }
+
+    @ReactMethod
+    public void flush(Promise promise) {
+        CALLS.increment();
+        pipeline.flushAsync();
+        promise.resolve(null);
+    }
+
+    @Override
+    public void onHostResume() {
+    }
+
+    @Override
+    public void onHostPause() {
+        pipeline.flushAsync();
+    }
+
+    @Override
+    public void onHostDestroy() {
+        pipeline.flushAsync();
+    }
+}
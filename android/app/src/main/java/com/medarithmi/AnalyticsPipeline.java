@@ -0,0 +1,151 @@
+package com.medarithmi;
+
+import android.content.Context;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Конвейер аналитики: события принимаются без ожидания, копятся в AnalyticsBuffer
+ * и уходят в AnalyticsSink пачками — по размеру, по таймеру или при уходе в фон.
+ * Согласие пользователя проверяется по allow_analytics из SettingsStore.
+ */
+public final class AnalyticsPipeline {
+    private static final String TAG = "AnalyticsPipeline";
+    static final String SETTING_ALLOW_ANALYTICS = "allow_analytics";
+
+    private static final int CAPACITY = 500;
+    private static final int BATCH_SIZE = 20;
+    private static final long FLUSH_DELAY_MS = 30_000;
+
+    private static volatile AnalyticsPipeline instance;
+
+    // Согласие пользователя на сбор; вызывается из потока конвейера
+    interface Consent {
+        boolean isAllowed();
+    }
+
+    private final Consent consent;
+    private final AnalyticsBuffer buffer = new AnalyticsBuffer(CAPACITY, BATCH_SIZE);
+    private final ScheduledExecutorService executor;
+
+    // Доступны только из потока PulseAnalytics
+    private AnalyticsSink sink;
+    private ScheduledFuture<?> scheduledFlush;
+
+    AnalyticsPipeline(PulseDatabase database, AnalyticsSink sink) {
+        this(settingsConsent(database), sink, Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "PulseAnalytics");
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }));
+    }
+
+    // Для тестов: согласие и поток задаются снаружи
+    AnalyticsPipeline(Consent consent, AnalyticsSink sink, ScheduledExecutorService executor) {
+        this.consent = consent;
+        this.sink = sink;
+        this.executor = executor;
+    }
+
+    public static AnalyticsPipeline getInstance(Context context) {
+        if (instance == null) {
+            synchronized (AnalyticsPipeline.class) {
+                if (instance == null) {
+                    instance = new AnalyticsPipeline(
+                        PulseDatabase.getInstance(context), new FirebaseAnalyticsSink(context));
+                }
+            }
+        }
+        return instance;
+    }
+
+    // Замена получателя (локальная заглушка в тестах и отладке)
+    public void setSink(AnalyticsSink sink) {
+        executor.execute(() -> this.sink = sink);
+    }
+
+    public void logEvent(String name, Map<String, Object> params) {
+        enqueue(new AnalyticsEvent(name, params, false, System.currentTimeMillis()));
+    }
+
+    public void logScreenView(String screenName) {
+        enqueue(new AnalyticsEvent(screenName, null, true, System.currentTimeMillis()));
+    }
+
+    // При отключении накопленное выбрасывается, а не досылается
+    public void setCollectionEnabled(boolean enabled) {
+        executor.execute(() -> {
+            if (!enabled) {
+                cancelScheduledFlush();
+                buffer.clear();
+            }
+            sink.setCollectionEnabled(enabled);
+        });
+    }
+
+    public void flushAsync() {
+        executor.execute(this::flush);
+    }
+
+    private void enqueue(AnalyticsEvent event) {
+        executor.execute(() -> {
+            if (!consent.isAllowed()) {
+                buffer.clear();
+                return;
+            }
+            if (buffer.add(event)) {
+                flush();
+            } else if (scheduledFlush == null && !buffer.isEmpty()) {
+                scheduledFlush = executor.schedule(this::flush, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    private void flush() {
+        cancelScheduledFlush();
+        if (!consent.isAllowed()) {
+            buffer.clear();
+            return;
+        }
+        while (!buffer.isEmpty()) {
+            List<AnalyticsEvent> batch = buffer.nextBatch();
+            try {
+                sink.deliver(batch);
+            } catch (Exception e) {
+                PulseLog.e(TAG, "flush error", e);
+                buffer.requeue(batch);
+                scheduledFlush = executor.schedule(this::flush, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+                return;
+            }
+        }
+    }
+
+    private void cancelScheduledFlush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+    }
+
+    // allow_analytics из SettingsStore; до первой загрузки снимка читаем его на потоке базы
+    private static Consent settingsConsent(PulseDatabase database) {
+        SettingsStore settings = SettingsStore.getInstance(database);
+        return () -> {
+            String value = settings.get(SETTING_ALLOW_ANALYTICS);
+            if (value == null) {
+                try {
+                    value = database.submit(() -> settings.getAll().get(SETTING_ALLOW_ANALYTICS)).get();
+                } catch (Exception e) {
+                    PulseLog.e(TAG, "isAllowed: settings unavailable", e);
+                    return false;
+                }
+            }
+            return "true".equals(value);
+        };
+    }
+}
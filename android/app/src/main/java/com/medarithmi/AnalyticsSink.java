@@ -0,0 +1,10 @@
+package com.medarithmi;
+
+import java.util.List;
+
+// Получатель пачек аналитики (Firebase в приложении, заглушка в тестах)
+public interface AnalyticsSink {
+    void deliver(List<AnalyticsEvent> batch) throws Exception;
+
+    void setCollectionEnabled(boolean enabled);
+}
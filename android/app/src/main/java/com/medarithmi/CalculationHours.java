@@ -0,0 +1,62 @@
+package com.medarithmi;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+// Гистограмма часов суток (местное время), в которые пользователь сохраняет расчеты.
+// Поддерживается триггерами, как HistoryRollups: чтение — 24 строки, без прохода по истории
+public final class CalculationHours {
+    static final String TABLE = "calculation_hours";
+
+    private CalculationHours() {
+    }
+
+    static void create(SQLiteDatabase db) {
+        for (String sql : ddl()) {
+            db.execSQL(sql);
+        }
+    }
+
+    static String[] ddl() {
+        return new String[]{
+            "CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+                + "hour INTEGER PRIMARY KEY, "
+                + "count INTEGER NOT NULL)",
+            // Заполнение по существующей истории, только если гистограмма пуста
+            "INSERT INTO " + TABLE + " SELECT " + hourOf("calculation_date") + ", COUNT(*) "
+                + "FROM calculations WHERE NOT EXISTS (SELECT 1 FROM " + TABLE + ") "
+                + "GROUP BY " + hourOf("calculation_date"),
+            "CREATE TRIGGER IF NOT EXISTS trg_calculations_hours_insert "
+                + "AFTER INSERT ON calculations BEGIN "
+                + "INSERT OR IGNORE INTO " + TABLE + " VALUES (" + hourOf("NEW.calculation_date") + ", 0); "
+                + "UPDATE " + TABLE + " SET count = count + 1 "
+                + "WHERE hour = " + hourOf("NEW.calculation_date") + "; "
+                + "END",
+            // MAX: после смены часового пояса час удаляемой строки мог сдвинуться
+            "CREATE TRIGGER IF NOT EXISTS trg_calculations_hours_delete "
+                + "AFTER DELETE ON calculations BEGIN "
+                + "UPDATE " + TABLE + " SET count = MAX(count - 1, 0) "
+                + "WHERE hour = " + hourOf("OLD.calculation_date") + "; "
+                + "END",
+        };
+    }
+
+    // calculation_date хранится в UTC (CURRENT_TIMESTAMP)
+    private static String hourOf(String column) {
+        return "CAST(strftime('%H', " + column + ", 'localtime') AS INTEGER)";
+    }
+
+    // Счетчики по часам 0..23 (только из потока базы)
+    static int[] read(PulseDatabase database) {
+        int[] counts = new int[24];
+        try (Cursor cursor = database.query("SELECT hour, count FROM " + TABLE, null)) {
+            while (cursor.moveToNext()) {
+                int hour = cursor.getInt(0);
+                if (hour >= 0 && hour < counts.length) {
+                    counts[hour] = cursor.getInt(1);
+                }
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,93 @@
+package com.medarithmi;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.Map;
+
+// Нативный модуль диагностики: кольцо PulseLog, уровень журнала и метрики PulseMetrics
+public class DiagnosticsModule extends ReactContextBaseJavaModule {
+    public static final String NAME = "DiagnosticsModule";
+    private static final StripedCounter CALLS = PulseMetrics.counter(PulseMetrics.BRIDGE_CALLS_PREFIX + NAME);
+
+    public DiagnosticsModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    // [{time, level, tag, message}] от старых к новым
+    @ReactMethod
+    public void getRecentLogs(Promise promise) {
+        CALLS.increment();
+        try {
+            WritableArray result = Arguments.createArray();
+            for (PulseLog.Entry entry : PulseLog.recent()) {
+                WritableMap item = Arguments.createMap();
+                item.putDouble("time", entry.timeMillis);
+                item.putInt("level", entry.level);
+                item.putString("tag", entry.tag);
+                item.putString("message", entry.message);
+                result.pushMap(item);
+            }
+            promise.resolve(result);
+        } catch (Exception e) {
+            promise.reject("DIAGNOSTICS_ERROR", e.getMessage());
+        }
+    }
+
+    // Уровни android.util.Log: 2 VERBOSE ... 6 ERROR
+    @ReactMethod
+    public void setLogLevel(int level) {
+        CALLS.increment();
+        PulseLog.setLevel(level);
+    }
+
+    @ReactMethod
+    public void clearLogs() {
+        CALLS.increment();
+        PulseLog.clear();
+    }
+
+    /**
+     * Накопленные с запуска процесса метрики:
+     * {counters: {name: value}, histograms: {name: {count, errors, meanMs, p50Ms, p90Ms, p99Ms, maxMs}}}
+     */
+    @ReactMethod
+    public void getMetricsSnapshot(Promise promise) {
+        CALLS.increment();
+        try {
+            WritableMap counters = Arguments.createMap();
+            for (Map.Entry<String, Long> entry : PulseMetrics.counterValues().entrySet()) {
+                counters.putDouble(entry.getKey(), entry.getValue());
+            }
+            WritableMap histograms = Arguments.createMap();
+            for (Map.Entry<String, LatencyHistogram.Snapshot> entry : PulseMetrics.histogramSnapshots().entrySet()) {
+                LatencyHistogram.Snapshot snapshot = entry.getValue();
+                WritableMap item = Arguments.createMap();
+                item.putDouble("count", snapshot.count);
+                item.putDouble("errors", snapshot.errors);
+                item.putDouble("meanMs", snapshot.meanMs());
+                item.putDouble("p50Ms", snapshot.percentileMs(0.5));
+                item.putDouble("p90Ms", snapshot.percentileMs(0.9));
+                item.putDouble("p99Ms", snapshot.percentileMs(0.99));
+                item.putDouble("maxMs", snapshot.maxMs());
+                histograms.putMap(entry.getKey(), item);
+            }
+            WritableMap result = Arguments.createMap();
+            result.putMap("counters", counters);
+            result.putMap("histograms", histograms);
+            promise.resolve(result);
+        } catch (Exception e) {
+            promise.reject("DIAGNOSTICS_ERROR", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.medarithmi;
+
+import android.content.Context;
+import android.os.Bundle;
+
+import com.google.firebase.analytics.FirebaseAnalytics;
+
+import java.util.List;
+import java.util.Map;
+
+// Доставка пачек в Firebase Analytics (SDK сам копит и отправляет события в сеть)
+public final class FirebaseAnalyticsSink implements AnalyticsSink {
+    // Время события на устройстве: Firebase ставит время вызова logEvent,
+    // а пачка уходит до FLUSH_DELAY_MS позже
+    static final String PARAM_CLIENT_TIME = "client_time_ms";
+
+    private final FirebaseAnalytics analytics;
+
+    public FirebaseAnalyticsSink(Context context) {
+        this.analytics = FirebaseAnalytics.getInstance(context.getApplicationContext());
+    }
+
+    @Override
+    public void deliver(List<AnalyticsEvent> batch) {
+        for (AnalyticsEvent event : batch) {
+            if (event.screenView) {
+                Bundle params = new Bundle();
+                params.putString(FirebaseAnalytics.Param.SCREEN_NAME, event.name);
+                params.putString(FirebaseAnalytics.Param.SCREEN_CLASS, event.name);
+                params.putLong(PARAM_CLIENT_TIME, event.timestampMillis);
+                analytics.logEvent(FirebaseAnalytics.Event.SCREEN_VIEW, params);
+            } else {
+                Bundle params = toBundle(event.params);
+                params.putLong(PARAM_CLIENT_TIME, event.timestampMillis);
+                analytics.logEvent(event.name, params);
+            }
+        }
+    }
+
+    @Override
+    public void setCollectionEnabled(boolean enabled) {
+        analytics.setAnalyticsCollectionEnabled(enabled);
+    }
+
+    // Firebase принимает только строки, long и double
+    private static Bundle toBundle(Map<String, Object> params) {
+        Bundle bundle = new Bundle();
+        for (Map.Entry<String, Object> entry : params.entrySet()) {
+            Object value = entry.getValue();
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof Boolean) {
+                bundle.putLong(entry.getKey(), (Boolean) value ? 1 : 0);
+            } else if (value instanceof Number) {
+                double number = ((Number) value).doubleValue();
+                if (number == Math.rint(number) && Math.abs(number) < Long.MAX_VALUE) {
+                    bundle.putLong(entry.getKey(), (long) number);
+                } else {
+                    bundle.putDouble(entry.getKey(), number);
+                }
+            } else {
+                bundle.putString(entry.getKey(), value.toString());
+            }
+        }
+        return bundle;
+    }
+}
@@ -0,0 +1,74 @@
+package com.medarithmi;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Кольцевой буфер отсчетов пульса для одного писателя и одного читателя.
+// Без блокировок и без выделения памяти: данные лежат в примитивных массивах,
+// а позиции публикуются через упорядоченную запись (lazySet)
+public final class HeartRateRingBuffer {
+
+    public interface Consumer {
+        void accept(long timestampMillis, int bpm);
+    }
+
+    private final long[] timestamps;
+    private final int[] bpms;
+    private final int mask;
+
+    // head — следующий отсчет для чтения, tail — следующая позиция для записи
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // capacity округляется вверх до степени двойки
+    public HeartRateRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.timestamps = new long[size];
+        this.bpms = new int[size];
+        this.mask = size - 1;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    // Только из потока писателя; при переполнении отсчет отбрасывается
+    public boolean offer(long timestampMillis, int bpm) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        int slot = (int) t & mask;
+        timestamps[slot] = timestampMillis;
+        bpms[slot] = bpm;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    // Только из потока читателя; возвращает число прочитанных отсчетов
+    public int drain(Consumer consumer) {
+        long h = head.get();
+        long t = tail.get();
+        for (long i = h; i < t; i++) {
+            int slot = (int) i & mask;
+            consumer.accept(timestamps[slot], bpms[slot]);
+        }
+        head.lazySet(t);
+        return (int) (t - h);
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    // Вызывать, когда писатель остановлен
+    public void clear() {
+        head.set(tail.get());
+        dropped.set(0);
+    }
+}
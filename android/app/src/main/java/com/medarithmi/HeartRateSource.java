@@ -0,0 +1,17 @@
+package com.medarithmi;
+
+// Источник отсчетов пульса (датчик, симулятор, воспроизведение записи).
+// Отсчеты передаются из единственного потока источника
+public interface HeartRateSource {
+
+    interface Sink {
+        // timestampMillis — монотонное время отсчета, bpm — пульс
+        void onSample(long timestampMillis, int bpm);
+    }
+
+    void start(Sink sink);
+
+    // После возврата onSample больше не вызывается и не выполняется: буфер
+    // приемника можно очищать и отдавать следующему источнику
+    void stop();
+}
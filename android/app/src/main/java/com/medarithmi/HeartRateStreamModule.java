@@ -0,0 +1,302 @@
+package com.medarithmi;
+
+import android.database.Cursor;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Живой поток пульса: источник пишет отсчеты в кольцевой буфер, поток "PulseStream"
+ * с заданным периодом вычитывает их, классифицирует по зонам последнего расчета
+ * и отправляет в JS одно событие на пачку отсчетов.
+ */
+public class HeartRateStreamModule extends ReactContextBaseJavaModule {
+    public static final String NAME = "HeartRateStreamModule";
+    private static final StripedCounter CALLS = PulseMetrics.counter(PulseMetrics.BRIDGE_CALLS_PREFIX + NAME);
+    private static final String TAG = "HeartRateStream";
+    private static final String UPDATE_EVENT = "HeartRateStreamUpdate";
+
+    public static final String SOURCE_REPLAY = "replay";
+
+    private static final int BUFFER_CAPACITY = 4096;
+    private static final long DEFAULT_SAMPLE_INTERVAL_MS = 50;
+    private static final long DEFAULT_UPDATE_INTERVAL_MS = 1000;
+    private static final long MIN_UPDATE_INTERVAL_MS = 100;
+
+    private static final String LATEST_CALCULATION_SQL =
+        "SELECT age, resting_hr FROM calculations ORDER BY calculation_date DESC, id DESC LIMIT 1";
+
+    private final ReactApplicationContext reactContext;
+    private final PulseDatabase database;
+    private final HeartRateRingBuffer buffer = new HeartRateRingBuffer(BUFFER_CAPACITY);
+    private final ZoneTracker tracker = new ZoneTracker();
+    private final HeartRateRingBuffer.Consumer consumer = this::consume;
+    private final int[] zones = new int[ZoneCalculator.ZONE_COUNT * 2];
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "PulseStream");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+
+    // Доступны только из потока PulseStream
+    private HeartRateSource source;
+    private Recording recording;
+    private ScheduledFuture<?> updates;
+    private int maxHR;
+
+    public HeartRateStreamModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+        this.database = PulseDatabase.getInstance(reactContext);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * options: {source?: 'replay', samples?: number[], sampleIntervalMs?: number,
+     * updateIntervalMs?: number, model?: number, measuredMaxHR?: number, record?: boolean}.
+     * Зоны берутся из последней записи calculations. С record отсчеты сохраняются
+     * в файл тренировки при stopStream.
+     */
+    @ReactMethod
+    public void startStream(ReadableMap options, Promise promise) {
+        CALLS.increment();
+        // Опции проверяются до остановки текущего потока: ошибка не должна
+        // обрывать идущую тренировку и ее несохраненную запись
+        String sourceName;
+        int[] samples;
+        long sampleInterval;
+        long updateInterval;
+        int model;
+        int measuredMaxHR;
+        boolean record;
+        try {
+            sourceName = stringOption(options, "source", SOURCE_REPLAY);
+            samples = options != null && options.hasKey("samples") && !options.isNull("samples")
+                ? toIntArray(options.getArray("samples"))
+                : null;
+            sampleInterval = (long) doubleOption(options, "sampleIntervalMs", DEFAULT_SAMPLE_INTERVAL_MS);
+            updateInterval = Math.max(MIN_UPDATE_INTERVAL_MS,
+                (long) doubleOption(options, "updateIntervalMs", DEFAULT_UPDATE_INTERVAL_MS));
+            model = (int) doubleOption(options, "model", ZoneCalculator.MODEL_FOX);
+            measuredMaxHR = (int) doubleOption(options, "measuredMaxHR", 0);
+            record = options != null && options.hasKey("record") && options.getBoolean("record");
+        } catch (RuntimeException e) {
+            promise.reject("INVALID_OPTIONS", e.getMessage());
+            return;
+        }
+        if (!SOURCE_REPLAY.equals(sourceName)) {
+            promise.reject("UNKNOWN_SOURCE", "Неизвестный источник пульса: " + sourceName);
+            return;
+        }
+
+        executor.execute(() -> {
+            try {
+                int[] latest = database.submit(this::loadLatestCalculation).get();
+                if (latest == null) {
+                    promise.reject("NO_CALCULATION", "Нет расчета зон для классификации пульса");
+                    return;
+                }
+                int[] nextZones = new int[zones.length];
+                int nextMaxHR = ZoneTable.fillZones(ZoneTable.get(getReactApplicationContext()),
+                    model, latest[0], latest[1], measuredMaxHR, nextZones, 0);
+                HeartRateSource nextSource =
+                    new ReplayHeartRateSource(samples, sampleInterval, latest[1], nextMaxHR);
+
+                stopInternal();
+                maxHR = nextMaxHR;
+                System.arraycopy(nextZones, 0, zones, 0, zones.length);
+                tracker.reset();
+                tracker.setZones(zones);
+                buffer.clear();
+                recording = record ? new Recording(System.currentTimeMillis()) : null;
+
+                source = nextSource;
+                source.start(buffer::offer);
+                updates = executor.scheduleAtFixedRate(this::publish, updateInterval,
+                    updateInterval, TimeUnit.MILLISECONDS);
+
+                WritableMap result = Arguments.createMap();
+                result.putInt("maxHR", maxHR);
+                result.putArray("zones", fromIntArray(zones));
+                promise.resolve(result);
+            } catch (Exception e) {
+                PulseLog.e(TAG, "startStream error", e);
+                promise.reject("STREAM_START_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    // Останавливает источник, дочитывает буфер и возвращает итоговое состояние;
+    // при записи — еще и sessionId сохраненной тренировки
+    @ReactMethod
+    public void stopStream(Promise promise) {
+        CALLS.increment();
+        executor.execute(() -> {
+            try {
+                stopInternal();
+                buffer.drain(consumer);
+                WritableMap result = snapshot(0);
+                Recording finished = recording;
+                recording = null;
+                if (finished != null && finished.count > 0) {
+                    long sessionId = SessionStore.getInstance(reactContext).save(
+                        finished.startedAt, finished.offsets, finished.bpms, finished.count);
+                    result.putDouble("sessionId", sessionId);
+                }
+                promise.resolve(result);
+            } catch (Exception e) {
+                promise.reject("STREAM_STOP_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    @ReactMethod
+    public void getSnapshot(Promise promise) {
+        CALLS.increment();
+        executor.execute(() -> promise.resolve(snapshot(buffer.drain(consumer))));
+    }
+
+    // Нужны NativeEventEmitter в JS
+    @ReactMethod
+    public void addListener(String eventName) {
+    }
+
+    @ReactMethod
+    public void removeListeners(double count) {
+    }
+
+    @Override
+    public void invalidate() {
+        executor.execute(() -> {
+            stopInternal();
+            recording = null;
+        });
+        executor.shutdown();
+        super.invalidate();
+    }
+
+    private void stopInternal() {
+        if (source != null) {
+            source.stop();
+            source = null;
+        }
+        if (updates != null) {
+            updates.cancel(false);
+            updates = null;
+        }
+    }
+
+    // Одна пачка отсчетов — одно событие; без новых отсчетов событие не отправляется
+    private void publish() {
+        int drained = buffer.drain(consumer);
+        if (drained == 0 || !reactContext.hasActiveReactInstance()) {
+            return;
+        }
+        reactContext
+            .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+            .emit(UPDATE_EVENT, snapshot(drained));
+    }
+
+    private void consume(long timestampMillis, int bpm) {
+        tracker.accept(timestampMillis, bpm);
+        if (recording != null) {
+            recording.append(timestampMillis, bpm);
+        }
+    }
+
+    private WritableMap snapshot(int batchSize) {
+        WritableMap map = Arguments.createMap();
+        map.putInt("bpm", tracker.lastBpm());
+        map.putInt("zone", tracker.currentZone());
+        map.putDouble("timestamp", tracker.lastTimestamp());
+        map.putInt("batchSize", batchSize);
+        map.putDouble("sampleCount", tracker.sampleCount());
+        map.putDouble("dropped", buffer.droppedCount());
+        WritableArray timeInZone = Arguments.createArray();
+        for (int zone = 0; zone < ZoneCalculator.ZONE_COUNT; zone++) {
+            timeInZone.pushDouble(tracker.timeInZoneMs(zone));
+        }
+        map.putArray("timeInZoneMs", timeInZone);
+        map.putDouble("belowZonesMs", tracker.belowZonesMs());
+        return map;
+    }
+
+    // {age, resting_hr} последнего расчета или null; выполняется в потоке базы
+    private int[] loadLatestCalculation() {
+        try (Cursor cursor = database.query(LATEST_CALCULATION_SQL, null)) {
+            return cursor.moveToFirst() ? new int[]{cursor.getInt(0), cursor.getInt(1)} : null;
+        }
+    }
+
+    // Отсчеты текущей записи; массивы растут удвоением, без объектов на отсчет
+    private static final class Recording {
+        final long startedAt;
+        long firstTimestamp = -1;
+        long[] offsets = new long[1024];
+        int[] bpms = new int[1024];
+        int count;
+
+        Recording(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        void append(long timestampMillis, int bpm) {
+            if (firstTimestamp < 0) {
+                firstTimestamp = timestampMillis;
+            }
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+                bpms = Arrays.copyOf(bpms, count * 2);
+            }
+            offsets[count] = timestampMillis - firstTimestamp;
+            bpms[count] = bpm;
+            count++;
+        }
+    }
+
+    private static String stringOption(ReadableMap options, String key, String fallback) {
+        return options != null && options.hasKey(key) && !options.isNull(key)
+            ? options.getString(key)
+            : fallback;
+    }
+
+    private static double doubleOption(ReadableMap options, String key, double fallback) {
+        return options != null && options.hasKey(key) && !options.isNull(key)
+            ? options.getDouble(key)
+            : fallback;
+    }
+
+    private static int[] toIntArray(ReadableArray array) {
+        int[] out = new int[array.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = array.isNull(i) ? 0 : array.getInt(i);
+        }
+        return out;
+    }
+
+    private static WritableArray fromIntArray(int[] values) {
+        WritableArray array = Arguments.createArray();
+        for (int value : values) {
+            array.pushInt(value);
+        }
+        return array;
+    }
+}
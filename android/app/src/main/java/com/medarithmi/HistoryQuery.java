@@ -0,0 +1,85 @@
+package com.medarithmi;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Построитель запросов к истории расчетов: фильтры и постраничная выборка по ключу
+// (calculation_date, id), которая опирается на индексы и не сортирует всю таблицу
+public final class HistoryQuery {
+    static final String COLUMNS =
+        "id, zone_name, age, resting_hr, zone_min, zone_max, calculation_date";
+
+    static final String CURSOR_PREDICATE =
+        "calculation_date <= ? AND (calculation_date < ? OR id < ?)";
+
+    // Фильтры; null означает отсутствие ограничения
+    public String fromDate;
+    public String toDate;
+    public String zoneName;
+    public Integer minRestingHR;
+    public Integer maxRestingHR;
+
+    // Курсор: последняя строка предыдущей страницы
+    public String cursorDate;
+    public Long cursorId;
+
+    private final List<Object> args = new ArrayList<>();
+
+    // SELECT для одной страницы, отсортированной от новых к старым
+    public String pageSql(int limit) {
+        args.clear();
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM calculations");
+        appendWhere(sql, true);
+        sql.append(" ORDER BY calculation_date DESC, id DESC LIMIT ?");
+        args.add(limit);
+        return sql.toString();
+    }
+
+    // COUNT по тем же фильтрам, без курсора
+    public String countSql() {
+        args.clear();
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM calculations");
+        appendWhere(sql, false);
+        return sql.toString();
+    }
+
+    // Параметры последнего построенного запроса
+    public Object[] args() {
+        return args.toArray();
+    }
+
+    private void appendWhere(StringBuilder sql, boolean withCursor) {
+        List<String> conditions = new ArrayList<>();
+        if (zoneName != null) {
+            conditions.add("zone_name = ?");
+            args.add(zoneName);
+        }
+        if (fromDate != null) {
+            conditions.add("calculation_date >= ?");
+            args.add(fromDate);
+        }
+        if (toDate != null) {
+            conditions.add("calculation_date <= ?");
+            args.add(toDate);
+        }
+        if (minRestingHR != null) {
+            conditions.add("resting_hr >= ?");
+            args.add(minRestingHR);
+        }
+        if (maxRestingHR != null) {
+            conditions.add("resting_hr <= ?");
+            args.add(maxRestingHR);
+        }
+        // Строки после курсора. Отдельное "calculation_date <= ?" дает SQLite границу
+        // диапазона по индексу; в виде одного OR индекс только сканируется с начала
+        if (withCursor && cursorDate != null && cursorId != null) {
+            conditions.add(CURSOR_PREDICATE);
+            args.add(cursorDate);
+            args.add(cursorDate);
+            args.add(cursorId);
+        }
+        for (int i = 0; i < conditions.size(); i++) {
+            sql.append(i == 0 ? " WHERE " : " AND ").append(conditions.get(i));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.medarithmi;
+
+import android.database.sqlite.SQLiteDatabase;
+
+// Дневные и недельные сводки по зонам, которые поддерживаются триггерами на каждую
+// вставку и удаление расчета, поэтому статистика не требует просмотра всей истории
+public final class HistoryRollups {
+    static final String TABLE_DAILY = "calculation_rollups_daily";
+    static final String TABLE_WEEKLY = "calculation_rollups_weekly";
+
+    // Ключи периодов в местном времени, как часы в CalculationHours: calculation_date
+    // хранится в UTC (CURRENT_TIMESTAMP). Ключ недели — понедельник, с которого она начинается
+    private static final String DAY_OF = "date(%s, 'localtime')";
+    private static final String WEEK_OF = "date(%s, 'localtime', '-6 days', 'weekday 1')";
+
+    private HistoryRollups() {
+    }
+
+    static void create(SQLiteDatabase db) {
+        for (String sql : ddl()) {
+            db.execSQL(sql);
+        }
+    }
+
+    // Сводки по дням UTC (до версии 7 базы) удаляются и заново заполняются в create
+    static void drop(SQLiteDatabase db) {
+        db.execSQL("DROP TRIGGER IF EXISTS trg_calculations_rollup_insert");
+        db.execSQL("DROP TRIGGER IF EXISTS trg_calculations_rollup_delete");
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_DAILY);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_WEEKLY);
+    }
+
+    // DDL таблиц, триггеров и разовое заполнение по существующей истории
+    static String[] ddl() {
+        return new String[]{
+            table(TABLE_DAILY),
+            table(TABLE_WEEKLY),
+            backfill(TABLE_DAILY, String.format(DAY_OF, "calculation_date")),
+            backfill(TABLE_WEEKLY, String.format(WEEK_OF, "calculation_date")),
+            "CREATE TRIGGER IF NOT EXISTS trg_calculations_rollup_insert "
+                + "AFTER INSERT ON calculations BEGIN "
+                + insertStep(TABLE_DAILY, String.format(DAY_OF, "NEW.calculation_date"))
+                + insertStep(TABLE_WEEKLY, String.format(WEEK_OF, "NEW.calculation_date"))
+                + "END",
+            "CREATE TRIGGER IF NOT EXISTS trg_calculations_rollup_delete "
+                + "AFTER DELETE ON calculations BEGIN "
+                + deleteStep(TABLE_DAILY, String.format(DAY_OF, "OLD.calculation_date"), "'+1 day'")
+                + deleteStep(TABLE_WEEKLY, String.format(WEEK_OF, "OLD.calculation_date"), "'+7 days'")
+                + "END",
+        };
+    }
+
+    private static String table(String name) {
+        return "CREATE TABLE IF NOT EXISTS " + name + " ("
+            + "period_start TEXT NOT NULL, "
+            + "zone_name TEXT NOT NULL, "
+            + "count INTEGER NOT NULL, "
+            + "sum_resting_hr INTEGER NOT NULL, "
+            + "min_resting_hr INTEGER NOT NULL, "
+            + "max_resting_hr INTEGER NOT NULL, "
+            + "min_zone_min INTEGER NOT NULL, "
+            + "max_zone_max INTEGER NOT NULL, "
+            + "PRIMARY KEY (period_start, zone_name))";
+    }
+
+    // Заполняет сводку только если она пуста (первый запуск после обновления)
+    private static String backfill(String name, String periodExpr) {
+        return "INSERT INTO " + name + " SELECT " + periodExpr + ", zone_name, COUNT(*), "
+            + "SUM(resting_hr), MIN(resting_hr), MAX(resting_hr), MIN(zone_min), MAX(zone_max) "
+            + "FROM calculations WHERE NOT EXISTS (SELECT 1 FROM " + name + ") "
+            + "GROUP BY " + periodExpr + ", zone_name";
+    }
+
+    private static String insertStep(String name, String periodExpr) {
+        return "INSERT OR IGNORE INTO " + name + " VALUES (" + periodExpr + ", NEW.zone_name, 0, 0, "
+            + "NEW.resting_hr, NEW.resting_hr, NEW.zone_min, NEW.zone_max); "
+            + "UPDATE " + name + " SET count = count + 1, "
+            + "sum_resting_hr = sum_resting_hr + NEW.resting_hr, "
+            + "min_resting_hr = MIN(min_resting_hr, NEW.resting_hr), "
+            + "max_resting_hr = MAX(max_resting_hr, NEW.resting_hr), "
+            + "min_zone_min = MIN(min_zone_min, NEW.zone_min), "
+            + "max_zone_max = MAX(max_zone_max, NEW.zone_max) "
+            + "WHERE period_start = " + periodExpr + " AND zone_name = NEW.zone_name; ";
+    }
+
+    // Минимумы и максимумы пересчитываются по индексу (zone_name, calculation_date)
+    // только в пределах одного дня или недели; границы местного периода переводятся в UTC
+    private static String deleteStep(String name, String periodExpr, String periodLength) {
+        String range = " FROM calculations WHERE zone_name = OLD.zone_name "
+            + "AND calculation_date >= datetime(" + periodExpr + ", 'utc') "
+            + "AND calculation_date < datetime(" + periodExpr + ", " + periodLength + ", 'utc')";
+        return "UPDATE " + name + " SET count = count - 1, "
+            + "sum_resting_hr = sum_resting_hr - OLD.resting_hr, "
+            + "min_resting_hr = COALESCE((SELECT MIN(resting_hr)" + range + "), 0), "
+            + "max_resting_hr = COALESCE((SELECT MAX(resting_hr)" + range + "), 0), "
+            + "min_zone_min = COALESCE((SELECT MIN(zone_min)" + range + "), 0), "
+            + "max_zone_max = COALESCE((SELECT MAX(zone_max)" + range + "), 0) "
+            + "WHERE period_start = " + periodExpr + " AND zone_name = OLD.zone_name; "
+            + "DELETE FROM " + name + " WHERE period_start = " + periodExpr + " "
+            + "AND zone_name = OLD.zone_name AND count <= 0; ";
+    }
+
+    // Итоги по всей истории (сводок на порядки меньше, чем расчетов)
+    static final String TOTALS_SQL = "SELECT SUM(count), SUM(sum_resting_hr), "
+        + "MIN(min_resting_hr), MAX(max_resting_hr) FROM " + TABLE_DAILY;
+
+    // Ряд по периодам (все зоны вместе), от новых к старым
+    static String seriesSql(boolean weekly) {
+        return "SELECT period_start, SUM(count), SUM(sum_resting_hr), MIN(min_resting_hr), "
+            + "MAX(max_resting_hr), MIN(min_zone_min), MAX(max_zone_max) FROM "
+            + (weekly ? TABLE_WEEKLY : TABLE_DAILY)
+            + " GROUP BY period_start ORDER BY period_start DESC LIMIT ?";
+    }
+}
@@ -0,0 +1,390 @@
+package com.medarithmi;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Синхронизация истории расчетов между устройствами только изменениями.
+ *
+ * Триггеры на calculations пишут в журнал sync_changes добавления и удаления
+ * (только при включенной синхронизации, см. configure); sync_rows связывает
+ * локальный id строки с глобальным (deviceId-id для своих
+ * строк, id сервера для полученных). Отправка: журнал читается пакетами до
+ * MAX_BATCH_ROWS строк и MAX_BATCH_BYTES байт JSON, сжимается gzip и после
+ * подтверждения удаляется. Пакет, отклоненный сервером (4xx кроме 408 и 429),
+ * не блокирует журнал: на 413 он делится пополам, иначе откладывается в
+ * sync_rejected вместе с кодом ответа. Получение: страницы изменений сервера
+ * после курсора (high-water mark в sync_state) применяются по одной транзакции
+ * на страницу.
+ *
+ * Расчеты не редактируются, поэтому изменение строки — это только добавление или удаление.
+ */
+public final class HistorySync {
+    private static final String TAG = "HistorySync";
+    static final int OP_UPSERT = 1;
+    static final int OP_DELETE = 2;
+    static final int MAX_BATCH_ROWS = 500;
+    static final int MAX_BATCH_BYTES = 256 * 1024;
+    static final int PULL_LIMIT = 500;
+
+    static final String KEY_DEVICE_ID = "device_id";
+    static final String KEY_CURSOR = "server_cursor";
+    static final String TRIGGER_INSERT = "trg_calculations_sync_insert";
+    static final String TRIGGER_DELETE = "trg_calculations_sync_delete";
+
+    private static final StripedCounter PUSHED = PulseMetrics.counter(PulseMetrics.SYNC_PUSHED);
+    private static final StripedCounter PULLED = PulseMetrics.counter(PulseMetrics.SYNC_PULLED);
+    private static final StripedCounter REJECTED = PulseMetrics.counter(PulseMetrics.SYNC_REJECTED);
+    private static final int HTTP_ENTITY_TOO_LARGE = 413;
+
+    private static final String SELECT_BATCH =
+        "SELECT c.seq, c.op, c.calc_id, COALESCE(c.sync_id, r.sync_id), "
+            + "k.zone_name, k.age, k.resting_hr, k.zone_min, k.zone_max, k.calculation_date "
+            + "FROM sync_changes c "
+            + "LEFT JOIN sync_rows r ON r.calc_id = c.calc_id "
+            + "LEFT JOIN calculations k ON k.id = c.calc_id AND c.op = " + OP_UPSERT + " "
+            + "ORDER BY c.seq LIMIT ?";
+
+    private final PulseDatabase database;
+    private final SyncTransport transport;
+    private final String deviceId;
+
+    public HistorySync(PulseDatabase database, SyncTransport transport, String deviceId) {
+        this.database = database;
+        this.transport = transport;
+        this.deviceId = deviceId;
+    }
+
+    // Таблицы журнала создаются всегда; без синхронизации они остаются пустыми
+    static void create(SQLiteDatabase db) {
+        for (String sql : ddl()) {
+            db.execSQL(sql);
+        }
+    }
+
+    /**
+     * Триггеры журнала есть, только пока синхронизация включена (SYNC_BASE_URL в
+     * сборке): иначе журнал никто не отправляет и он растет с каждым расчетом.
+     * При выключении триггеры удаляются, а журнал очищается; при включении
+     * изменения за выключенный период восстанавливаются по sync_rows.
+     * Вызывается при каждом открытии базы, работа — только при смене режима.
+     */
+    static void configure(SQLiteDatabase db, boolean enabled) {
+        boolean installed;
+        try (Cursor cursor = db.rawQuery("SELECT 1 FROM sqlite_master WHERE type = 'trigger' AND name = ?",
+            new String[]{TRIGGER_INSERT})) {
+            installed = cursor.moveToFirst();
+        }
+        if (installed == enabled) {
+            return;
+        }
+        db.beginTransaction();
+        try {
+            for (String sql : enabled ? triggerDdl() : disableDdl()) {
+                db.execSQL(sql);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    static String[] ddl() {
+        return new String[]{
+            "CREATE TABLE IF NOT EXISTS sync_changes ("
+                + "seq INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "calc_id INTEGER NOT NULL, "
+                + "op INTEGER NOT NULL, "
+                + "sync_id TEXT)",
+            "CREATE TABLE IF NOT EXISTS sync_rows ("
+                + "calc_id INTEGER PRIMARY KEY, "
+                + "sync_id TEXT NOT NULL UNIQUE)",
+            "CREATE TABLE IF NOT EXISTS sync_state ("
+                + "key TEXT PRIMARY KEY, "
+                + "value TEXT)",
+            // Пакеты, которые сервер отказался принять: для разбора, на сервер больше не идут
+            "CREATE TABLE IF NOT EXISTS sync_rejected ("
+                + "id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "status INTEGER NOT NULL, "
+                + "body TEXT NOT NULL, "
+                + "rejected_at DATETIME DEFAULT CURRENT_TIMESTAMP)",
+        };
+    }
+
+    // Журнал пуст (очищен при выключении или только создан): расхождение calculations
+    // и sync_rows — это все изменения, которые сервер еще не видел
+    static String[] triggerDdl() {
+        return new String[]{
+            "INSERT INTO sync_changes (calc_id, op) SELECT id, " + OP_UPSERT + " FROM calculations "
+                + "WHERE id NOT IN (SELECT calc_id FROM sync_rows) ORDER BY id",
+            "INSERT INTO sync_changes (calc_id, op, sync_id) SELECT calc_id, " + OP_DELETE + ", sync_id "
+                + "FROM sync_rows WHERE calc_id NOT IN (SELECT id FROM calculations) ORDER BY calc_id",
+            "DELETE FROM sync_rows WHERE calc_id NOT IN (SELECT id FROM calculations)",
+            "INSERT OR IGNORE INTO sync_state (key, value) "
+                + "VALUES ('" + KEY_DEVICE_ID + "', lower(hex(randomblob(16))))",
+            "CREATE TRIGGER IF NOT EXISTS " + TRIGGER_INSERT + " "
+                + "AFTER INSERT ON calculations BEGIN "
+                + "INSERT INTO sync_changes (calc_id, op) VALUES (NEW.id, " + OP_UPSERT + "); "
+                + "END",
+            // Неотправленное добавление просто отменяется; удаление уже отправленной
+            // строки запоминает ее глобальный id, потому что связь удаляется здесь же
+            "CREATE TRIGGER IF NOT EXISTS " + TRIGGER_DELETE + " "
+                + "AFTER DELETE ON calculations BEGIN "
+                + "DELETE FROM sync_changes WHERE calc_id = OLD.id AND op = " + OP_UPSERT + "; "
+                + "INSERT INTO sync_changes (calc_id, op, sync_id) "
+                + "SELECT OLD.id, " + OP_DELETE + ", sync_id FROM sync_rows WHERE calc_id = OLD.id; "
+                + "DELETE FROM sync_rows WHERE calc_id = OLD.id; "
+                + "END",
+        };
+    }
+
+    // sync_rows и курсор сохраняются: по ним triggerDdl восстановит пропущенное
+    static String[] disableDdl() {
+        return new String[]{
+            "DROP TRIGGER IF EXISTS " + TRIGGER_INSERT,
+            "DROP TRIGGER IF EXISTS " + TRIGGER_DELETE,
+            "DELETE FROM sync_changes",
+        };
+    }
+
+    // Значение из sync_state или null (только из потока базы)
+    static String readState(PulseDatabase database, String key) {
+        try (Cursor cursor = database.query("SELECT value FROM sync_state WHERE key = ?", new Object[]{key})) {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        }
+    }
+
+    // Есть ли неотправленные изменения (только из потока базы)
+    static boolean hasPendingChanges(PulseDatabase database) {
+        try (Cursor cursor = database.query("SELECT 1 FROM sync_changes LIMIT 1", null)) {
+            return cursor.moveToFirst();
+        }
+    }
+
+    /**
+     * Отправка журнала, затем получение изменений сервера. Вызывать вне потока
+     * базы: чтение и применение пакетов выполняются на нем и ожидаются.
+     * IOException транспорта прерывает синхронизацию; подтвержденные пакеты
+     * и примененные страницы при этом сохраняются, неподтвержденный пакет
+     * остается в журнале. SyncRejectedException доходит до вызывающего только
+     * из получения: отклоненные пакеты отправки откладываются.
+     */
+    public void run() throws Exception {
+        long pushed = push();
+        long pulled = pull();
+        PulseLog.i(TAG, "sync done: pushed {}, pulled {}", pushed, pulled);
+    }
+
+    private long push() throws Exception {
+        long pushed = 0;
+        int maxRows = MAX_BATCH_ROWS;
+        while (true) {
+            int limit = maxRows;
+            Batch batch = database.submit(() -> nextBatch(limit)).get();
+            if (batch == null) {
+                return pushed;
+            }
+            // Пакет из одних пропущенных строк подтверждается без отправки
+            if (batch.count > 0) {
+                try {
+                    transport.push(gzip(batch.json));
+                } catch (SyncRejectedException e) {
+                    if (e.getStatus() == HTTP_ENTITY_TOO_LARGE && batch.count > 1) {
+                        maxRows = (batch.count + 1) / 2;
+                        continue;
+                    }
+                    PulseLog.w(TAG, "batch rejected: {}, {} changes moved aside", e.getMessage(), batch.count);
+                    database.submit(() -> setAside(batch, e.getStatus())).get();
+                    REJECTED.add(batch.count);
+                    maxRows = MAX_BATCH_ROWS;
+                    continue;
+                }
+            }
+            database.submit(() -> database.executeUpdate(
+                "DELETE FROM sync_changes WHERE seq <= ?", new Object[]{batch.lastSeq})).get();
+            pushed += batch.count;
+            PUSHED.add(batch.count);
+            maxRows = MAX_BATCH_ROWS;
+        }
+    }
+
+    // Отклоненный пакет уходит из журнала в sync_rejected одной транзакцией (только из потока базы)
+    private Void setAside(Batch batch, int status) {
+        SQLiteDatabase db = database.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            database.executeInsert("INSERT INTO sync_rejected (status, body) VALUES (?, ?)",
+                new Object[]{status, batch.json});
+            database.executeUpdate("DELETE FROM sync_changes WHERE seq <= ?", new Object[]{batch.lastSeq});
+            db.setTransactionSuccessful();
+            return null;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // Следующий пакет журнала до maxRows строк или null, если журнал пуст (только из потока базы).
+    // Своим строкам глобальный id назначается здесь, в одной транзакции с чтением:
+    // удаление после отправки уже попадет в журнал с этим id
+    private Batch nextBatch(int maxRows) throws JSONException {
+        SQLiteDatabase db = database.getWritableDatabase();
+        db.beginTransaction();
+        try (Cursor cursor = database.query(SELECT_BATCH, new Object[]{maxRows})) {
+            StringBuilder json = new StringBuilder(4096)
+                .append("{\"device\":").append(JSONObject.quote(deviceId))
+                .append(",\"changes\":[");
+            // Размер в байтах UTF-8 вместе с закрывающими "]}"
+            int bytes = json.length() + 2;
+            int count = 0;
+            long lastSeq = -1;
+            while (cursor.moveToNext()) {
+                int op = cursor.getInt(1);
+                long calcId = cursor.getLong(2);
+                String syncId = cursor.getString(3);
+                boolean assignId = false;
+
+                JSONObject change = new JSONObject();
+                if (op == OP_DELETE) {
+                    change.put("op", "delete");
+                } else if (!cursor.isNull(4)) {
+                    if (syncId == null) {
+                        syncId = deviceId + "-" + calcId;
+                        assignId = true;
+                    }
+                    change.put("op", "upsert")
+                        .put("zone_name", cursor.getString(4))
+                        .put("age", cursor.getInt(5))
+                        .put("resting_hr", cursor.getInt(6))
+                        .put("zone_min", cursor.getInt(7))
+                        .put("zone_max", cursor.getInt(8))
+                        .put("calculation_date", cursor.getString(9));
+                } else {
+                    // Строка удалена до отправки
+                    lastSeq = cursor.getLong(0);
+                    continue;
+                }
+                change.put("id", syncId);
+
+                String item = change.toString();
+                int itemBytes = item.getBytes(StandardCharsets.UTF_8).length + (count > 0 ? 1 : 0);
+                if (count > 0 && bytes + itemBytes > MAX_BATCH_BYTES) {
+                    break;
+                }
+                if (assignId) {
+                    database.executeInsert("INSERT OR IGNORE INTO sync_rows (calc_id, sync_id) VALUES (?, ?)",
+                        new Object[]{calcId, syncId});
+                }
+                if (count > 0) {
+                    json.append(',');
+                }
+                json.append(item);
+                bytes += itemBytes;
+                count++;
+                lastSeq = cursor.getLong(0);
+            }
+            db.setTransactionSuccessful();
+            return lastSeq < 0 ? null : new Batch(json.append("]}").toString(), count, lastSeq);
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private long pull() throws Exception {
+        String cursor = database.submit(() -> readState(database, KEY_CURSOR)).get();
+        long pulled = 0;
+        while (true) {
+            JSONObject page = new JSONObject(transport.pull(cursor, PULL_LIMIT));
+            JSONArray changes = page.optJSONArray("changes");
+            String next = page.isNull("cursor") ? cursor : page.getString("cursor");
+            int applied = database.submit(() -> apply(changes, next)).get();
+            pulled += applied;
+            PULLED.add(applied);
+            if (!page.optBoolean("more") || next == null || next.equals(cursor)) {
+                return pulled;
+            }
+            cursor = next;
+        }
+    }
+
+    // Страница изменений сервера одной транзакцией вместе с новым курсором (только из потока базы)
+    private int apply(JSONArray changes, String nextCursor) throws JSONException {
+        SQLiteDatabase db = database.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            long seqBefore = longOf("SELECT COALESCE(MAX(seq), 0) FROM sync_changes", null);
+            int applied = 0;
+            int length = changes != null ? changes.length() : 0;
+            for (int i = 0; i < length; i++) {
+                JSONObject change = changes.getJSONObject(i);
+                String syncId = change.getString("id");
+                long calcId = longOf("SELECT calc_id FROM sync_rows WHERE sync_id = ?", new Object[]{syncId});
+                if ("delete".equals(change.getString("op"))) {
+                    if (calcId >= 0) {
+                        database.executeUpdate("DELETE FROM calculations WHERE id = ?", new Object[]{calcId});
+                        applied++;
+                    }
+                } else if (calcId < 0 && longOf("SELECT seq FROM sync_changes WHERE sync_id = ?",
+                    new Object[]{syncId}) < 0) {
+                    // Уже известные строки и строки, удаленные здесь до отправки, пропускаются
+                    long id = database.insertCalculationAt(
+                        change.getString("zone_name"),
+                        change.getInt("age"),
+                        change.getInt("resting_hr"),
+                        change.getInt("zone_min"),
+                        change.getInt("zone_max"),
+                        change.isNull("calculation_date") ? null : change.getString("calculation_date"));
+                    database.executeInsert("INSERT INTO sync_rows (calc_id, sync_id) VALUES (?, ?)",
+                        new Object[]{id, syncId});
+                    applied++;
+                }
+            }
+            // Триггеры записали примененные изменения в журнал; обратно на сервер они не идут
+            database.executeUpdate("DELETE FROM sync_changes WHERE seq > ?", new Object[]{seqBefore});
+            if (nextCursor != null) {
+                database.executeUpdate("INSERT OR REPLACE INTO sync_state (key, value) VALUES (?, ?)",
+                    new Object[]{KEY_CURSOR, nextCursor});
+            }
+            db.setTransactionSuccessful();
+            return applied;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // Первое значение запроса или -1
+    private long longOf(String sql, Object[] args) {
+        try (Cursor cursor = database.query(sql, args)) {
+            return cursor.moveToFirst() && !cursor.isNull(0) ? cursor.getLong(0) : -1;
+        }
+    }
+
+    static byte[] gzip(String json) throws IOException {
+        byte[] raw = json.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        }
+        return out.toByteArray();
+    }
+
+    private static final class Batch {
+        final String json;
+        final int count;
+        final long lastSeq;
+
+        Batch(String json, int count, long lastSeq) {
+            this.json = json;
+            this.count = count;
+            this.lastSeq = lastSeq;
+        }
+    }
+}
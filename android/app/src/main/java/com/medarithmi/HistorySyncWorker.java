@@ -0,0 +1,103 @@
+package com.medarithmi;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// Синхронизация истории через WorkManager: только при наличии сети, с экспоненциальным
+// отступом при временных ошибках транспорта (сеть, 5xx, 408, 429).
+// Без SYNC_BASE_URL в сборке ничего не планируется
+public class HistorySyncWorker extends Worker {
+    private static final String TAG = "HistorySyncWorker";
+    static final String WORK_NAME = "history_sync";
+    static final String PERIODIC_WORK_NAME = "history_sync_periodic";
+    private static final long PERIOD_HOURS = 6;
+    private static final long BACKOFF_SECONDS = 30;
+    private static final LatencyHistogram WORK_LATENCY = PulseMetrics.histogram(PulseMetrics.WORKER_SYNC);
+
+    public HistorySyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    static boolean isEnabled() {
+        return !BuildConfig.SYNC_BASE_URL.isEmpty();
+    }
+
+    // Периодическое получение изменений с других устройств; повторный вызов ничего не меняет
+    static void schedule(Context context) {
+        if (!isEnabled()) {
+            return;
+        }
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(
+            HistorySyncWorker.class, PERIOD_HOURS, TimeUnit.HOURS)
+            .setConstraints(constraints())
+            .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_SECONDS, TimeUnit.SECONDS)
+            .build();
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+            PERIODIC_WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    // Разовая синхронизация после локальных изменений; уже ожидающая не дублируется
+    static void requestSync(Context context) {
+        if (!isEnabled()) {
+            return;
+        }
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(HistorySyncWorker.class)
+            .setConstraints(constraints())
+            .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_SECONDS, TimeUnit.SECONDS)
+            .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.KEEP, request);
+    }
+
+    private static Constraints constraints() {
+        return new Constraints.Builder()
+            .setRequiredNetworkType(NetworkType.CONNECTED)
+            .build();
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        if (!isEnabled()) {
+            return Result.success();
+        }
+        long start = System.nanoTime();
+        try {
+            PulseDatabase database = PulseDatabase.getInstance(getApplicationContext());
+            String deviceId = database.submit(
+                () -> HistorySync.readState(database, HistorySync.KEY_DEVICE_ID)).get();
+            SyncTransport transport = new HttpSyncTransport(BuildConfig.SYNC_BASE_URL, deviceId);
+            new HistorySync(database, transport, deviceId).run();
+            return Result.success();
+        } catch (IOException e) {
+            PulseLog.w(TAG, "sync deferred: {}", e.getMessage());
+            WORK_LATENCY.markError();
+            return Result.retry();
+        } catch (SyncRejectedException e) {
+            // Отказ сервера повтором не исправить; периодическая работа запустится в свой срок
+            PulseLog.w(TAG, "sync rejected: {}", e.getMessage());
+            WORK_LATENCY.markError();
+            return Result.failure();
+        } catch (Exception e) {
+            PulseLog.e(TAG, "Error in HistorySyncWorker", e instanceof ExecutionException ? e.getCause() : e);
+            WORK_LATENCY.markError();
+            return Result.failure();
+        } finally {
+            WORK_LATENCY.recordSince(start);
+        }
+    }
+}
@@ -0,0 +1,582 @@
+package com.medarithmi;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Потоковый экспорт/импорт истории: строки идут напрямую между Cursor и файлом,
+// поэтому расход памяти не зависит от числа записей
+public final class HistoryTransfer {
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int IMPORT_BATCH_SIZE = 500;
+    private static final int EXPORT_PAGE_SIZE = 500;
+    private static final long PROGRESS_INTERVAL_MS = 250;
+
+    private static final String CSV_CALCULATIONS_HEADER =
+        "id,zone_name,age,resting_hr,zone_min,zone_max,calculation_date";
+    private static final String CSV_SETTINGS_MARKER = "#user_settings";
+    private static final String CSV_SETTINGS_HEADER = "key,value";
+
+    private static final String SELECT_DUPLICATE =
+        "SELECT COUNT(*) FROM calculations WHERE calculation_date = ? AND zone_name = ? "
+            + "AND age = ? AND resting_hr = ? AND zone_min = ? AND zone_max = ?";
+
+    public interface ProgressListener {
+        void onProgress(long processedRows, double fraction);
+    }
+
+    private final PulseDatabase database;
+
+    public HistoryTransfer(PulseDatabase database) {
+        this.database = database;
+    }
+
+    // Экспорт в файл; возвращает число выгруженных расчетов. Вызывать вне потока базы:
+    // строки читаются на нем страницами по id, а в файл пишутся на вызывающем потоке
+    public long exportTo(File file, String format, boolean includeSettings,
+                         ProgressListener listener) throws Exception {
+        boolean csv = FORMAT_CSV.equals(format);
+        long total = database.submit(() -> {
+            try (Cursor count = database.query("SELECT COUNT(*) FROM calculations", null)) {
+                return count.moveToFirst() ? count.getLong(0) : 0L;
+            }
+        }).get();
+
+        Throttle throttle = new Throttle(listener);
+        long rows = 0;
+        try (ChannelWriter writer = new ChannelWriter(new FileOutputStream(file).getChannel())) {
+            if (csv) {
+                writer.line().append(CSV_CALCULATIONS_HEADER);
+                writer.writeLine();
+            }
+            long afterId = 0;
+            while (true) {
+                List<Row> page = readPage(afterId);
+                for (Row row : page) {
+                    StringBuilder line = writer.line();
+                    if (csv) {
+                        line.append(row.id).append(',');
+                        appendCsv(line, row.zoneName).append(',');
+                        line.append(row.age).append(',')
+                            .append(row.restingHR).append(',')
+                            .append(row.zoneMin).append(',')
+                            .append(row.zoneMax).append(',');
+                        appendCsv(line, row.calculationDate);
+                    } else {
+                        line.append("{\"type\":\"calculation\",\"id\":").append(row.id)
+                            .append(",\"zone_name\":");
+                        appendJson(line, row.zoneName);
+                        line.append(",\"age\":").append(row.age)
+                            .append(",\"resting_hr\":").append(row.restingHR)
+                            .append(",\"zone_min\":").append(row.zoneMin)
+                            .append(",\"zone_max\":").append(row.zoneMax)
+                            .append(",\"calculation_date\":");
+                        appendJson(line, row.calculationDate);
+                        line.append('}');
+                    }
+                    writer.writeLine();
+                    rows++;
+                    throttle.report(rows, total > 0 ? Math.min(1, (double) rows / total) : 1, false);
+                }
+                if (page.size() < EXPORT_PAGE_SIZE) {
+                    break;
+                }
+                afterId = page.get(page.size() - 1).id;
+            }
+
+            if (includeSettings) {
+                writeSettings(writer, csv);
+            }
+        }
+        throttle.report(rows, 1, true);
+        return rows;
+    }
+
+    // Страница расчетов после afterId (на потоке базы, ожидается)
+    private List<Row> readPage(long afterId) throws Exception {
+        return database.submit(() -> {
+            List<Row> page = new ArrayList<>(EXPORT_PAGE_SIZE);
+            try (Cursor cursor = database.query("SELECT " + HistoryQuery.COLUMNS
+                + " FROM calculations WHERE id > ? ORDER BY id LIMIT ?",
+                new Object[]{afterId, EXPORT_PAGE_SIZE})) {
+                while (cursor.moveToNext()) {
+                    page.add(new Row(
+                        cursor.getLong(0),
+                        cursor.getString(1),
+                        cursor.getInt(2),
+                        cursor.getInt(3),
+                        cursor.getInt(4),
+                        cursor.getInt(5),
+                        cursor.getString(6)
+                    ));
+                }
+            }
+            return page;
+        }).get();
+    }
+
+    private void writeSettings(ChannelWriter writer, boolean csv) throws Exception {
+        List<String[]> settings = database.submit(() -> {
+            List<String[]> pairs = new ArrayList<>();
+            try (Cursor cursor = database.query("SELECT key, value FROM user_settings ORDER BY key", null)) {
+                while (cursor.moveToNext()) {
+                    pairs.add(new String[]{cursor.getString(0), cursor.getString(1)});
+                }
+            }
+            return pairs;
+        }).get();
+
+        if (csv) {
+            writer.line().append(CSV_SETTINGS_MARKER);
+            writer.writeLine();
+            writer.line().append(CSV_SETTINGS_HEADER);
+            writer.writeLine();
+        }
+        for (String[] pair : settings) {
+            StringBuilder line = writer.line();
+            if (csv) {
+                appendCsv(line, pair[0]).append(',');
+                appendCsv(line, pair[1]);
+            } else {
+                line.append("{\"type\":\"setting\",\"key\":");
+                appendJson(line, pair[0]);
+                line.append(",\"value\":");
+                appendJson(line, pair[1]);
+                line.append('}');
+            }
+            writer.writeLine();
+        }
+    }
+
+    // Импорт из файла пакетными транзакциями; возвращает число добавленных расчетов.
+    // Расчет, который уже есть в истории (та же дата и те же значения), пропускается
+    // и не входит в результат, поэтому повторный импорт того же файла ничего не дублирует.
+    // По id не сравниваем: на другом устройстве у тех же расчетов другие локальные id.
+    // Вызывать вне потока базы: каждый пакет выполняется на нем и ожидается
+    public long importFrom(File file, String format, ProgressListener listener) throws Exception {
+        boolean csv = FORMAT_CSV.equals(format);
+        long fileSize = Math.max(1, file.length());
+        Throttle throttle = new Throttle(listener);
+        List<Row> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        Map<String, String> settings = new HashMap<>();
+        long rows = 0;
+        boolean inSettings = false;
+
+        // Прогресс по байтам файла, а не по символам строк
+        try (CountingInputStream input = new CountingInputStream(new FileInputStream(file));
+             BufferedReader reader = new BufferedReader(
+                 new InputStreamReader(input, StandardCharsets.UTF_8.newDecoder()), BUFFER_SIZE)) {
+            CsvReader csvReader = csv ? new CsvReader(reader) : null;
+            while (true) {
+                if (csv) {
+                    // Поля в кавычках могут содержать переводы строк, поэтому запись
+                    // может занимать несколько строк файла
+                    List<String> fields = csvReader.next();
+                    if (fields == null) {
+                        break;
+                    }
+                    if (fields.size() == 1) {
+                        if (fields.get(0).equals(CSV_SETTINGS_MARKER)) {
+                            inSettings = true;
+                        }
+                        continue;
+                    }
+                    if (isHeader(fields, CSV_CALCULATIONS_HEADER) || isHeader(fields, CSV_SETTINGS_HEADER)) {
+                        continue;
+                    }
+                    if (inSettings) {
+                        settings.put(fields.get(0), fields.get(1));
+                        continue;
+                    }
+                    if (fields.size() < 7) {
+                        continue;
+                    }
+                    batch.add(new Row(
+                        -1,
+                        fields.get(1),
+                        Integer.parseInt(fields.get(2)),
+                        Integer.parseInt(fields.get(3)),
+                        Integer.parseInt(fields.get(4)),
+                        Integer.parseInt(fields.get(5)),
+                        fields.get(6).isEmpty() ? null : fields.get(6)
+                    ));
+                } else {
+                    String line = reader.readLine();
+                    if (line == null) {
+                        break;
+                    }
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    JSONObject item = new JSONObject(line);
+                    if ("setting".equals(item.optString("type"))) {
+                        settings.put(item.getString("key"), item.optString("value", ""));
+                        continue;
+                    }
+                    batch.add(new Row(
+                        -1,
+                        item.getString("zone_name"),
+                        item.getInt("age"),
+                        item.getInt("resting_hr"),
+                        item.getInt("zone_min"),
+                        item.getInt("zone_max"),
+                        item.isNull("calculation_date") ? null : item.optString("calculation_date", null)
+                    ));
+                }
+
+                if (batch.size() >= IMPORT_BATCH_SIZE) {
+                    rows += insertBatch(batch);
+                    throttle.report(rows, Math.min(1, (double) input.count() / fileSize), false);
+                }
+            }
+        } catch (JSONException | NumberFormatException e) {
+            throw new IOException("Некорректная строка импорта: " + e.getMessage(), e);
+        }
+
+        if (!batch.isEmpty()) {
+            rows += insertBatch(batch);
+        }
+        if (!settings.isEmpty()) {
+            SettingsStore store = SettingsStore.getInstance(database);
+            store.putAll(settings);
+            store.flushAsync();
+        }
+        throttle.report(rows, 1, true);
+        return rows;
+    }
+
+    private static boolean isHeader(List<String> fields, String header) {
+        return String.join(",", fields).equals(header);
+    }
+
+    // Вставка пакета одной транзакцией; возвращает число вставленных строк без дубликатов
+    private int insertBatch(List<Row> batch) throws Exception {
+        List<Row> rows = new ArrayList<>(batch);
+        batch.clear();
+        return database.submit(() -> {
+            SQLiteDatabase db = database.getWritableDatabase();
+            db.beginTransaction();
+            try {
+                int inserted = 0;
+                for (Row row : rows) {
+                    if (exists(row)) {
+                        continue;
+                    }
+                    database.insertCalculationAt(row.zoneName, row.age, row.restingHR,
+                        row.zoneMin, row.zoneMax, row.calculationDate);
+                    inserted++;
+                }
+                db.setTransactionSuccessful();
+                return inserted;
+            } finally {
+                db.endTransaction();
+            }
+        }).get();
+    }
+
+    // Строка без даты получает текущее время, поэтому дубликатом быть не может
+    // (только из потока базы)
+    private boolean exists(Row row) {
+        if (row.calculationDate == null) {
+            return false;
+        }
+        SQLiteStatement statement = database.statement(SELECT_DUPLICATE);
+        PulseDatabase.bindAll(statement, new Object[]{row.calculationDate, row.zoneName,
+            row.age, row.restingHR, row.zoneMin, row.zoneMax});
+        return statement.simpleQueryForLong() > 0;
+    }
+
+    private static StringBuilder appendCsv(StringBuilder out, String value) {
+        if (value == null) {
+            return out;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+            || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            return out.append(value);
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        return out.append('"');
+    }
+
+    private static void appendJson(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    private static final class Row {
+        final long id;
+        final String zoneName;
+        final int age;
+        final int restingHR;
+        final int zoneMin;
+        final int zoneMax;
+        final String calculationDate;
+
+        Row(long id, String zoneName, int age, int restingHR, int zoneMin, int zoneMax, String calculationDate) {
+            this.id = id;
+            this.zoneName = zoneName;
+            this.age = age;
+            this.restingHR = restingHR;
+            this.zoneMin = zoneMin;
+            this.zoneMax = zoneMax;
+            this.calculationDate = calculationDate;
+        }
+    }
+
+    // Не чаще одного события прогресса за PROGRESS_INTERVAL_MS
+    private static final class Throttle {
+        private final ProgressListener listener;
+        private long lastReportAt;
+
+        Throttle(ProgressListener listener) {
+            this.listener = listener;
+        }
+
+        void report(long rows, double fraction, boolean force) {
+            if (listener == null) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            if (force || now - lastReportAt >= PROGRESS_INTERVAL_MS) {
+                lastReportAt = now;
+                listener.onProgress(rows, fraction);
+            }
+        }
+    }
+
+    // Построчная запись через один переиспользуемый StringBuilder и прямой ByteBuffer
+    private static final class ChannelWriter implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        private final StringBuilder line = new StringBuilder(256);
+
+        ChannelWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        StringBuilder line() {
+            line.setLength(0);
+            return line;
+        }
+
+        void writeLine() throws IOException {
+            line.append('\n');
+            CharBuffer chars = CharBuffer.wrap(line);
+            encoder.reset();
+            while (true) {
+                CoderResult result = encoder.encode(chars, buffer, true);
+                if (result.isOverflow()) {
+                    drain();
+                } else if (result.isError()) {
+                    result.throwException();
+                } else {
+                    break;
+                }
+            }
+            while (encoder.flush(buffer).isOverflow()) {
+                drain();
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+                channel.force(false);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    // Записи CSV по RFC 4180: поле в кавычках может содержать запятые, кавычки
+    // и переводы строк; вне кавычек запись завершают \n, \r\n или \r
+    static final class CsvReader {
+        private final Reader reader;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder field = new StringBuilder(64);
+        private int position;
+        private int limit;
+
+        CsvReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        // Поля следующей записи или null в конце файла
+        List<String> next() throws IOException {
+            int c = read();
+            if (c < 0) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>(8);
+            field.setLength(0);
+            boolean quoted = false;
+            while (c >= 0) {
+                if (quoted) {
+                    if (c == '"') {
+                        int following = read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = following;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c == '\r') {
+                    if (peek() == '\n') {
+                        read();
+                    }
+                    break;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        private int read() throws IOException {
+            return fill() ? buffer[position++] : -1;
+        }
+
+        private int peek() throws IOException {
+            return fill() ? buffer[position] : -1;
+        }
+
+        private boolean fill() throws IOException {
+            if (position < limit) {
+                return true;
+            }
+            int n = reader.read(buffer, 0, buffer.length);
+            if (n <= 0) {
+                return false;
+            }
+            position = 0;
+            limit = n;
+            return true;
+        }
+    }
+
+    // Число байт, прочитанных из файла (читается потоком импорта)
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long count() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.medarithmi;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Нативный модуль экспорта/импорта истории в CSV или NDJSON
+public class HistoryTransferModule extends ReactContextBaseJavaModule {
+    public static final String NAME = "HistoryTransferModule";
+    private static final StripedCounter CALLS = PulseMetrics.counter(PulseMetrics.BRIDGE_CALLS_PREFIX + NAME);
+    private static final String PROGRESS_EVENT = "HistoryTransferProgress";
+
+    private final ReactApplicationContext reactContext;
+    private final HistoryTransfer transfer;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "PulseTransfer");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    public HistoryTransferModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+        this.transfer = new HistoryTransfer(PulseDatabase.getInstance(reactContext));
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    // options: {format: 'csv' | 'ndjson', includeSettings?: boolean, fileName?: string}
+    @ReactMethod
+    public void exportHistory(ReadableMap options, Promise promise) {
+        CALLS.increment();
+        String format = formatOf(options);
+        boolean includeSettings = options.hasKey("includeSettings") && options.getBoolean("includeSettings");
+        String fileName = options.hasKey("fileName") && !options.isNull("fileName")
+            ? options.getString("fileName")
+            : "history_" + System.currentTimeMillis() + "." + format;
+
+        executor.execute(() -> {
+            try {
+                File dir = new File(reactContext.getFilesDir(), "exports");
+                if (!dir.exists() && !dir.mkdirs()) {
+                    promise.reject("EXPORT_ERROR", "Не удалось создать папку экспорта");
+                    return;
+                }
+                File file = new File(dir, new File(fileName).getName());
+                long rows = transfer.exportTo(file, format, includeSettings, this::emitProgress);
+
+                WritableMap result = Arguments.createMap();
+                result.putString("path", file.getAbsolutePath());
+                result.putDouble("rows", rows);
+                promise.resolve(result);
+            } catch (Exception e) {
+                promise.reject("EXPORT_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    @ReactMethod
+    public void importHistory(String path, ReadableMap options, Promise promise) {
+        CALLS.increment();
+        String format = formatOf(options);
+        executor.execute(() -> {
+            try {
+                File file = new File(path);
+                if (!file.isFile()) {
+                    promise.reject("IMPORT_ERROR", "Файл не найден: " + path);
+                    return;
+                }
+                long rows = transfer.importFrom(file, format, this::emitProgress);
+                promise.resolve((double) rows);
+            } catch (Exception e) {
+                promise.reject("IMPORT_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    // Нужны NativeEventEmitter в JS
+    @ReactMethod
+    public void addListener(String eventName) {
+    }
+
+    @ReactMethod
+    public void removeListeners(double count) {
+    }
+
+    private static String formatOf(ReadableMap options) {
+        return options != null && options.hasKey("format")
+            && HistoryTransfer.FORMAT_CSV.equals(options.getString("format"))
+            ? HistoryTransfer.FORMAT_CSV
+            : HistoryTransfer.FORMAT_NDJSON;
+    }
+
+    private void emitProgress(long rows, double fraction) {
+        if (!reactContext.hasActiveReactInstance()) {
+            return;
+        }
+        WritableMap event = Arguments.createMap();
+        event.putDouble("rows", rows);
+        event.putDouble("fraction", fraction);
+        reactContext
+            .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+            .emit(PROGRESS_EVENT, event);
+    }
+}
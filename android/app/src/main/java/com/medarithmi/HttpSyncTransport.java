@@ -0,0 +1,95 @@
+package com.medarithmi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Транспорт синхронизации поверх HttpURLConnection:
+ * POST {baseUrl}/changes с телом в gzip и GET {baseUrl}/changes?since=&limit=.
+ * Ответ GET распаковывает сама HttpURLConnection (Accept-Encoding: gzip по умолчанию).
+ */
+public final class HttpSyncTransport implements SyncTransport {
+    private static final int TIMEOUT_MS = 15_000;
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final String baseUrl;
+    private final String deviceId;
+
+    public HttpSyncTransport(String baseUrl, String deviceId) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.deviceId = deviceId;
+    }
+
+    @Override
+    public void push(byte[] gzipBody) throws IOException, SyncRejectedException {
+        HttpURLConnection connection = open(baseUrl + "/changes");
+        try {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(gzipBody.length);
+            connection.setRequestProperty("Content-Type", "application/json; charset=utf-8");
+            connection.setRequestProperty("Content-Encoding", "gzip");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(gzipBody);
+            }
+            checkStatus(connection);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @Override
+    public String pull(String cursor, int limit) throws IOException, SyncRejectedException {
+        StringBuilder url = new StringBuilder(baseUrl).append("/changes?limit=").append(limit);
+        if (cursor != null) {
+            url.append("&since=").append(URLEncoder.encode(cursor, "UTF-8"));
+        }
+        HttpURLConnection connection = open(url.toString());
+        try {
+            checkStatus(connection);
+            try (InputStream in = connection.getInputStream()) {
+                ByteArrayOutputStream body = new ByteArrayOutputStream(BUFFER_SIZE);
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    body.write(buffer, 0, read);
+                }
+                return new String(body.toByteArray(), StandardCharsets.UTF_8);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private HttpURLConnection open(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(TIMEOUT_MS);
+        connection.setReadTimeout(TIMEOUT_MS);
+        connection.setRequestProperty("X-Device-Id", deviceId);
+        return connection;
+    }
+
+    // 5xx, 408 и 429 — повтор позже, журнал изменений при этом не теряется;
+    // остальные 4xx означают, что сервер не примет этот запрос и при повторе
+    private static void checkStatus(HttpURLConnection connection) throws IOException, SyncRejectedException {
+        int status = connection.getResponseCode();
+        if (status >= 200 && status < 300) {
+            return;
+        }
+        String message = "HTTP " + status + " " + connection.getURL().getPath();
+        if (isRetryable(status)) {
+            throw new IOException(message);
+        }
+        throw new SyncRejectedException(status, message);
+    }
+
+    static boolean isRetryable(int status) {
+        return status >= 500 || status == HttpURLConnection.HTTP_CLIENT_TIMEOUT || status == 429;
+    }
+}
@@ -0,0 +1,132 @@
+package com.medarithmi;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Гистограмма задержек с фиксированными корзинами от 50 мкс до 10 с.
+ * Запись — один атомарный инкремент корзины и полоса суммы времени, без
+ * выделения памяти; число записей и перцентили считаются по корзинам при снятии снимка.
+ */
+public final class LatencyHistogram {
+    // Верхние границы корзин в микросекундах; последняя корзина — все, что больше
+    static final long[] BOUNDS_US = {
+        50, 100, 250, 500,
+        1_000, 2_500, 5_000, 10_000, 25_000, 50_000,
+        100_000, 250_000, 500_000, 1_000_000, 2_500_000, 5_000_000, 10_000_000,
+    };
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS_US.length + 1);
+    private final StripedCounter totalNanos = new StripedCounter();
+    private final StripedCounter errors = new StripedCounter();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.getAndIncrement(bucketOf(nanos / 1_000));
+        totalNanos.add(nanos);
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    public void markError() {
+        errors.increment();
+    }
+
+    public interface Body<T> {
+        T run();
+    }
+
+    // Замер синхронного тела; исключение считается ошибкой и пробрасывается дальше
+    public <T> T time(Body<T> body) {
+        long start = System.nanoTime();
+        try {
+            return body.run();
+        } catch (RuntimeException e) {
+            markError();
+            throw e;
+        } finally {
+            recordSince(start);
+        }
+    }
+
+    private static int bucketOf(long micros) {
+        int low = 0;
+        int high = BOUNDS_US.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (micros <= BOUNDS_US[mid]) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[buckets.length()];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        return new Snapshot(counts, total, totalNanos.sum(), maxNanos.get(), errors.sum());
+    }
+
+    // Согласованная по корзинам копия; count считается по корзинам
+    public static final class Snapshot {
+        public final long count;
+        public final long errors;
+        public final long totalNanos;
+        public final long maxNanos;
+        private final long[] buckets;
+
+        Snapshot(long[] buckets, long count, long totalNanos, long maxNanos, long errors) {
+            this.buckets = buckets;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.errors = errors;
+        }
+
+        public double meanMs() {
+            return count > 0 ? totalNanos / 1e6 / count : 0;
+        }
+
+        public double maxMs() {
+            return maxNanos / 1e6;
+        }
+
+        // Оценка перцентиля (0..1) линейной интерполяцией внутри корзины, не выше максимума
+        public double percentileMs(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            double rank = Math.max(1, Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                if (buckets[i] == 0) {
+                    continue;
+                }
+                if (seen + buckets[i] >= rank) {
+                    double lowerUs = i == 0 ? 0 : BOUNDS_US[i - 1];
+                    double upperUs = i < BOUNDS_US.length ? BOUNDS_US[i] : maxNanos / 1e3;
+                    double fraction = (rank - seen) / buckets[i];
+                    double valueMs = (lowerUs + (upperUs - lowerUs) * fraction) / 1e3;
+                    return Math.min(valueMs, maxMs());
+                }
+                seen += buckets[i];
+            }
+            return maxMs();
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.medarithmi;
 
+import android.content.Intent;
+import android.os.Bundle;
+
 import com.facebook.react.ReactActivity;
 import com.facebook.react.ReactActivityDelegate;
+import com.facebook.react.ReactInstanceEventListener;
+import com.facebook.react.ReactInstanceManager;
+import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.defaults.DefaultNewArchitectureEntryPoint;
 import com.facebook.react.defaults.DefaultReactActivityDelegate;
 
@@ -16,6 +22,38 @@ public class MainActivity extends ReactActivity {
     return "MedArithmi";
   }
 
+  /**
+   * Records the React instance creation phase of the startup timeline. The listener is registered
+   * before the delegate starts creating the instance in {@code super.onCreate}.
+   */
+  @Override
+  protected void onCreate(Bundle savedInstanceState) {
+    ReactInstanceManager instanceManager = getReactInstanceManager();
+    if (instanceManager.getCurrentReactContext() == null) {
+      StartupTimeline.get().begin(StartupTimeline.PHASE_REACT_INSTANCE);
+      instanceManager.addReactInstanceEventListener(
+          new ReactInstanceEventListener() {
+            @Override
+            public void onReactContextInitialized(ReactContext context) {
+              instanceManager.removeReactInstanceEventListener(this);
+              StartupTimeline.get().end(StartupTimeline.PHASE_REACT_INSTANCE);
+            }
+          });
+    }
+    super.onCreate(savedInstanceState);
+  }
+
+  /**
+   * Notification taps reach the running singleTask instance here instead of recreating the task.
+   * The intent is kept as the current one so {@code Linking.getInitialURL} stays consistent, and
+   * {@code super} forwards ACTION_VIEW data to JS as a {@code url} event.
+   */
+  @Override
+  public void onNewIntent(Intent intent) {
+    setIntent(intent);
+    super.onNewIntent(intent);
+  }
+
   /**
    * Returns the instance of the {@link ReactActivityDelegate}. Here we use a util class {@link
    * DefaultReactActivityDelegate} which allows you to easily enable Fabric and Concurrent React
@@ -0,0 +1,261 @@
+package com.medarithmi;
+
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.graphics.Color;
+import android.net.Uri;
+import android.os.Build;
+
+import androidx.core.app.NotificationCompat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Общий для процесса отправитель уведомлений: иконка, цвет, канал и
+// PendingIntent запуска вычисляются один раз и переиспользуются всеми путями доставки
+public final class NotificationDispatcher {
+    public static final String CHANNEL_ID = "medarithmi_heart_notifications";
+    // Глубокие ссылки разбирает linking в navigation.tsx
+    public static final String DEEP_LINK_CALCULATOR = "medarithmi://calculator";
+
+    private static final int NOTIFICATION_COLOR = 0xFFFF6B6B;
+    private static final String PREFS_NAME = "medarithmi_notifications";
+    private static final String KEY_NEXT_ID = "next_notification_id";
+    private static final int FIRST_NOTIFICATION_ID = 1000;
+
+    private static final StripedCounter SHOWN = PulseMetrics.counter(PulseMetrics.NOTIFICATIONS_SHOWN);
+    private static final LatencyHistogram DISPATCH_LATENCY =
+        PulseMetrics.histogram(PulseMetrics.NOTIFICATION_DISPATCH);
+
+    private static volatile NotificationDispatcher instance;
+
+    private final Context context;
+    private final NotificationManager notificationManager;
+    private final SharedPreferences prefs;
+    private final Object idLock = new Object();
+    private int nextId = -1;
+
+    private volatile boolean channelReady;
+    private volatile int smallIcon;
+    private volatile PendingIntent launchIntent;
+    private final Map<String, PendingIntent> deepLinkIntents = new HashMap<>();
+
+    private NotificationDispatcher(Context context) {
+        this.context = context.getApplicationContext();
+        this.notificationManager =
+            (NotificationManager) this.context.getSystemService(Context.NOTIFICATION_SERVICE);
+        this.prefs = this.context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    public static NotificationDispatcher getInstance(Context context) {
+        if (instance == null) {
+            synchronized (NotificationDispatcher.class) {
+                if (instance == null) {
+                    instance = new NotificationDispatcher(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    public NotificationManager getNotificationManager() {
+        return notificationManager;
+    }
+
+    // Создание канала один раз за процесс
+    public void ensureChannel() {
+        if (channelReady || Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+            return;
+        }
+        synchronized (this) {
+            if (channelReady) {
+                return;
+            }
+            if (notificationManager.getNotificationChannel(CHANNEL_ID) == null) {
+                NotificationChannel channel = new NotificationChannel(
+                    CHANNEL_ID,
+                    "MedArithmi - Здоровье сердца",
+                    NotificationManager.IMPORTANCE_HIGH
+                );
+                channel.setDescription("Напоминания о контроле пульса и тренировках");
+                channel.enableLights(true);
+                channel.setLightColor(Color.RED);
+                channel.enableVibration(true);
+                channel.setVibrationPattern(new long[]{0, 300, 200, 300});
+                notificationManager.createNotificationChannel(channel);
+            }
+            channelReady = true;
+        }
+    }
+
+    // Иконка уведомления; getIdentifier вызывается только при первом обращении
+    public int getSmallIcon() {
+        int icon = smallIcon;
+        if (icon == 0) {
+            icon = context.getResources().getIdentifier(
+                "ic_notification",
+                "drawable",
+                context.getPackageName()
+            );
+            if (icon == 0) {
+                icon = context.getApplicationInfo().icon;
+            }
+            smallIcon = icon;
+        }
+        return icon;
+    }
+
+    public int getColor() {
+        return NOTIFICATION_COLOR;
+    }
+
+    // PendingIntent открытия приложения: запущенная MainActivity (singleTask) выходит
+    // на передний план с onNewIntent, без пересоздания задачи и перезагрузки React
+    public PendingIntent getLaunchIntent() {
+        if (launchIntent == null) {
+            synchronized (this) {
+                if (launchIntent == null) {
+                    Intent appIntent = new Intent(context, MainActivity.class)
+                        .setAction(Intent.ACTION_MAIN)
+                        .addCategory(Intent.CATEGORY_LAUNCHER);
+                    launchIntent = activityIntent(appIntent, 0);
+                }
+            }
+        }
+        return launchIntent;
+    }
+
+    // То же с глубокой ссылкой: ACTION_VIEW доходит до JS через Linking
+    // (getInitialURL при холодном старте, событие url при возврате)
+    public synchronized PendingIntent getDeepLinkIntent(String url) {
+        PendingIntent intent = deepLinkIntents.get(url);
+        if (intent == null) {
+            Intent viewIntent = new Intent(Intent.ACTION_VIEW, Uri.parse(url))
+                .setClass(context, MainActivity.class);
+            intent = activityIntent(viewIntent, url.hashCode());
+            deepLinkIntents.put(url, intent);
+        }
+        return intent;
+    }
+
+    private PendingIntent activityIntent(Intent intent, int requestCode) {
+        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+
+        int flags = PendingIntent.FLAG_UPDATE_CURRENT;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            flags |= PendingIntent.FLAG_IMMUTABLE;
+        }
+        return PendingIntent.getActivity(context, requestCode, intent, flags);
+    }
+
+    // Следующий id уведомления из сохраняемого счетчика
+    public int nextNotificationId() {
+        synchronized (idLock) {
+            if (nextId < 0) {
+                nextId = prefs.getInt(KEY_NEXT_ID, FIRST_NOTIFICATION_ID);
+            }
+            int id = nextId;
+            nextId = id == Integer.MAX_VALUE ? FIRST_NOTIFICATION_ID : id + 1;
+            prefs.edit().putInt(KEY_NEXT_ID, nextId).apply();
+            return id;
+        }
+    }
+
+    // Стандартное напоминание: по нажатию открывается экран калькулятора
+    public NotificationCompat.Builder newBuilder(String title, String message) {
+        return toBuilder(NotificationSpec.reminder(title, message, getSmallIcon(), NOTIFICATION_COLOR),
+            getDeepLinkIntent(DEEP_LINK_CALCULATOR));
+    }
+
+    // Постоянное уведомление, которое обновляется на месте без звука и вибрации
+    public NotificationCompat.Builder newOngoingBuilder(String title, String message) {
+        return toBuilder(NotificationSpec.ongoing(title, message, getSmallIcon(), NOTIFICATION_COLOR),
+            getLaunchIntent());
+    }
+
+    private NotificationCompat.Builder toBuilder(NotificationSpec spec, PendingIntent contentIntent) {
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID);
+        spec.applyTo(new CompatTarget(builder));
+        builder.setContentIntent(contentIntent);
+        return builder;
+    }
+
+    // Показ напоминания; возвращает id уведомления. Задержка замеряется здесь, чтобы
+    // в notification.dispatch попадали и срабатывания будильника, а не только вызовы из JS
+    public int show(String title, String message) {
+        return DISPATCH_LATENCY.time(() -> {
+            ensureChannel();
+            int id = nextNotificationId();
+            notificationManager.notify(id, newBuilder(title, message).build());
+            SHOWN.increment();
+            return id;
+        });
+    }
+
+    private static final class CompatTarget implements NotificationSpec.Target {
+        private final NotificationCompat.Builder builder;
+
+        CompatTarget(NotificationCompat.Builder builder) {
+            this.builder = builder;
+        }
+
+        @Override
+        public void setSmallIcon(int icon) {
+            builder.setSmallIcon(icon);
+        }
+
+        @Override
+        public void setContentTitle(CharSequence title) {
+            builder.setContentTitle(title);
+        }
+
+        @Override
+        public void setContentText(CharSequence text) {
+            builder.setContentText(text);
+        }
+
+        @Override
+        public void setAutoCancel(boolean autoCancel) {
+            builder.setAutoCancel(autoCancel);
+        }
+
+        @Override
+        public void setOngoing(boolean ongoing) {
+            builder.setOngoing(ongoing);
+        }
+
+        @Override
+        public void setOnlyAlertOnce(boolean onlyAlertOnce) {
+            builder.setOnlyAlertOnce(onlyAlertOnce);
+        }
+
+        @Override
+        public void setSilent(boolean silent) {
+            builder.setSilent(silent);
+        }
+
+        @Override
+        public void setShowWhen(boolean showWhen) {
+            builder.setShowWhen(showWhen);
+        }
+
+        @Override
+        public void setPriority(int priority) {
+            builder.setPriority(priority);
+        }
+
+        @Override
+        public void setDefaults(int defaults) {
+            builder.setDefaults(defaults);
+        }
+
+        @Override
+        public void setColor(int color) {
+            builder.setColor(color);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.medarithmi;
+
+import androidx.work.WorkManager;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+
+// Нативный модуль для уведомлений
+public class NotificationModule extends NotificationModuleSpec {
+    public static final String NAME = "NotificationModule";
+    private static final StripedCounter CALLS = PulseMetrics.counter(PulseMetrics.BRIDGE_CALLS_PREFIX + NAME);
+    static final String WORKER_TAG = "daily_notification_worker";
+    private static final String DAILY_REMINDER_ID = "daily";
+    // Задержка каждого метода модуля и число отклоненных вызовов
+    private static final LatencyHistogram SHOW_LATENCY = PulseMetrics.histogram(PulseMetrics.NOTIFICATION_SHOW);
+    private static final LatencyHistogram SCHEDULE_DAILY_LATENCY = PulseMetrics.histogram(PulseMetrics.NOTIFICATION_SCHEDULE_DAILY);
+    private static final LatencyHistogram SET_REMINDERS_LATENCY = PulseMetrics.histogram(PulseMetrics.NOTIFICATION_SET_REMINDERS);
+    private static final LatencyHistogram GET_REMINDERS_LATENCY = PulseMetrics.histogram(PulseMetrics.NOTIFICATION_GET_REMINDERS);
+    private static final LatencyHistogram CANCEL_LATENCY = PulseMetrics.histogram(PulseMetrics.NOTIFICATION_CANCEL);
+    private final ReactApplicationContext reactContext;
+    private NotificationDispatcher dispatcher;
+
+    public NotificationModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    // Диспетчер и канал создаются при первом уведомлении, а не при старте моста
+    private NotificationDispatcher dispatcher() {
+        if (dispatcher == null) {
+            dispatcher = NotificationDispatcher.getInstance(reactContext);
+        }
+        return dispatcher;
+    }
+
+    // Тело метода модуля; результат оно само передает в promise
+    private interface Body {
+        void run() throws Exception;
+    }
+
+    // Замер задержки вызова: исключение тела отклоняет promise с errorCode и считается ошибкой
+    private static void timed(LatencyHistogram histogram, Promise promise, String errorCode, Body body) {
+        CALLS.increment();
+        long start = System.nanoTime();
+        try {
+            body.run();
+        } catch (Exception e) {
+            histogram.markError();
+            promise.reject(errorCode, e.getMessage());
+        } finally {
+            histogram.recordSince(start);
+        }
+    }
+
+    @Override
+    @ReactMethod
+    public void showNotification(String title, String message, Promise promise) {
+        timed(SHOW_LATENCY, promise, "NOTIFICATION_ERROR", () -> {
+            int notificationId = dispatcher().show(title, message);
+            promise.resolve(notificationId);
+        });
+    }
+
+    @Override
+    @ReactMethod
+    public void scheduleDailyNotification(String title, String message, int hour, int minute, Promise promise) {
+        timed(SCHEDULE_DAILY_LATENCY, promise, "SCHEDULING_ERROR", () -> {
+            // Старая периодическая задача WorkManager больше не нужна: повторы ведет планировщик
+            WorkManager.getInstance(reactContext).cancelAllWorkByTag(WORKER_TAG);
+
+            // Адаптивное: hour/minute и текст — исходные, дальше их подбирает ReminderPlanner
+            ReminderScheduler.getInstance(reactContext).upsert(
+                new Reminder(DAILY_REMINDER_ID, Reminder.ALL_DAYS, hour, minute, title, message, true)
+            );
+
+            promise.resolve(true);
+        });
+    }
+
+    // Полная замена набора напоминаний: [{id, days: [1..7], hour, minute, title, message}]
+    @Override
+    @ReactMethod
+    public void setReminders(ReadableArray reminders, Promise promise) {
+        timed(SET_REMINDERS_LATENCY, promise, "SCHEDULING_ERROR", () -> {
+            List<Reminder> parsed = new ArrayList<>(reminders.size());
+            for (int i = 0; i < reminders.size(); i++) {
+                ReadableMap item = reminders.getMap(i);
+                int daysMask = 0;
+                ReadableArray days = item.hasKey("days") ? item.getArray("days") : null;
+                if (days == null || days.size() == 0) {
+                    daysMask = Reminder.ALL_DAYS;
+                } else {
+                    for (int d = 0; d < days.size(); d++) {
+                        daysMask |= Reminder.dayBit(DayOfWeek.of(days.getInt(d)));
+                    }
+                }
+                parsed.add(new Reminder(
+                    item.getString("id"),
+                    daysMask,
+                    item.getInt("hour"),
+                    item.getInt("minute"),
+                    item.getString("title"),
+                    item.getString("message")
+                ));
+            }
+
+            WorkManager.getInstance(reactContext).cancelAllWorkByTag(WORKER_TAG);
+            ReminderScheduler scheduler = ReminderScheduler.getInstance(reactContext);
+            scheduler.setReminders(parsed);
+
+            promise.resolve((double) scheduler.getNextFireAtMillis());
+        });
+    }
+
+    @Override
+    @ReactMethod
+    public void getReminders(Promise promise) {
+        timed(GET_REMINDERS_LATENCY, promise, "SCHEDULING_ERROR", () -> {
+            WritableArray result = Arguments.createArray();
+            for (Reminder reminder : ReminderScheduler.getInstance(reactContext).getReminders()) {
+                WritableMap item = Arguments.createMap();
+                item.putString("id", reminder.id);
+                WritableArray days = Arguments.createArray();
+                for (DayOfWeek day : DayOfWeek.values()) {
+                    if (reminder.firesOn(day)) {
+                        days.pushInt(day.getValue());
+                    }
+                }
+                item.putArray("days", days);
+                item.putInt("hour", reminder.hour);
+                item.putInt("minute", reminder.minute);
+                item.putString("title", reminder.title);
+                item.putString("message", reminder.message);
+                result.pushMap(item);
+            }
+            promise.resolve(result);
+        });
+    }
+
+    @Override
+    @ReactMethod
+    public void cancelScheduledNotification(Promise promise) {
+        timed(CANCEL_LATENCY, promise, "CANCELLATION_ERROR", () -> {
+            WorkManager.getInstance(reactContext).cancelAllWorkByTag(WORKER_TAG);
+            ReminderScheduler.getInstance(reactContext).clear();
+            promise.resolve(null);
+        });
+    }
+}
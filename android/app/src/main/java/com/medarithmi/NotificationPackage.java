@@ -0,0 +1,88 @@
+package com.medarithmi;
+
+import com.facebook.react.TurboReactPackage;
+import com.facebook.react.bridge.NativeModule;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.module.model.ReactModuleInfo;
+import com.facebook.react.module.model.ReactModuleInfoProvider;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Пакет нативных модулей приложения. Модули создаются лениво при первом
+// обращении из JS, а не при инициализации моста
+public class NotificationPackage extends TurboReactPackage {
+
+    @Override
+    public NativeModule getModule(String name, ReactApplicationContext reactContext) {
+        switch (name) {
+            case NotificationModule.NAME:
+                return new NotificationModule(reactContext);
+            case ZoneEngineModule.NAME:
+                return new ZoneEngineModule(reactContext);
+            case StorageModule.NAME:
+                return new StorageModule(reactContext);
+            case SettingsModule.NAME:
+                return new SettingsModule(reactContext);
+            case StartupMetricsModule.NAME:
+                return new StartupMetricsModule(reactContext);
+            case HistoryTransferModule.NAME:
+                return new HistoryTransferModule(reactContext);
+            case HeartRateStreamModule.NAME:
+                return new HeartRateStreamModule(reactContext);
+            case WorkoutSessionModule.NAME:
+                return new WorkoutSessionModule(reactContext);
+            case AnalyticsModule.NAME:
+                return new AnalyticsModule(reactContext);
+            case DiagnosticsModule.NAME:
+                return new DiagnosticsModule(reactContext);
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public ReactModuleInfoProvider getReactModuleInfoProvider() {
+        return () -> {
+            Map<String, ReactModuleInfo> modules = new HashMap<>();
+            // NotificationModule описан спецификацией codegen, но без jni/OnLoad.cpp
+            // провайдера MedArithmiSpec в приложении нет, поэтому и при новой
+            // архитектуре он регистрируется как обычный модуль (TurboModuleRegistry.get
+            // в спецификации находит его через мост)
+            modules.put(NotificationModule.NAME, moduleInfo(
+                NotificationModule.NAME, NotificationModule.class, false, false));
+            modules.put(ZoneEngineModule.NAME, moduleInfo(
+                ZoneEngineModule.NAME, ZoneEngineModule.class, true, false));
+            modules.put(StorageModule.NAME, moduleInfo(
+                StorageModule.NAME, StorageModule.class, false, false));
+            modules.put(SettingsModule.NAME, moduleInfo(
+                SettingsModule.NAME, SettingsModule.class, false, false));
+            modules.put(StartupMetricsModule.NAME, moduleInfo(
+                StartupMetricsModule.NAME, StartupMetricsModule.class, false, false));
+            modules.put(HistoryTransferModule.NAME, moduleInfo(
+                HistoryTransferModule.NAME, HistoryTransferModule.class, false, false));
+            modules.put(HeartRateStreamModule.NAME, moduleInfo(
+                HeartRateStreamModule.NAME, HeartRateStreamModule.class, false, false));
+            modules.put(WorkoutSessionModule.NAME, moduleInfo(
+                WorkoutSessionModule.NAME, WorkoutSessionModule.class, true, false));
+            modules.put(AnalyticsModule.NAME, moduleInfo(
+                AnalyticsModule.NAME, AnalyticsModule.class, false, false));
+            modules.put(DiagnosticsModule.NAME, moduleInfo(
+                DiagnosticsModule.NAME, DiagnosticsModule.class, false, false));
+            return modules;
+        };
+    }
+
+    private static ReactModuleInfo moduleInfo(String name, Class<?> moduleClass,
+                                              boolean hasConstants, boolean isTurboModule) {
+        return new ReactModuleInfo(
+            name,
+            moduleClass.getName(),
+            false, // canOverrideExistingModule
+            false, // needsEagerInit
+            hasConstants,
+            false, // isCxxModule
+            isTurboModule
+        );
+    }
+}
@@ -0,0 +1,77 @@
+package com.medarithmi;
+
+// Содержимое уведомления без зависимостей от Android: NotificationDispatcher
+// переносит его в NotificationCompat.Builder, бенчмарки — в заглушку
+public final class NotificationSpec {
+    // Значения совпадают с NotificationCompat.PRIORITY_* и Notification.DEFAULT_ALL
+    public static final int PRIORITY_LOW = -1;
+    public static final int PRIORITY_HIGH = 1;
+    public static final int DEFAULTS_ALL = -1;
+
+    // Получатель полей; повторяет нужные сеттеры NotificationCompat.Builder
+    public interface Target {
+        void setSmallIcon(int icon);
+
+        void setContentTitle(CharSequence title);
+
+        void setContentText(CharSequence text);
+
+        void setAutoCancel(boolean autoCancel);
+
+        void setOngoing(boolean ongoing);
+
+        void setOnlyAlertOnce(boolean onlyAlertOnce);
+
+        void setSilent(boolean silent);
+
+        void setShowWhen(boolean showWhen);
+
+        void setPriority(int priority);
+
+        void setDefaults(int defaults);
+
+        void setColor(int color);
+    }
+
+    public final String title;
+    public final String message;
+    public final int smallIcon;
+    public final int color;
+    public final boolean ongoing;
+
+    private NotificationSpec(String title, String message, int smallIcon, int color, boolean ongoing) {
+        this.title = title;
+        this.message = message;
+        this.smallIcon = smallIcon;
+        this.color = color;
+        this.ongoing = ongoing;
+    }
+
+    // Напоминание: со звуком, закрывается по нажатию
+    public static NotificationSpec reminder(String title, String message, int smallIcon, int color) {
+        return new NotificationSpec(title, message, smallIcon, color, false);
+    }
+
+    // Постоянное уведомление: обновляется на месте без звука и вибрации
+    public static NotificationSpec ongoing(String title, String message, int smallIcon, int color) {
+        return new NotificationSpec(title, message, smallIcon, color, true);
+    }
+
+    public void applyTo(Target target) {
+        target.setSmallIcon(smallIcon);
+        target.setContentTitle(title);
+        target.setContentText(message);
+        target.setColor(color);
+        if (ongoing) {
+            target.setOngoing(true);
+            target.setOnlyAlertOnce(true);
+            target.setSilent(true);
+            target.setShowWhen(false);
+            target.setPriority(PRIORITY_LOW);
+        } else {
+            target.setAutoCancel(true);
+            target.setPriority(PRIORITY_HIGH);
+            target.setDefaults(DEFAULTS_ALL);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.medarithmi;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteCursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteProgram;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Владелец PulseSportDB.db на нативной стороне: WAL, кэш скомпилированных
+// выражений и отдельный поток для всех обращений к базе
+public final class PulseDatabase extends SQLiteOpenHelper {
+    static final String DATABASE_NAME = "PulseSportDB.db";
+    private static final int DATABASE_VERSION = 7;
+    private static final int STATEMENT_CACHE_SIZE = 32;
+
+    private static final LatencyHistogram QUERY_LATENCY = PulseMetrics.histogram(PulseMetrics.DB_QUERY);
+    private static final LatencyHistogram UPDATE_LATENCY = PulseMetrics.histogram(PulseMetrics.DB_UPDATE);
+    private static final LatencyHistogram INSERT_LATENCY = PulseMetrics.histogram(PulseMetrics.DB_INSERT);
+
+    private static final String INSERT_CALCULATION =
+        "INSERT INTO calculations (zone_name, age, resting_hr, zone_min, zone_max) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_CALCULATION_AT =
+        "INSERT INTO calculations (zone_name, age, resting_hr, zone_min, zone_max, calculation_date) "
+            + "VALUES (?, ?, ?, ?, ?, COALESCE(?, CURRENT_TIMESTAMP))";
+
+    private static volatile PulseDatabase instance;
+
+    // Триггеры журнала синхронизации ставятся только при включенной синхронизации
+    private final boolean syncEnabled;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "PulseDB");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+
+    // Доступ к кэшу только из потока базы, поэтому синхронизация не нужна
+    private final Map<String, SQLiteStatement> statementCache =
+        new LinkedHashMap<String, SQLiteStatement>(STATEMENT_CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SQLiteStatement> eldest) {
+                if (size() > STATEMENT_CACHE_SIZE) {
+                    eldest.getValue().close();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+    private PulseDatabase(Context context) {
+        this(context, DATABASE_NAME, HistorySyncWorker.isEnabled());
+    }
+
+    // Отдельный экземпляр для тестов; name == null - база в памяти
+    PulseDatabase(Context context, String name, boolean syncEnabled) {
+        super(context.getApplicationContext(), name, null, DATABASE_VERSION);
+        this.syncEnabled = syncEnabled;
+        setWriteAheadLoggingEnabled(name != null);
+    }
+
+    public static PulseDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (PulseDatabase.class) {
+                if (instance == null) {
+                    instance = new PulseDatabase(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        // IF NOT EXISTS: база могла быть создана раньше из JS (react-native-sqlite-storage)
+        db.execSQL("CREATE TABLE IF NOT EXISTS calculations ("
+            + "id INTEGER PRIMARY KEY AUTOINCREMENT, "
+            + "zone_name TEXT NOT NULL, "
+            + "age INTEGER NOT NULL, "
+            + "resting_hr INTEGER NOT NULL, "
+            + "zone_min INTEGER NOT NULL, "
+            + "zone_max INTEGER NOT NULL, "
+            + "calculation_date DATETIME DEFAULT CURRENT_TIMESTAMP)");
+        db.execSQL("CREATE TABLE IF NOT EXISTS user_settings ("
+            + "id INTEGER PRIMARY KEY AUTOINCREMENT, "
+            + "key TEXT UNIQUE NOT NULL, "
+            + "value TEXT, "
+            + "updated_at DATETIME DEFAULT CURRENT_TIMESTAMP)");
+        createIndices(db);
+        HistoryRollups.create(db);
+        CalculationHours.create(db);
+        HistorySync.create(db);
+        db.execSQL(SessionStore.CREATE_TABLE);
+        db.execSQL(SessionStore.CREATE_INDEX);
+    }
+
+    // Индексы под сортировку истории и выборку по зоне
+    private void createIndices(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_calculations_date "
+            + "ON calculations (calculation_date)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_calculations_zone_date "
+            + "ON calculations (zone_name, calculation_date)");
+    }
+
+    // Сборка могла включить или выключить синхронизацию без смены версии базы
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        HistorySync.configure(db, syncEnabled);
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 7) {
+            HistoryRollups.drop(db);
+        }
+        onCreate(db);
+    }
+
+    // Все операции с базой выполняются на этом потоке
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    // Задача на потоке базы с результатом (для фоновых импортов пакетами)
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    // Отложенная задача на потоке базы (для объединения частых записей)
+    public ScheduledFuture<?> schedule(Runnable task, long delayMs) {
+        return executor.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Скомпилированное выражение из кэша (только из потока базы)
+    SQLiteStatement statement(String sql) {
+        SQLiteStatement statement = statementCache.get(sql);
+        if (statement == null) {
+            statement = getWritableDatabase().compileStatement(sql);
+            statementCache.put(sql, statement);
+        } else {
+            statement.clearBindings();
+        }
+        return statement;
+    }
+
+    // Вставка расчета и получение id за одно обращение
+    public long insertCalculation(String zoneName, int age, int restingHR, int zoneMin, int zoneMax) {
+        SQLiteStatement statement = statement(INSERT_CALCULATION);
+        statement.bindString(1, zoneName);
+        statement.bindLong(2, age);
+        statement.bindLong(3, restingHR);
+        statement.bindLong(4, zoneMin);
+        statement.bindLong(5, zoneMax);
+        long start = System.nanoTime();
+        try {
+            return statement.executeInsert();
+        } catch (RuntimeException e) {
+            INSERT_LATENCY.markError();
+            throw e;
+        } finally {
+            INSERT_LATENCY.recordSince(start);
+        }
+    }
+
+    // Вставка расчета с исходной датой (импорт); null - текущее время
+    public long insertCalculationAt(String zoneName, int age, int restingHR, int zoneMin, int zoneMax,
+                                    String calculationDate) {
+        SQLiteStatement statement = statement(INSERT_CALCULATION_AT);
+        statement.bindString(1, zoneName);
+        statement.bindLong(2, age);
+        statement.bindLong(3, restingHR);
+        statement.bindLong(4, zoneMin);
+        statement.bindLong(5, zoneMax);
+        if (calculationDate == null) {
+            statement.bindNull(6);
+        } else {
+            statement.bindString(6, calculationDate);
+        }
+        long start = System.nanoTime();
+        try {
+            return statement.executeInsert();
+        } catch (RuntimeException e) {
+            INSERT_LATENCY.markError();
+            throw e;
+        } finally {
+            INSERT_LATENCY.recordSince(start);
+        }
+    }
+
+    // Выполнение INSERT/UPDATE/DELETE/DDL; возвращает число измененных строк
+    public int executeUpdate(String sql, Object[] args) {
+        SQLiteStatement statement = statement(sql);
+        bindAll(statement, args);
+        long start = System.nanoTime();
+        try {
+            return statement.executeUpdateDelete();
+        } catch (RuntimeException e) {
+            UPDATE_LATENCY.markError();
+            throw e;
+        } finally {
+            UPDATE_LATENCY.recordSince(start);
+        }
+    }
+
+    // Выполнение INSERT с возвратом id вставленной строки
+    public long executeInsert(String sql, Object[] args) {
+        SQLiteStatement statement = statement(sql);
+        bindAll(statement, args);
+        long start = System.nanoTime();
+        try {
+            return statement.executeInsert();
+        } catch (RuntimeException e) {
+            INSERT_LATENCY.markError();
+            throw e;
+        } finally {
+            INSERT_LATENCY.recordSince(start);
+        }
+    }
+
+    // Запрос с типизированными параметрами (rawQuery умеет только строки).
+    // getCount выполняет запрос и заполняет первое окно курсора, поэтому в
+    // задержку входит само выполнение, а не только компиляция
+    public Cursor query(String sql, Object[] args) {
+        long start = System.nanoTime();
+        Cursor cursor = getReadableDatabase().rawQueryWithFactory(
+            (db, driver, editTable, query) -> {
+                bindAll(query, args);
+                return new SQLiteCursor(driver, editTable, query);
+            },
+            sql,
+            null,
+            null
+        );
+        try {
+            cursor.getCount();
+        } catch (RuntimeException e) {
+            QUERY_LATENCY.markError();
+            cursor.close();
+            throw e;
+        } finally {
+            QUERY_LATENCY.recordSince(start);
+        }
+        return cursor;
+    }
+
+    static void bindAll(SQLiteProgram program, Object[] args) {
+        if (args == null) {
+            return;
+        }
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            int index = i + 1;
+            if (arg == null) {
+                program.bindNull(index);
+            } else if (arg instanceof Boolean) {
+                program.bindLong(index, (Boolean) arg ? 1 : 0);
+            } else if (arg instanceof Double || arg instanceof Float) {
+                double value = ((Number) arg).doubleValue();
+                if (value == Math.rint(value) && Math.abs(value) < Long.MAX_VALUE) {
+                    program.bindLong(index, (long) value);
+                } else {
+                    program.bindDouble(index, value);
+                }
+            } else if (arg instanceof Number) {
+                program.bindLong(index, ((Number) arg).longValue());
+            } else {
+                program.bindString(index, arg.toString());
+            }
+        }
+    }
+}
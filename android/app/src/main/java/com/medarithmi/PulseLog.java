@@ -0,0 +1,244 @@
+package com.medarithmi;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Журнал нативной части. Сообщения ниже текущего уровня отбрасываются до
+ * форматирования; шаблоны с {} и перегрузки с фиксированным числом аргументов
+ * не создают строк и массивов на отключенном уровне.
+ *
+ * Каждая принятая запись попадает в кольцевой буфер последних RING_SIZE записей
+ * (шаблон и аргументы без форматирования) и в logcat. Буфер форматируется только
+ * при выгрузке через DiagnosticsModule.getRecentLogs.
+ */
+public final class PulseLog {
+    public static final int VERBOSE = Log.VERBOSE;
+    public static final int DEBUG = Log.DEBUG;
+    public static final int INFO = Log.INFO;
+    public static final int WARN = Log.WARN;
+    public static final int ERROR = Log.ERROR;
+
+    static final int RING_SIZE = 256;
+    private static final int MAX_ARGS = 3;
+
+    // В релизе отладочные записи выключены, пока уровень не понизят для диагностики
+    private static volatile int level = BuildConfig.DEBUG ? DEBUG : INFO;
+
+    // Кольцо записей на предвыделенных массивах; доступ под ringLock
+    private static final Object ringLock = new Object();
+    private static final long[] ringTime = new long[RING_SIZE];
+    private static final int[] ringLevel = new int[RING_SIZE];
+    private static final String[] ringTag = new String[RING_SIZE];
+    private static final String[] ringFormat = new String[RING_SIZE];
+    private static final int[] ringArgCount = new int[RING_SIZE];
+    private static final Object[] ringArgs = new Object[RING_SIZE * MAX_ARGS];
+    private static final Throwable[] ringError = new Throwable[RING_SIZE];
+    private static long ringWritten;
+
+    private PulseLog() {
+    }
+
+    public static boolean isEnabled(int messageLevel) {
+        return messageLevel >= level;
+    }
+
+    public static int getLevel() {
+        return level;
+    }
+
+    public static void setLevel(int newLevel) {
+        level = Math.max(VERBOSE, Math.min(ERROR, newLevel));
+    }
+
+    public static void d(String tag, String message) {
+        if (isEnabled(DEBUG)) {
+            write(DEBUG, tag, message, 0, null, null, null, null);
+        }
+    }
+
+    public static void d(String tag, String format, Object arg) {
+        if (isEnabled(DEBUG)) {
+            write(DEBUG, tag, format, 1, arg, null, null, null);
+        }
+    }
+
+    // Числовые перегрузки: упаковка в объект только если запись принята
+    public static void d(String tag, String format, long arg) {
+        if (isEnabled(DEBUG)) {
+            write(DEBUG, tag, format, 1, arg, null, null, null);
+        }
+    }
+
+    public static void d(String tag, String format, Object arg1, long arg2) {
+        if (isEnabled(DEBUG)) {
+            write(DEBUG, tag, format, 2, arg1, arg2, null, null);
+        }
+    }
+
+    public static void d(String tag, String format, Object arg1, Object arg2) {
+        if (isEnabled(DEBUG)) {
+            write(DEBUG, tag, format, 2, arg1, arg2, null, null);
+        }
+    }
+
+    public static void d(String tag, String format, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(DEBUG)) {
+            write(DEBUG, tag, format, 3, arg1, arg2, arg3, null);
+        }
+    }
+
+    public static void i(String tag, String message) {
+        if (isEnabled(INFO)) {
+            write(INFO, tag, message, 0, null, null, null, null);
+        }
+    }
+
+    public static void i(String tag, String format, Object arg) {
+        if (isEnabled(INFO)) {
+            write(INFO, tag, format, 1, arg, null, null, null);
+        }
+    }
+
+    public static void i(String tag, String format, Object arg1, Object arg2) {
+        if (isEnabled(INFO)) {
+            write(INFO, tag, format, 2, arg1, arg2, null, null);
+        }
+    }
+
+    public static void w(String tag, String message) {
+        if (isEnabled(WARN)) {
+            write(WARN, tag, message, 0, null, null, null, null);
+        }
+    }
+
+    public static void w(String tag, String format, Object arg) {
+        if (isEnabled(WARN)) {
+            write(WARN, tag, format, 1, arg, null, null, null);
+        }
+    }
+
+    public static void e(String tag, String message) {
+        if (isEnabled(ERROR)) {
+            write(ERROR, tag, message, 0, null, null, null, null);
+        }
+    }
+
+    public static void e(String tag, String message, Throwable error) {
+        if (isEnabled(ERROR)) {
+            write(ERROR, tag, message, 0, null, null, null, error);
+        }
+    }
+
+    public static void e(String tag, String format, Object arg, Throwable error) {
+        if (isEnabled(ERROR)) {
+            write(ERROR, tag, format, 1, arg, null, null, error);
+        }
+    }
+
+    private static void write(int messageLevel, String tag, String format, int argCount,
+                              Object arg1, Object arg2, Object arg3, Throwable error) {
+        long now = System.currentTimeMillis();
+        synchronized (ringLock) {
+            int slot = (int) (ringWritten % RING_SIZE);
+            ringTime[slot] = now;
+            ringLevel[slot] = messageLevel;
+            ringTag[slot] = tag;
+            ringFormat[slot] = format;
+            ringArgCount[slot] = argCount;
+            int base = slot * MAX_ARGS;
+            ringArgs[base] = argCount > 0 ? arg1 : null;
+            ringArgs[base + 1] = argCount > 1 ? arg2 : null;
+            ringArgs[base + 2] = argCount > 2 ? arg3 : null;
+            ringError[slot] = error;
+            ringWritten++;
+        }
+
+        String message = argCount == 0 ? format : format(format, argCount, arg1, arg2, arg3);
+        if (error != null) {
+            Log.println(messageLevel, tag, message + '\n' + Log.getStackTraceString(error));
+        } else {
+            Log.println(messageLevel, tag, message);
+        }
+    }
+
+    // Подстановка аргументов вместо {} по порядку; лишние {} остаются как есть
+    static String format(String format, int argCount, Object arg1, Object arg2, Object arg3) {
+        StringBuilder out = new StringBuilder(format.length() + 16 * argCount);
+        int arg = 0;
+        int start = 0;
+        int index;
+        while (arg < argCount && (index = format.indexOf("{}", start)) >= 0) {
+            out.append(format, start, index);
+            out.append(arg == 0 ? arg1 : arg == 1 ? arg2 : arg3);
+            arg++;
+            start = index + 2;
+        }
+        out.append(format, start, format.length());
+        return out.toString();
+    }
+
+    // Запись кольца в отформатированном виде
+    public static final class Entry {
+        public final long timeMillis;
+        public final int level;
+        public final String tag;
+        public final String message;
+
+        Entry(long timeMillis, int level, String tag, String message) {
+            this.timeMillis = timeMillis;
+            this.level = level;
+            this.tag = tag;
+            this.message = message;
+        }
+    }
+
+    // Последние записи от старых к новым; форматирование вне блокировки
+    public static List<Entry> recent() {
+        long[] times;
+        int[] levels;
+        String[] tags;
+        String[] formats;
+        int[] argCounts;
+        Object[] args;
+        Throwable[] errors;
+        int count;
+        int first;
+        synchronized (ringLock) {
+            count = (int) Math.min(ringWritten, RING_SIZE);
+            first = (int) ((ringWritten - count) % RING_SIZE);
+            times = ringTime.clone();
+            levels = ringLevel.clone();
+            tags = ringTag.clone();
+            formats = ringFormat.clone();
+            argCounts = ringArgCount.clone();
+            args = ringArgs.clone();
+            errors = ringError.clone();
+        }
+
+        List<Entry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int slot = (first + i) % RING_SIZE;
+            int base = slot * MAX_ARGS;
+            String message = format(formats[slot], argCounts[slot], args[base], args[base + 1], args[base + 2]);
+            if (errors[slot] != null) {
+                message = message + ": " + errors[slot];
+            }
+            entries.add(new Entry(times[slot], levels[slot], tags[slot], message));
+        }
+        return entries;
+    }
+
+    public static void clear() {
+        synchronized (ringLock) {
+            ringWritten = 0;
+            Arrays.fill(ringTag, null);
+            Arrays.fill(ringFormat, null);
+            Arrays.fill(ringArgs, null);
+            Arrays.fill(ringError, null);
+        }
+    }
+}
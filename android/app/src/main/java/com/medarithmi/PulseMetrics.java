@@ -0,0 +1,82 @@
+package com.medarithmi;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Реестр метрик процесса: именованные счетчики и гистограммы задержек.
+ * Вызывающий код держит ссылку на метрику в static final поле, так что
+ * поиск по имени происходит один раз при загрузке класса.
+ */
+public final class PulseMetrics {
+    public static final String NOTIFICATION_SHOW = "notification.showNotification";
+    public static final String NOTIFICATION_SCHEDULE_DAILY = "notification.scheduleDailyNotification";
+    public static final String NOTIFICATION_SET_REMINDERS = "notification.setReminders";
+    public static final String NOTIFICATION_GET_REMINDERS = "notification.getReminders";
+    public static final String NOTIFICATION_CANCEL = "notification.cancelScheduledNotification";
+    public static final String NOTIFICATIONS_SHOWN = "notification.shown";
+    // Показ уведомления любым путем: вызов из JS и будильник напоминаний
+    public static final String NOTIFICATION_DISPATCH = "notification.dispatch";
+    public static final String WORKER_NOTIFICATION = "worker.notification";
+    public static final String WORKER_SYNC = "worker.sync";
+    public static final String SYNC_PUSHED = "sync.pushed";
+    public static final String SYNC_PULLED = "sync.pulled";
+    public static final String SYNC_REJECTED = "sync.rejected";
+    public static final String DB_QUERY = "db.query";
+    public static final String DB_UPDATE = "db.update";
+    public static final String DB_INSERT = "db.insert";
+    // Счетчики вызовов из JS по модулю: "bridge.<NAME модуля>", без addListener/removeListeners
+    public static final String BRIDGE_CALLS_PREFIX = "bridge.";
+
+    private static final ConcurrentHashMap<String, StripedCounter> counters = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    private PulseMetrics() {
+    }
+
+    public static StripedCounter counter(String name) {
+        StripedCounter counter = counters.get(name);
+        if (counter == null) {
+            counter = new StripedCounter();
+            StripedCounter existing = counters.putIfAbsent(name, counter);
+            if (existing != null) {
+                counter = existing;
+            }
+        }
+        return counter;
+    }
+
+    public static LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histogram = new LatencyHistogram();
+            LatencyHistogram existing = histograms.putIfAbsent(name, histogram);
+            if (existing != null) {
+                histogram = existing;
+            }
+        }
+        return histogram;
+    }
+
+    // Текущие значения счетчиков по имени
+    public static Map<String, Long> counterValues() {
+        Map<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, StripedCounter> entry : counters.entrySet()) {
+            values.put(entry.getKey(), entry.getValue().sum());
+        }
+        return values;
+    }
+
+    // Снимки гистограмм по имени; гистограммы без записей пропускаются
+    public static Map<String, LatencyHistogram.Snapshot> histogramSnapshots() {
+        Map<String, LatencyHistogram.Snapshot> snapshots = new TreeMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram.Snapshot snapshot = entry.getValue().snapshot();
+            if (snapshot.count > 0 || snapshot.errors > 0) {
+                snapshots.put(entry.getKey(), snapshot);
+            }
+        }
+        return snapshots;
+    }
+}
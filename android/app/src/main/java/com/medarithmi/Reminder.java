@@ -0,0 +1,77 @@
+package com.medarithmi;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+
+// Одно напоминание: дни недели (битовая маска, пн = бит 0), время и текст.
+// У адаптивного напоминания hour/minute — исходное время, а фактическое и текст
+// подбирает ReminderPlanner по привычкам пользователя
+public final class Reminder {
+    public static final int ALL_DAYS = 0x7F;
+
+    public final String id;
+    public final int daysMask;
+    public final int hour;
+    public final int minute;
+    public final String title;
+    public final String message;
+    public final boolean adaptive;
+
+    public Reminder(String id, int daysMask, int hour, int minute, String title, String message) {
+        this(id, daysMask, hour, minute, title, message, false);
+    }
+
+    public Reminder(String id, int daysMask, int hour, int minute, String title, String message,
+                    boolean adaptive) {
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            throw new IllegalArgumentException("Некорректное время напоминания: " + hour + ":" + minute);
+        }
+        if ((daysMask & ALL_DAYS) == 0) {
+            throw new IllegalArgumentException("Не выбран ни один день недели");
+        }
+        this.id = id;
+        this.daysMask = daysMask & ALL_DAYS;
+        this.hour = hour;
+        this.minute = minute;
+        this.title = title;
+        this.message = message;
+        this.adaptive = adaptive;
+    }
+
+    public static int dayBit(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+
+    public boolean firesOn(DayOfWeek day) {
+        return (daysMask & dayBit(day)) != 0;
+    }
+
+    /**
+     * Ближайшее срабатывание строго после now в часовом поясе now.
+     * ZonedDateTime.of сдвигает время из "дыры" перехода на летнее время вперед,
+     * а при повторяющемся часе берет первое вхождение.
+     */
+    public ZonedDateTime nextFireAfter(ZonedDateTime now) {
+        return nextFireAfter(now, hour, minute);
+    }
+
+    // То же для другого времени суток (адаптивное время вместо исходного)
+    public ZonedDateTime nextFireAfter(ZonedDateTime now, int fireHour, int fireMinute) {
+        LocalTime time = LocalTime.of(fireHour, fireMinute);
+        LocalDate date = now.toLocalDate();
+        for (int i = 0; i <= 7; i++) {
+            LocalDate candidateDate = date.plusDays(i);
+            if (!firesOn(candidateDate.getDayOfWeek())) {
+                continue;
+            }
+            ZonedDateTime candidate = ZonedDateTime.of(candidateDate, time, now.getZone());
+            if (candidate.isAfter(now)) {
+                return candidate;
+            }
+        }
+        // Недостижимо при непустой маске: через 7 дней день недели повторяется
+        return ZonedDateTime.of(date.plusDays(7), time, now.getZone());
+    }
+}
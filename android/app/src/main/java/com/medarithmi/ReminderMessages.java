@@ -0,0 +1,51 @@
+package com.medarithmi;
+
+// Каталог текстов адаптивного напоминания (те же, что в NotificationService.ts).
+// ReminderPlanner берет их по кругу, по одному на срабатывание
+public final class ReminderMessages {
+    private static final String[][] MESSAGES = {
+        {"🏃 Время для активности!",
+            "Проверьте свою пульсовую зону перед тренировкой в PulseSport."},
+        {"💓 Здоровье сердца",
+            "Контроль пульса снижает риск сердечных заболеваний. Откройте приложение для расчёта."},
+        {"📱 PulseSport напоминает",
+            "Рассчитайте оптимальную нагрузку по вашему пульсу сегодня."},
+        {"⚡ Энергия для дня",
+            "Умеренная активность в правильной зоне пульса даёт энергию. Проверьте свою зону!"},
+        {"🎯 Точный расчёт",
+            "Используйте PulseSport для расчёта персональной зоны пульса прямо сейчас."},
+        {"❤️ Забота о сердце",
+            "Регулярный контроль пульса - лучшая профилактика. Не забывайте о своём сердце!"},
+        {"🌟 Ты можешь больше!",
+            "Твой пульс покажет, на что ты способен. Проверь в PulseSport!"},
+        {"🔥 Зажги своё сердце!",
+            "Правильная нагрузка - ключ к энергии. Рассчитай свою зону пульса!"},
+        {"🏋️‍♂️ Время тренировки!",
+            "Рассчитайте пульсовую зону в PulseSport для эффективной и безопасной нагрузки."},
+        {"📊 Ваш прогресс",
+            "Отслеживайте изменения пульса в PulseSport для анализа эффективности тренировок."},
+        {"🩺 Медицинский контроль",
+            "Регулярный мониторинг пульса в приложении помогает следить за здоровьем."},
+        {"⚡ Заряд энергии",
+            "Короткая активность в правильной зоне пульса освежает. Проверьте свою зону!"},
+        {"🚀 Вперёд к целям!",
+            "Контролируй пульс, достигай результатов с PulseSport."},
+        {"🔔 Регулярные напоминания",
+            "Не забывайте проверять пульс. PulseSport поможет сохранить регулярность."},
+    };
+
+    private ReminderMessages() {
+    }
+
+    public static int size() {
+        return MESSAGES.length;
+    }
+
+    public static String title(int index) {
+        return MESSAGES[Math.floorMod(index, MESSAGES.length)][0];
+    }
+
+    public static String message(int index) {
+        return MESSAGES[Math.floorMod(index, MESSAGES.length)][1];
+    }
+}
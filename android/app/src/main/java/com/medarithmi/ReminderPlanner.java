@@ -0,0 +1,78 @@
+package com.medarithmi;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import java.util.List;
+
+/**
+ * Доставка напоминаний без React и JS: текст адаптивных напоминаний берется из
+ * ReminderMessages по кругу, а их время подбирает AdaptiveTime по гистограмме
+ * CalculationHours (24 строки). Вызывать вне главного потока: читает базу.
+ */
+public final class ReminderPlanner {
+    private static final String TAG = "ReminderPlanner";
+    static final String KEY_MESSAGE_INDEX = "message_index";
+
+    private static volatile ReminderPlanner instance;
+
+    private final Context context;
+    private final SharedPreferences prefs;
+
+    private ReminderPlanner(Context context) {
+        this.context = context.getApplicationContext();
+        this.prefs = this.context.getSharedPreferences(ReminderScheduler.PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    public static ReminderPlanner getInstance(Context context) {
+        if (instance == null) {
+            synchronized (ReminderPlanner.class) {
+                if (instance == null) {
+                    instance = new ReminderPlanner(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    // Срабатывание будильника: показ наступивших напоминаний и перевзвод; возвращает их число
+    public synchronized int deliverDue() {
+        ReminderScheduler scheduler = ReminderScheduler.getInstance(context);
+        List<Reminder> due = scheduler.onAlarm();
+        NotificationDispatcher dispatcher = NotificationDispatcher.getInstance(context);
+        for (Reminder reminder : due) {
+            if (reminder.adaptive) {
+                showRotating(dispatcher);
+            } else {
+                dispatcher.show(reminder.title, reminder.message);
+            }
+        }
+        refreshAdaptiveTime(scheduler);
+        return due.size();
+    }
+
+    // Одно сообщение каталога (периодическая задача WorkManager из прошлых версий)
+    public synchronized void deliverRotating() {
+        showRotating(NotificationDispatcher.getInstance(context));
+        refreshAdaptiveTime(ReminderScheduler.getInstance(context));
+    }
+
+    private void showRotating(NotificationDispatcher dispatcher) {
+        int index = prefs.getInt(KEY_MESSAGE_INDEX, 0);
+        prefs.edit().putInt(KEY_MESSAGE_INDEX, (index + 1) % ReminderMessages.size()).apply();
+        dispatcher.show(ReminderMessages.title(index), ReminderMessages.message(index));
+    }
+
+    // Новое время применяется со следующего срабатывания; ошибка базы оставляет прежнее
+    private void refreshAdaptiveTime(ReminderScheduler scheduler) {
+        try {
+            PulseDatabase database = PulseDatabase.getInstance(context);
+            int[] hours = database.submit(() -> CalculationHours.read(database)).get();
+            int minuteOfDay = AdaptiveTime.pickMinuteOfDay(hours);
+            scheduler.setAdaptiveMinuteOfDay(minuteOfDay);
+            PulseLog.d(TAG, "adaptive reminder time: {}", minuteOfDay);
+        } catch (Exception e) {
+            PulseLog.e(TAG, "refreshAdaptiveTime error", e);
+        }
+    }
+}
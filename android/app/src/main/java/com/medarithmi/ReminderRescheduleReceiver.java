@@ -0,0 +1,44 @@
+package com.medarithmi;
+
+import android.app.AlarmManager;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+// Перевзвод будильника напоминаний после перезагрузки, обновления приложения,
+// смены времени или часового пояса. Читает только SharedPreferences планировщика:
+// без React, SoLoader и открытия SQLite
+public class ReminderRescheduleReceiver extends BroadcastReceiver {
+    private static final String TAG = "ReminderReschedule";
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        String action = intent.getAction();
+        if (!isRescheduleAction(action)) {
+            return;
+        }
+
+        // Разбор и запись prefs вне главного потока, чтобы не задерживать загрузку
+        PendingResult result = goAsync();
+        Context appContext = context.getApplicationContext();
+        new Thread(() -> {
+            try {
+                ReminderScheduler scheduler = ReminderScheduler.getInstance(appContext);
+                scheduler.recomputeAndArm();
+                PulseLog.d(TAG, "{}: next reminder at {}", action, scheduler.getNextFireAtMillis());
+            } catch (Exception e) {
+                PulseLog.e(TAG, "onReceive error", e);
+            } finally {
+                result.finish();
+            }
+        }, "PulseReschedule").start();
+    }
+
+    private static boolean isRescheduleAction(String action) {
+        return Intent.ACTION_BOOT_COMPLETED.equals(action)
+            || Intent.ACTION_MY_PACKAGE_REPLACED.equals(action)
+            || Intent.ACTION_TIME_CHANGED.equals(action)
+            || Intent.ACTION_TIMEZONE_CHANGED.equals(action)
+            || AlarmManager.ACTION_SCHEDULE_EXACT_ALARM_PERMISSION_STATE_CHANGED.equals(action);
+    }
+}
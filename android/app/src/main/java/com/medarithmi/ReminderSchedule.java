@@ -0,0 +1,134 @@
+package com.medarithmi;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Очередь напоминаний по времени следующего срабатывания. Не зависит от Android:
+// планировщику достаточно головы очереди, чтобы держать ровно один будильник
+public final class ReminderSchedule {
+
+    public static final class Entry {
+        public final Reminder reminder;
+        public final long fireAtMillis;
+
+        Entry(Reminder reminder, long fireAtMillis) {
+            this.reminder = reminder;
+            this.fireAtMillis = fireAtMillis;
+        }
+    }
+
+    private final PriorityQueue<Entry> queue =
+        new PriorityQueue<>(8, (a, b) -> Long.compare(a.fireAtMillis, b.fireAtMillis));
+
+    // Время суток в минутах для адаптивных напоминаний; -1 — их исходное время
+    private int adaptiveMinuteOfDay = -1;
+
+    public int getAdaptiveMinuteOfDay() {
+        return adaptiveMinuteOfDay;
+    }
+
+    // Новое время применяется при следующем add/recompute
+    public void setAdaptiveMinuteOfDay(int minuteOfDay) {
+        adaptiveMinuteOfDay = minuteOfDay >= 0 && minuteOfDay < 24 * 60 ? minuteOfDay : -1;
+    }
+
+    // Добавление напоминания со следующим срабатыванием после now
+    public void add(Reminder reminder, ZonedDateTime now) {
+        ZonedDateTime next = reminder.adaptive && adaptiveMinuteOfDay >= 0
+            ? reminder.nextFireAfter(now, adaptiveMinuteOfDay / 60, adaptiveMinuteOfDay % 60)
+            : reminder.nextFireAfter(now);
+        queue.add(new Entry(reminder, next.toInstant().toEpochMilli()));
+    }
+
+    // Добавление с заранее известным временем (восстановление из хранилища)
+    public void add(Reminder reminder, long fireAtMillis) {
+        queue.add(new Entry(reminder, fireAtMillis));
+    }
+
+    public boolean remove(String id) {
+        return queue.removeIf(entry -> entry.reminder.id.equals(id));
+    }
+
+    public void clear() {
+        queue.clear();
+    }
+
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    // Время ближайшего срабатывания или -1, если напоминаний нет
+    public long nextFireAtMillis() {
+        Entry head = queue.peek();
+        return head != null ? head.fireAtMillis : -1;
+    }
+
+    public Collection<Entry> entries() {
+        return queue;
+    }
+
+    /**
+     * Извлекает наступившие напоминания и ставит их в очередь на следующий раз.
+     * Напоминания, пропущенные дольше staleMillis (выключенное устройство),
+     * переносятся без показа.
+     */
+    public List<Reminder> pollDue(long nowMillis, ZoneId zone, long staleMillis) {
+        List<Reminder> due = new ArrayList<>();
+        List<Reminder> fired = new ArrayList<>();
+        while (!queue.isEmpty() && queue.peek().fireAtMillis <= nowMillis) {
+            Entry entry = queue.poll();
+            if (nowMillis - entry.fireAtMillis <= staleMillis) {
+                due.add(entry.reminder);
+            }
+            fired.add(entry.reminder);
+        }
+        ZonedDateTime now = Instant.ofEpochMilli(nowMillis).atZone(zone);
+        for (Reminder reminder : fired) {
+            add(reminder, now);
+        }
+        return due;
+    }
+
+    /**
+     * Перенос адаптивных напоминаний на текущее адаптивное время, не раньше уже
+     * назначенного дня: только что сработавшее напоминание стоит на следующем дне
+     * и не должно повториться сегодня в более позднюю минуту. Еще не сработавшее
+     * сегодня остается сегодня, если новая минута не прошла.
+     */
+    public void recomputeAdaptive(ZonedDateTime now) {
+        List<Entry> adaptive = new ArrayList<>();
+        for (Entry entry : queue) {
+            if (entry.reminder.adaptive) {
+                adaptive.add(entry);
+            }
+        }
+        queue.removeAll(adaptive);
+        for (Entry entry : adaptive) {
+            ZonedDateTime dayStart = Instant.ofEpochMilli(entry.fireAtMillis).atZone(now.getZone())
+                .toLocalDate().atStartOfDay(now.getZone());
+            // Минус наносекунда: nextFireAfter ищет строго после, а полночь тоже годится
+            add(entry.reminder, dayStart.isAfter(now) ? dayStart.minusNanos(1) : now);
+        }
+    }
+
+    // Пересчет всех времен, например после смены часового пояса
+    public void recompute(ZonedDateTime now) {
+        List<Reminder> reminders = new ArrayList<>(queue.size());
+        for (Entry entry : queue) {
+            reminders.add(entry.reminder);
+        }
+        queue.clear();
+        for (Reminder reminder : reminders) {
+            add(reminder, now);
+        }
+    }
+}
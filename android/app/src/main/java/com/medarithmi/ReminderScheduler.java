@@ -0,0 +1,218 @@
+package com.medarithmi;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.os.Build;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Планировщик напоминаний: хранит очередь в SharedPreferences и держит
+// ровно один будильник AlarmManager на ближайшее срабатывание
+public final class ReminderScheduler {
+    private static final String TAG = "ReminderScheduler";
+    public static final String ACTION_REMINDER = "com.medarithmi.action.REMINDER";
+
+    static final String PREFS_NAME = "medarithmi_reminders";
+    static final String KEY_REMINDERS = "reminders";
+    static final String KEY_NEXT_FIRE_AT = "next_fire_at";
+    static final String KEY_ADAPTIVE_TIME = "adaptive_minute_of_day";
+
+    // Пропущенные дольше этого напоминания не показываются задним числом
+    private static final long STALE_MILLIS = 60 * 60 * 1000L;
+
+    private static volatile ReminderScheduler instance;
+
+    private final Context context;
+    private final SharedPreferences prefs;
+    private final ReminderSchedule schedule = new ReminderSchedule();
+
+    private ReminderScheduler(Context context) {
+        this.context = context.getApplicationContext();
+        this.prefs = this.context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        load();
+    }
+
+    public static ReminderScheduler getInstance(Context context) {
+        if (instance == null) {
+            synchronized (ReminderScheduler.class) {
+                if (instance == null) {
+                    instance = new ReminderScheduler(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    public synchronized List<Reminder> getReminders() {
+        List<Reminder> reminders = new ArrayList<>(schedule.size());
+        for (ReminderSchedule.Entry entry : schedule.entries()) {
+            reminders.add(entry.reminder);
+        }
+        return reminders;
+    }
+
+    // Замена всего набора напоминаний
+    public synchronized void setReminders(Collection<Reminder> reminders) {
+        ZonedDateTime now = ZonedDateTime.now();
+        schedule.clear();
+        for (Reminder reminder : reminders) {
+            schedule.add(reminder, now);
+        }
+        persistAndArm();
+    }
+
+    // Добавление или замена напоминания с тем же id
+    public synchronized void upsert(Reminder reminder) {
+        schedule.remove(reminder.id);
+        schedule.add(reminder, ZonedDateTime.now());
+        persistAndArm();
+    }
+
+    public synchronized void remove(String id) {
+        if (schedule.remove(id)) {
+            persistAndArm();
+        }
+    }
+
+    public synchronized void clear() {
+        schedule.clear();
+        persistAndArm();
+    }
+
+    public synchronized long getNextFireAtMillis() {
+        return schedule.nextFireAtMillis();
+    }
+
+    // Срабатывание будильника: наступившие напоминания и перевзвод на следующее
+    public synchronized List<Reminder> onAlarm() {
+        List<Reminder> due = schedule.pollDue(System.currentTimeMillis(), ZoneId.systemDefault(), STALE_MILLIS);
+        persistAndArm();
+        return due;
+    }
+
+    public synchronized int getAdaptiveMinuteOfDay() {
+        return schedule.getAdaptiveMinuteOfDay();
+    }
+
+    // Новое время адаптивных напоминаний (-1 — исходное); перевзвод только при изменении.
+    // Уже назначенный день не сдвигается раньше, поэтому в день срабатывания повтора нет
+    public synchronized void setAdaptiveMinuteOfDay(int minuteOfDay) {
+        if (minuteOfDay == schedule.getAdaptiveMinuteOfDay()) {
+            return;
+        }
+        schedule.setAdaptiveMinuteOfDay(minuteOfDay);
+        schedule.recomputeAdaptive(ZonedDateTime.now());
+        persistAndArm();
+    }
+
+    // Пересчет после смены времени или часового пояса
+    public synchronized void recomputeAndArm() {
+        schedule.recompute(ZonedDateTime.now());
+        persistAndArm();
+    }
+
+    private void persistAndArm() {
+        persist();
+        arm();
+    }
+
+    private void arm() {
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        if (alarmManager == null) {
+            PulseLog.e(TAG, "arm: AlarmManager is null");
+            return;
+        }
+
+        PendingIntent pendingIntent = alarmIntent(context);
+        long fireAt = schedule.nextFireAtMillis();
+        if (fireAt < 0) {
+            alarmManager.cancel(pendingIntent);
+            return;
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S && !alarmManager.canScheduleExactAlarms()) {
+            alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, fireAt, pendingIntent);
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, fireAt, pendingIntent);
+        } else {
+            alarmManager.setExact(AlarmManager.RTC_WAKEUP, fireAt, pendingIntent);
+        }
+    }
+
+    // Один и тот же PendingIntent: новый будильник заменяет предыдущий
+    static PendingIntent alarmIntent(Context context) {
+        Intent intent = new Intent(context, NotificationPublisher.class);
+        intent.setAction(ACTION_REMINDER);
+
+        int flags = PendingIntent.FLAG_UPDATE_CURRENT;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            flags |= PendingIntent.FLAG_IMMUTABLE;
+        }
+        return PendingIntent.getBroadcast(context, 0, intent, flags);
+    }
+
+    private void persist() {
+        JSONArray array = new JSONArray();
+        try {
+            for (ReminderSchedule.Entry entry : schedule.entries()) {
+                Reminder reminder = entry.reminder;
+                JSONObject item = new JSONObject();
+                item.put("id", reminder.id);
+                item.put("days", reminder.daysMask);
+                item.put("h", reminder.hour);
+                item.put("m", reminder.minute);
+                item.put("t", reminder.title);
+                item.put("msg", reminder.message);
+                item.put("a", reminder.adaptive);
+                item.put("next", entry.fireAtMillis);
+                array.put(item);
+            }
+        } catch (JSONException e) {
+            PulseLog.e(TAG, "persist error", e);
+            return;
+        }
+        prefs.edit()
+            .putString(KEY_REMINDERS, array.toString())
+            .putLong(KEY_NEXT_FIRE_AT, schedule.nextFireAtMillis())
+            .putInt(KEY_ADAPTIVE_TIME, schedule.getAdaptiveMinuteOfDay())
+            .apply();
+    }
+
+    private void load() {
+        schedule.setAdaptiveMinuteOfDay(prefs.getInt(KEY_ADAPTIVE_TIME, -1));
+        String json = prefs.getString(KEY_REMINDERS, null);
+        if (json == null) {
+            return;
+        }
+        try {
+            JSONArray array = new JSONArray(json);
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject item = array.getJSONObject(i);
+                Reminder reminder = new Reminder(
+                    item.getString("id"),
+                    item.getInt("days"),
+                    item.getInt("h"),
+                    item.getInt("m"),
+                    item.getString("t"),
+                    item.getString("msg"),
+                    item.optBoolean("a", false)
+                );
+                schedule.add(reminder, item.getLong("next"));
+            }
+        } catch (JSONException | IllegalArgumentException e) {
+            PulseLog.e(TAG, "load error", e);
+            schedule.clear();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.medarithmi;
+
+import java.util.concurrent.locks.LockSupport;
+
+// Воспроизведение записанных отсчетов (по кругу) с заданным интервалом.
+// Без записи генерирует детерминированную тренировку: разминка, интервалы, заминка
+public final class ReplayHeartRateSource implements HeartRateSource {
+    private static final int SYNTHETIC_LENGTH = 600;
+
+    private final int[] samples;
+    private final long intervalNanos;
+    private volatile Thread thread;
+
+    // Состояние drainDue; доступно только из потока вызывающего
+    private long pollOriginMillis = -1;
+    private long pollIndex;
+
+    public ReplayHeartRateSource(int[] samples, long intervalMillis, int restingHR, int maxHR) {
+        this.samples = samples != null && samples.length > 0
+            ? samples.clone()
+            : synthesize(restingHR, maxHR);
+        this.intervalNanos = Math.max(1, intervalMillis) * 1_000_000L;
+    }
+
+    @Override
+    public synchronized void start(Sink sink) {
+        if (thread != null) {
+            return;
+        }
+        Thread worker = new Thread(() -> run(sink), "PulseReplay");
+        thread = worker;
+        worker.start();
+    }
+
+    // Ждет выхода потока: отсчет, который он мог в этот момент отдавать, завершится до возврата
+    @Override
+    public synchronized void stop() {
+        Thread worker = thread;
+        thread = null;
+        if (worker == null) {
+            return;
+        }
+        worker.interrupt();
+        if (worker == Thread.currentThread()) {
+            return;
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                worker.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Без собственного потока: все отсчеты, срок которых наступил к nowMillis, одной
+     * пачкой, с временем по расписанию. Для потребителя, который сам просыпается
+     * по таймеру, — после сна CPU пропущенные отсчеты приходят при следующем вызове.
+     * Первый вызов задает начало расписания. Возвращает число отсчетов.
+     */
+    public int drainDue(long nowMillis, Sink sink) {
+        if (pollOriginMillis < 0) {
+            pollOriginMillis = nowMillis;
+        }
+        long intervalMillis = intervalNanos / 1_000_000L;
+        int emitted = 0;
+        while (true) {
+            long due = pollOriginMillis + pollIndex * intervalMillis;
+            if (due > nowMillis) {
+                return emitted;
+            }
+            sink.onSample(due, samples[(int) (pollIndex % samples.length)]);
+            pollIndex++;
+            emitted++;
+        }
+    }
+
+    private void run(Sink sink) {
+        Thread self = Thread.currentThread();
+        long origin = System.nanoTime();
+        long index = 0;
+        while (thread == self && !self.isInterrupted()) {
+            long due = origin + index * intervalNanos;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+                continue;
+            }
+            sink.onSample(due / 1_000_000L, samples[(int) (index % samples.length)]);
+            index++;
+        }
+    }
+
+    // Профиль в долях пульсового резерва, целочисленно
+    static int[] synthesize(int restingHR, int maxHR) {
+        int reserve = Math.max(0, maxHR - restingHR);
+        int[] out = new int[SYNTHETIC_LENGTH];
+        for (int i = 0; i < SYNTHETIC_LENGTH; i++) {
+            int percent;
+            if (i < 120) {
+                percent = 40 + i * 25 / 120;             // разминка 40% -> 65%
+            } else if (i < 480) {
+                percent = (i / 60) % 2 == 0 ? 85 : 68;   // интервалы по минуте
+            } else {
+                percent = 65 - (i - 480) * 25 / 120;     // заминка 65% -> 40%
+            }
+            // Небольшое детерминированное колебание ±2 удара
+            int jitter = (i * 7) % 5 - 2;
+            out[i] = restingHR + reserve * percent / 100 + jitter;
+        }
+        return out;
+    }
+}
@@ -0,0 +1,175 @@
+package com.medarithmi;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Колоночный формат файла записанной тренировки. Без зависимостей от Android.
+ *
+ * Заголовок (HEADER_SIZE байт, big-endian):
+ *   0  magic "PSES"        4  version (short)     6  reserved (short)
+ *   8  sampleCount (int)   12 minBpm (short)      14 maxBpm (short)
+ *   16 startedAt (long, мс UTC)                   24 durationMs (long)
+ *   32 offset/length колонки времени (int, int)   40 offset/length колонки пульса (int, int)
+ *
+ * Колонка времени: смещения от первого отсчета как zigzag-varint разности разностей
+ * (при равномерной частоте — один байт на отсчет). Колонка пульса: zigzag-varint разности.
+ */
+public final class SessionCodec {
+    static final int MAGIC = 0x50534553;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 48;
+
+    public static final class Header {
+        public final int sampleCount;
+        public final int minBpm;
+        public final int maxBpm;
+        public final long startedAt;
+        public final long durationMs;
+        final int timeOffset;
+        final int timeLength;
+        final int bpmOffset;
+        final int bpmLength;
+
+        Header(int sampleCount, int minBpm, int maxBpm, long startedAt, long durationMs,
+               int timeOffset, int timeLength, int bpmOffset, int bpmLength) {
+            this.sampleCount = sampleCount;
+            this.minBpm = minBpm;
+            this.maxBpm = maxBpm;
+            this.startedAt = startedAt;
+            this.durationMs = durationMs;
+            this.timeOffset = timeOffset;
+            this.timeLength = timeLength;
+            this.bpmOffset = bpmOffset;
+            this.bpmLength = bpmLength;
+        }
+    }
+
+    private SessionCodec() {
+    }
+
+    /**
+     * Кодирует count отсчетов: offsetsMs — время от начала записи (неубывающее),
+     * bpms — пульс. Возвращает буфер, готовый к записи в файл.
+     */
+    public static ByteBuffer encode(long startedAt, long[] offsetsMs, int[] bpms, int count) {
+        byte[] time = new byte[count * 10];
+        byte[] bpm = new byte[count * 5];
+        int timeLength = 0;
+        int bpmLength = 0;
+        int min = count > 0 ? Integer.MAX_VALUE : 0;
+        int max = count > 0 ? Integer.MIN_VALUE : 0;
+        long previousOffset = 0;
+        long previousDelta = 0;
+        int previousBpm = 0;
+        for (int i = 0; i < count; i++) {
+            long delta = offsetsMs[i] - previousOffset;
+            timeLength = writeVarint(time, timeLength, zigzag(delta - previousDelta));
+            previousOffset = offsetsMs[i];
+            previousDelta = delta;
+
+            bpmLength = writeVarint(bpm, bpmLength, zigzag(bpms[i] - previousBpm));
+            previousBpm = bpms[i];
+            min = Math.min(min, bpms[i]);
+            max = Math.max(max, bpms[i]);
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + timeLength + bpmLength);
+        out.putInt(MAGIC)
+            .putShort(VERSION)
+            .putShort((short) 0)
+            .putInt(count)
+            .putShort((short) min)
+            .putShort((short) max)
+            .putLong(startedAt)
+            .putLong(count > 0 ? offsetsMs[count - 1] : 0)
+            .putInt(HEADER_SIZE)
+            .putInt(timeLength)
+            .putInt(HEADER_SIZE + timeLength)
+            .putInt(bpmLength);
+        out.put(time, 0, timeLength).put(bpm, 0, bpmLength);
+        out.flip();
+        return out;
+    }
+
+    // Чтение заголовка по абсолютным позициям (позиция буфера не меняется)
+    public static Header readHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Не файл тренировки");
+        }
+        if (buffer.getShort(4) != VERSION) {
+            throw new IOException("Неподдерживаемая версия файла тренировки: " + buffer.getShort(4));
+        }
+        Header header = new Header(
+            buffer.getInt(8),
+            buffer.getShort(12) & 0xFFFF,
+            buffer.getShort(14) & 0xFFFF,
+            buffer.getLong(16),
+            buffer.getLong(24),
+            buffer.getInt(32),
+            buffer.getInt(36),
+            buffer.getInt(40),
+            buffer.getInt(44)
+        );
+        if (header.bpmOffset + (long) header.bpmLength > buffer.limit()
+            || header.timeOffset + (long) header.timeLength > buffer.limit()) {
+            throw new IOException("Файл тренировки поврежден");
+        }
+        return header;
+    }
+
+    // Декодирует колонку времени в offsetsOut (длина не меньше sampleCount)
+    public static void decodeOffsets(ByteBuffer buffer, Header header, long[] offsetsOut) {
+        int position = header.timeOffset;
+        long offset = 0;
+        long delta = 0;
+        for (int i = 0; i < header.sampleCount; i++) {
+            long raw = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(position++);
+                raw |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            delta += unzigzag(raw);
+            offset += delta;
+            offsetsOut[i] = offset;
+        }
+    }
+
+    // Декодирует колонку пульса в bpmOut (длина не меньше sampleCount)
+    public static void decodeBpm(ByteBuffer buffer, Header header, int[] bpmOut) {
+        int position = header.bpmOffset;
+        int bpm = 0;
+        for (int i = 0; i < header.sampleCount; i++) {
+            long raw = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(position++);
+                raw |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            bpm += (int) unzigzag(raw);
+            bpmOut[i] = bpm;
+        }
+    }
+
+    private static int writeVarint(byte[] out, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[position++] = (byte) value;
+        return position;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
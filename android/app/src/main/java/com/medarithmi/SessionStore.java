@@ -0,0 +1,171 @@
+package com.medarithmi;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.UUID;
+
+// Хранилище записанных тренировок: отсчеты лежат в колоночных файлах sessions/*.pses
+// (SessionCodec), в SQLite — только метаданные в workout_sessions
+public final class SessionStore {
+    private static final String TAG = "SessionStore";
+    private static final String DIRECTORY = "sessions";
+    private static final String EXTENSION = ".pses";
+
+    static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS workout_sessions ("
+        + "id INTEGER PRIMARY KEY AUTOINCREMENT, "
+        + "started_at INTEGER NOT NULL, "
+        + "duration_ms INTEGER NOT NULL, "
+        + "sample_count INTEGER NOT NULL, "
+        + "avg_hr INTEGER NOT NULL, "
+        + "min_hr INTEGER NOT NULL, "
+        + "max_hr INTEGER NOT NULL, "
+        + "file_name TEXT NOT NULL, "
+        + "byte_size INTEGER NOT NULL, "
+        + "created_at DATETIME DEFAULT CURRENT_TIMESTAMP)";
+    static final String CREATE_INDEX = "CREATE INDEX IF NOT EXISTS idx_workout_sessions_started "
+        + "ON workout_sessions (started_at)";
+
+    static final String COLUMNS =
+        "id, started_at, duration_ms, sample_count, avg_hr, min_hr, max_hr, byte_size";
+
+    private static final String INSERT_SESSION = "INSERT INTO workout_sessions "
+        + "(started_at, duration_ms, sample_count, avg_hr, min_hr, max_hr, file_name, byte_size) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Декодированная тренировка
+    public static final class Session {
+        public final long startedAt;
+        public final long durationMs;
+        public final int sampleCount;
+        public final long[] offsetsMs;
+        public final int[] bpms;
+
+        Session(long startedAt, long durationMs, int sampleCount, long[] offsetsMs, int[] bpms) {
+            this.startedAt = startedAt;
+            this.durationMs = durationMs;
+            this.sampleCount = sampleCount;
+            this.offsetsMs = offsetsMs;
+            this.bpms = bpms;
+        }
+    }
+
+    private static volatile SessionStore instance;
+
+    private final PulseDatabase database;
+    private final File directory;
+
+    private SessionStore(Context context) {
+        this.database = PulseDatabase.getInstance(context);
+        this.directory = new File(context.getApplicationContext().getFilesDir(), DIRECTORY);
+    }
+
+    public static SessionStore getInstance(Context context) {
+        if (instance == null) {
+            synchronized (SessionStore.class) {
+                if (instance == null) {
+                    instance = new SessionStore(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Записывает файл тренировки и строку метаданных; возвращает id сессии.
+     * Вызывать вне потока базы: вставка выполняется на нем и ожидается.
+     */
+    public long save(long startedAt, long[] offsetsMs, int[] bpms, int count) throws Exception {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Не удалось создать папку тренировок");
+        }
+        ByteBuffer encoded = SessionCodec.encode(startedAt, offsetsMs, bpms, count);
+        int byteSize = encoded.remaining();
+        String fileName = UUID.randomUUID().toString() + EXTENSION;
+        File file = new File(directory, fileName);
+        File temp = new File(directory, fileName + ".tmp");
+        try (FileChannel channel = new FileOutputStream(temp).getChannel()) {
+            while (encoded.hasRemaining()) {
+                channel.write(encoded);
+            }
+            channel.force(false);
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Не удалось сохранить файл тренировки");
+        }
+
+        long sum = 0;
+        int min = count > 0 ? Integer.MAX_VALUE : 0;
+        int max = 0;
+        for (int i = 0; i < count; i++) {
+            sum += bpms[i];
+            min = Math.min(min, bpms[i]);
+            max = Math.max(max, bpms[i]);
+        }
+        Object[] args = {
+            startedAt,
+            count > 0 ? offsetsMs[count - 1] : 0L,
+            count,
+            count > 0 ? Math.round((double) sum / count) : 0L,
+            min,
+            max,
+            fileName,
+            byteSize,
+        };
+        try {
+            return database.submit(() -> database.executeInsert(INSERT_SESSION, args)).get();
+        } catch (Exception e) {
+            file.delete();
+            throw e;
+        }
+    }
+
+    // Отображает файл сессии в память и декодирует обе колонки; null, если сессии нет
+    public Session load(long id) throws Exception {
+        File file = fileOf(id);
+        if (file == null) {
+            return null;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            SessionCodec.Header header = SessionCodec.readHeader(buffer);
+            long[] offsets = new long[header.sampleCount];
+            int[] bpms = new int[header.sampleCount];
+            SessionCodec.decodeOffsets(buffer, header, offsets);
+            SessionCodec.decodeBpm(buffer, header, bpms);
+            return new Session(header.startedAt, header.durationMs, header.sampleCount, offsets, bpms);
+        }
+    }
+
+    public boolean delete(long id) throws Exception {
+        File file = fileOf(id);
+        if (file == null) {
+            return false;
+        }
+        int rows = database.submit(() -> database.executeUpdate(
+            "DELETE FROM workout_sessions WHERE id = ?", new Object[]{id})).get();
+        if (file.exists() && !file.delete()) {
+            PulseLog.w(TAG, "delete: file was not removed {}", file.getName());
+        }
+        return rows > 0;
+    }
+
+    private File fileOf(long id) throws Exception {
+        String fileName = database.submit(() -> {
+            try (Cursor cursor = database.query(
+                "SELECT file_name FROM workout_sessions WHERE id = ?", new Object[]{id})) {
+                return cursor.moveToFirst() ? cursor.getString(0) : null;
+            }
+        }).get();
+        return fileName != null ? new File(directory, fileName) : null;
+    }
+}
@@ -0,0 +1,91 @@
+package com.medarithmi;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.LifecycleEventListener;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Нативный модуль настроек: весь снимок за один вызов и пакетная запись в фоне
+public class SettingsModule extends ReactContextBaseJavaModule implements LifecycleEventListener {
+    public static final String NAME = "SettingsModule";
+    private static final StripedCounter CALLS = PulseMetrics.counter(PulseMetrics.BRIDGE_CALLS_PREFIX + NAME);
+    private final PulseDatabase database;
+    private final SettingsStore store;
+
+    public SettingsModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.database = PulseDatabase.getInstance(reactContext);
+        this.store = SettingsStore.getInstance(database);
+        reactContext.addLifecycleEventListener(this);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @ReactMethod
+    public void getSnapshot(Promise promise) {
+        CALLS.increment();
+        database.execute(() -> {
+            try {
+                WritableMap result = Arguments.createMap();
+                for (Map.Entry<String, String> entry : store.getAll().entrySet()) {
+                    result.putString(entry.getKey(), entry.getValue());
+                }
+                promise.resolve(result);
+            } catch (Exception e) {
+                promise.reject("SETTINGS_LOAD_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    // Значения сразу попадают в снимок; запись в базу объединяется с соседними
+    @ReactMethod
+    public void saveSettings(ReadableMap values, Promise promise) {
+        CALLS.increment();
+        try {
+            Map<String, String> batch = new HashMap<>();
+            ReadableMapKeySetIterator iterator = values.keySetIterator();
+            while (iterator.hasNextKey()) {
+                String key = iterator.nextKey();
+                batch.put(key, values.isNull(key) ? null : values.getString(key));
+            }
+            store.putAll(batch);
+            promise.resolve(null);
+        } catch (Exception e) {
+            promise.reject("SETTINGS_SAVE_ERROR", e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void flush(Promise promise) {
+        CALLS.increment();
+        database.execute(() -> {
+            store.flush();
+            promise.resolve(null);
+        });
+    }
+
+    @Override
+    public void onHostResume() {
+    }
+
+    @Override
+    public void onHostPause() {
+        store.flushAsync();
+    }
+
+    @Override
+    public void onHostDestroy() {
+        store.flushAsync();
+    }
+}
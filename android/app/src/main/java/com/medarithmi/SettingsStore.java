@@ -0,0 +1,177 @@
+package com.medarithmi;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+// Снимок user_settings в памяти: чтение без SQL, запись через отложенный пакетный flush
+public final class SettingsStore {
+    private static final String TAG = "SettingsStore";
+    private static final long FLUSH_DELAY_MS = 300;
+    private static final long FLUSH_RETRY_DELAY_MS = 5000;
+
+    private static final String UPSERT_SETTING =
+        "INSERT OR REPLACE INTO user_settings (key, value, updated_at) VALUES (?, ?, CURRENT_TIMESTAMP)";
+
+    // Значения по умолчанию (раньше создавались в DatabaseService.initializeDefaultSettings)
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+    static {
+        DEFAULTS.put("allow_analytics", "true");
+        DEFAULTS.put("allow_messages", "true");
+        DEFAULTS.put("user_name", "");
+        DEFAULTS.put("user_age", "");
+        DEFAULTS.put("has_completed_onboarding", "false");
+    }
+
+    private static volatile SettingsStore instance;
+
+    private final PulseDatabase database;
+    private final Map<String, String> snapshot = new ConcurrentHashMap<>();
+    // Несохраненные изменения; доступ под synchronized (this)
+    private final Map<String, String> pending = new HashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+    private volatile boolean loaded;
+
+    private SettingsStore(PulseDatabase database) {
+        this.database = database;
+    }
+
+    public static SettingsStore getInstance(PulseDatabase database) {
+        if (instance == null) {
+            synchronized (SettingsStore.class) {
+                if (instance == null) {
+                    instance = new SettingsStore(database);
+                }
+            }
+        }
+        return instance;
+    }
+
+    // Загрузка всех ключей одним запросом (только из потока базы)
+    void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        SQLiteDatabase db = database.getWritableDatabase();
+        Map<String, String> stored = new HashMap<>();
+        try (Cursor cursor = db.rawQuery("SELECT key, value FROM user_settings", null)) {
+            while (cursor.moveToNext()) {
+                stored.put(cursor.getString(0), cursor.isNull(1) ? "" : cursor.getString(1));
+            }
+        }
+
+        Map<String, String> missing = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : DEFAULTS.entrySet()) {
+            if (!stored.containsKey(entry.getKey())) {
+                missing.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (!missing.isEmpty()) {
+            write(missing);
+            stored.putAll(missing);
+        }
+
+        // Изменения, сделанные до загрузки, важнее значений из базы
+        synchronized (this) {
+            stored.putAll(pending);
+            snapshot.putAll(stored);
+        }
+        loaded = true;
+    }
+
+    // Снимок всех настроек (только из потока базы)
+    public Map<String, String> getAll() {
+        ensureLoaded();
+        return new HashMap<>(snapshot);
+    }
+
+    // Значение из памяти; null, если ключа нет или снимок еще не загружен
+    public String get(String key) {
+        return snapshot.get(key);
+    }
+
+    // Запись сразу видна в снимке, в базу уходит одной транзакцией после паузы.
+    // null хранится как "", так же как NULL из базы в ensureLoaded
+    public void putAll(Map<String, String> values) {
+        synchronized (this) {
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                String value = entry.getValue() != null ? entry.getValue() : "";
+                snapshot.put(entry.getKey(), value);
+                pending.put(entry.getKey(), value);
+            }
+            scheduleFlush(FLUSH_DELAY_MS);
+        }
+    }
+
+    // Под synchronized (this)
+    private void scheduleFlush(long delayMs) {
+        if (scheduledFlush == null) {
+            scheduledFlush = database.schedule(this::flush, delayMs);
+        }
+    }
+
+    // Немедленная запись накопленных изменений (только из потока базы)
+    public void flush() {
+        Map<String, String> batch;
+        synchronized (this) {
+            scheduledFlush = null;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new HashMap<>(pending);
+            pending.clear();
+        }
+        try {
+            write(batch);
+        } catch (Exception e) {
+            PulseLog.e(TAG, "flush error", e);
+            // Возвращаем изменения в очередь, если их не перезаписали новыми
+            synchronized (this) {
+                for (Map.Entry<String, String> entry : batch.entrySet()) {
+                    if (!pending.containsKey(entry.getKey())) {
+                        pending.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                scheduleFlush(FLUSH_RETRY_DELAY_MS);
+            }
+        }
+    }
+
+    // Отложенный flush прямо сейчас, например при уходе приложения в фон
+    public void flushAsync() {
+        synchronized (this) {
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+        }
+        database.execute(this::flush);
+    }
+
+    private void write(Map<String, String> values) {
+        SQLiteDatabase db = database.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            SQLiteStatement statement = database.statement(UPSERT_SETTING);
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                statement.clearBindings();
+                statement.bindString(1, entry.getKey());
+                if (entry.getValue() == null) {
+                    statement.bindNull(2);
+                } else {
+                    statement.bindString(2, entry.getValue());
+                }
+                statement.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+}
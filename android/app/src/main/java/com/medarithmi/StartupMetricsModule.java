@@ -0,0 +1,63 @@
+package com.medarithmi;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.Map;
+
+// Нативный модуль хронологии старта: фазы из JS и отчет для JS/CI
+public class StartupMetricsModule extends ReactContextBaseJavaModule {
+    public static final String NAME = "StartupMetricsModule";
+    private static final StripedCounter CALLS = PulseMetrics.counter(PulseMetrics.BRIDGE_CALLS_PREFIX + NAME);
+
+    public StartupMetricsModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @ReactMethod
+    public void markPhaseStart(String phase) {
+        CALLS.increment();
+        StartupTimeline.get().begin(phase);
+    }
+
+    @ReactMethod
+    public void markPhaseEnd(String phase) {
+        CALLS.increment();
+        StartupTimeline.get().end(phase);
+    }
+
+    @ReactMethod
+    public void mark(String phase) {
+        CALLS.increment();
+        StartupTimeline.get().mark(phase);
+    }
+
+    // {phase: {startMs, endMs, durationMs}}; у незавершенной фазы endMs = -1
+    @ReactMethod
+    public void getStartupMetrics(Promise promise) {
+        CALLS.increment();
+        try {
+            WritableMap result = Arguments.createMap();
+            for (Map.Entry<String, long[]> entry : StartupTimeline.get().snapshot().entrySet()) {
+                long[] span = entry.getValue();
+                WritableMap phase = Arguments.createMap();
+                phase.putDouble("startMs", span[0] / 1e6);
+                phase.putDouble("endMs", span[1] < 0 ? -1 : span[1] / 1e6);
+                phase.putDouble("durationMs", span[1] < 0 ? -1 : (span[1] - span[0]) / 1e6);
+                result.putMap(entry.getKey(), phase);
+            }
+            promise.resolve(result);
+        } catch (Exception e) {
+            promise.reject("STARTUP_METRICS_ERROR", e.getMessage());
+        }
+    }
+}
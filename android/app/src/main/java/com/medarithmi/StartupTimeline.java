@@ -0,0 +1,124 @@
+package com.medarithmi;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Хронология холодного старта: монотонные отметки фаз до первого экрана. Отсчет идет
+// от загрузки класса, пока MainApplication не перенесет его на старт процесса
+// (setOriginNanosAgo). Без зависимостей от Android, трассировка подключается через TraceSink
+public final class StartupTimeline {
+    public static final String PHASE_APP_CREATE = "app_on_create";
+    public static final String PHASE_SOLOADER = "soloader_init";
+    public static final String PHASE_NEW_ARCH = "new_arch_entry_point";
+    public static final String PHASE_REACT_INSTANCE = "react_instance";
+    public static final String PHASE_DATABASE_INIT = "database_init";
+    public static final String PHASE_FIRST_FRAME = "first_frame";
+
+    public interface Clock {
+        long nanoTime();
+    }
+
+    // Приемник секций трассировки (android.os.Trace в приложении)
+    public interface TraceSink {
+        void begin(String phase, int cookie);
+
+        void end(String phase, int cookie);
+    }
+
+    private static final StartupTimeline INSTANCE = new StartupTimeline(System::nanoTime);
+
+    private final Clock clock;
+    // Доступ под synchronized (phases)
+    private long originNanos;
+    // phase -> {start, end} в наносекундах от origin; end = -1, пока фаза идет
+    private final Map<String, long[]> phases = new LinkedHashMap<>();
+    private volatile TraceSink traceSink;
+
+    public StartupTimeline(Clock clock) {
+        this.clock = clock;
+        this.originNanos = clock.nanoTime();
+    }
+
+    public static StartupTimeline get() {
+        return INSTANCE;
+    }
+
+    public void setTraceSink(TraceSink traceSink) {
+        this.traceSink = traceSink;
+    }
+
+    /**
+     * Переносит начало отсчета на момент nanosAgo наносекунд назад (старт процесса)
+     * и сдвигает уже записанные фазы, чтобы их абсолютное время не менялось.
+     */
+    public void setOriginNanosAgo(long nanosAgo) {
+        synchronized (phases) {
+            long newOrigin = clock.nanoTime() - nanosAgo;
+            long shift = originNanos - newOrigin;
+            originNanos = newOrigin;
+            for (long[] span : phases.values()) {
+                span[0] += shift;
+                if (span[1] >= 0) {
+                    span[1] += shift;
+                }
+            }
+        }
+    }
+
+    // Повторное начало уже записанной фазы игнорируется: нужен только первый запуск
+    public void begin(String phase) {
+        synchronized (phases) {
+            if (phases.containsKey(phase)) {
+                return;
+            }
+            phases.put(phase, new long[]{clock.nanoTime() - originNanos, -1});
+        }
+        TraceSink sink = traceSink;
+        if (sink != null) {
+            sink.begin(phase, phase.hashCode());
+        }
+    }
+
+    public void end(String phase) {
+        synchronized (phases) {
+            long[] span = phases.get(phase);
+            if (span == null || span[1] >= 0) {
+                return;
+            }
+            span[1] = clock.nanoTime() - originNanos;
+        }
+        TraceSink sink = traceSink;
+        if (sink != null) {
+            sink.end(phase, phase.hashCode());
+        }
+    }
+
+    // Мгновенная отметка (начало и конец совпадают)
+    public void mark(String phase) {
+        synchronized (phases) {
+            if (!phases.containsKey(phase)) {
+                long now = clock.nanoTime() - originNanos;
+                phases.put(phase, new long[]{now, now});
+            }
+        }
+    }
+
+    // Копия фаз: {start, end} в наносекундах от начала отсчета
+    public Map<String, long[]> snapshot() {
+        Map<String, long[]> copy = new LinkedHashMap<>();
+        synchronized (phases) {
+            for (Map.Entry<String, long[]> entry : phases.entrySet()) {
+                copy.put(entry.getKey(), entry.getValue().clone());
+            }
+        }
+        return copy;
+    }
+
+    // Длительность фазы в наносекундах или -1, если она не завершена
+    public long durationNanos(String phase) {
+        synchronized (phases) {
+            long[] span = phases.get(phase);
+            return span == null || span[1] < 0 ? -1 : span[1] - span[0];
+        }
+    }
+}
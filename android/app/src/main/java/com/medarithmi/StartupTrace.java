@@ -0,0 +1,23 @@
+package com.medarithmi;
+
+import android.os.Build;
+import android.os.Trace;
+
+// Фазы старта как асинхронные секции systrace/Perfetto (фазы идут на разных потоках)
+final class StartupTrace implements StartupTimeline.TraceSink {
+    private static final String PREFIX = "MedArithmi:";
+
+    @Override
+    public void begin(String phase, int cookie) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.beginAsyncSection(PREFIX + phase, cookie);
+        }
+    }
+
+    @Override
+    public void end(String phase, int cookie) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.endAsyncSection(PREFIX + phase, cookie);
+        }
+    }
+}
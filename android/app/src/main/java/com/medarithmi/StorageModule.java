@@ -0,0 +1,383 @@
+package com.medarithmi;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.LifecycleEventListener;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+// Нативный модуль хранения: прямой доступ к PulseSportDB.db без react-native-sqlite-storage
+public class StorageModule extends ReactContextBaseJavaModule implements LifecycleEventListener {
+    public static final String NAME = "StorageModule";
+    private static final StripedCounter CALLS = PulseMetrics.counter(PulseMetrics.BRIDGE_CALLS_PREFIX + NAME);
+    private static final String TAG = "StorageModule";
+    private final PulseDatabase database;
+
+    public StorageModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.database = PulseDatabase.getInstance(reactContext);
+        reactContext.addLifecycleEventListener(this);
+        HistorySyncWorker.schedule(reactContext);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void onHostResume() {
+    }
+
+    // Изменения сессии уходят на сервер одним заданием после ухода приложения в фон
+    @Override
+    public void onHostPause() {
+        if (!HistorySyncWorker.isEnabled()) {
+            return;
+        }
+        database.execute(() -> {
+            try {
+                if (HistorySync.hasPendingChanges(database)) {
+                    HistorySyncWorker.requestSync(getReactApplicationContext());
+                }
+            } catch (Exception e) {
+                PulseLog.e(TAG, "requestSync error", e);
+            }
+        });
+    }
+
+    @Override
+    public void onHostDestroy() {
+    }
+
+    @ReactMethod
+    public void open(Promise promise) {
+        CALLS.increment();
+        database.execute(() -> {
+            try {
+                database.getWritableDatabase();
+                promise.resolve(true);
+            } catch (Exception e) {
+                promise.reject("DB_OPEN_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    // INSERT расчета и id новой строки за один вызов моста
+    @ReactMethod
+    public void insertCalculation(String zoneName, int age, int restingHR,
+                                  int zoneMin, int zoneMax, Promise promise) {
+        CALLS.increment();
+        database.execute(() -> {
+            try {
+                long id = database.insertCalculation(zoneName, age, restingHR, zoneMin, zoneMax);
+                promise.resolve((double) id);
+            } catch (Exception e) {
+                promise.reject("DB_INSERT_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    @ReactMethod
+    public void executeSql(String sql, ReadableArray params, Promise promise) {
+        CALLS.increment();
+        database.execute(() -> {
+            try {
+                int rowsAffected = database.executeUpdate(sql, toArgs(params));
+                WritableMap result = Arguments.createMap();
+                result.putInt("rowsAffected", rowsAffected);
+                promise.resolve(result);
+            } catch (Exception e) {
+                promise.reject("DB_EXECUTE_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    @ReactMethod
+    public void query(String sql, ReadableArray params, Promise promise) {
+        CALLS.increment();
+        database.execute(() -> {
+            try (Cursor cursor = database.query(sql, toArgs(params))) {
+                promise.resolve(readRows(cursor));
+            } catch (Exception e) {
+                promise.reject("DB_QUERY_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Несколько выражений за один вызов моста в одной транзакции.
+     * statements: [{sql, params?, query?}]; результат по порядку:
+     * {rows} для query, {rowsAffected, insertId?} для остальных.
+     * При ошибке транзакция откатывается целиком.
+     */
+    @ReactMethod
+    public void executeBatch(ReadableArray statements, Promise promise) {
+        CALLS.increment();
+        database.execute(() -> {
+            SQLiteDatabase db;
+            try {
+                db = database.getWritableDatabase();
+            } catch (Exception e) {
+                promise.reject("DB_OPEN_ERROR", e.getMessage());
+                return;
+            }
+            WritableArray results = Arguments.createArray();
+            int index = 0;
+            db.beginTransaction();
+            try {
+                for (; index < statements.size(); index++) {
+                    ReadableMap statement = statements.getMap(index);
+                    String sql = statement.getString("sql");
+                    Object[] args = toArgs(statement.hasKey("params") ? statement.getArray("params") : null);
+                    WritableMap result = Arguments.createMap();
+                    if (statement.hasKey("query") && statement.getBoolean("query")) {
+                        try (Cursor cursor = database.query(sql, args)) {
+                            result.putArray("rows", readRows(cursor));
+                        }
+                    } else if (isInsert(sql)) {
+                        long id = database.executeInsert(sql, args);
+                        result.putInt("rowsAffected", id >= 0 ? 1 : 0);
+                        if (id >= 0) {
+                            result.putDouble("insertId", id);
+                        }
+                    } else {
+                        result.putInt("rowsAffected", database.executeUpdate(sql, args));
+                    }
+                    results.pushMap(result);
+                }
+                db.setTransactionSuccessful();
+            } catch (Exception e) {
+                promise.reject("DB_BATCH_ERROR", "Выражение " + index + ": " + e.getMessage());
+                return;
+            } finally {
+                db.endTransaction();
+            }
+            promise.resolve(results);
+        });
+    }
+
+    // Страница истории по курсору; результат в виде массивов по колонкам
+    @ReactMethod
+    public void queryHistoryPage(ReadableMap filters, ReadableMap cursor, int limit, Promise promise) {
+        CALLS.increment();
+        database.execute(() -> {
+            // Разбор фильтров внутри try: ошибка типа должна отклонить промис
+            try {
+                HistoryQuery query = toHistoryQuery(filters);
+                if (cursor != null && cursor.hasKey("date") && cursor.hasKey("id")) {
+                    query.cursorDate = cursor.getString("date");
+                    query.cursorId = (long) cursor.getDouble("id");
+                }
+                try (Cursor rows = database.query(query.pageSql(limit), query.args())) {
+                    promise.resolve(readHistoryColumns(rows, limit));
+                }
+            } catch (Exception e) {
+                promise.reject("DB_QUERY_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    @ReactMethod
+    public void countCalculations(ReadableMap filters, Promise promise) {
+        CALLS.increment();
+        database.execute(() -> {
+            try {
+                HistoryQuery query = toHistoryQuery(filters);
+                try (Cursor rows = database.query(query.countSql(), query.args())) {
+                    promise.resolve(rows.moveToFirst() ? (double) rows.getLong(0) : 0d);
+                }
+            } catch (Exception e) {
+                promise.reject("DB_QUERY_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    // Статистика и тренды из сводок за один вызов: итоги + ряд по дням или неделям
+    @ReactMethod
+    public void getHistoryStats(String period, int limit, Promise promise) {
+        CALLS.increment();
+        database.execute(() -> {
+            try {
+                WritableMap result = Arguments.createMap();
+                try (Cursor totals = database.query(HistoryRollups.TOTALS_SQL, null)) {
+                    long count = totals.moveToFirst() && !totals.isNull(0) ? totals.getLong(0) : 0;
+                    result.putDouble("count", count);
+                    if (count > 0) {
+                        result.putInt("avgRestingHR", (int) Math.round((double) totals.getLong(1) / count));
+                        result.putInt("minRestingHR", totals.getInt(2));
+                        result.putInt("maxRestingHR", totals.getInt(3));
+                    } else {
+                        result.putNull("avgRestingHR");
+                        result.putNull("minRestingHR");
+                        result.putNull("maxRestingHR");
+                    }
+                }
+
+                WritableArray periods = Arguments.createArray();
+                WritableArray counts = Arguments.createArray();
+                WritableArray avgs = Arguments.createArray();
+                WritableArray mins = Arguments.createArray();
+                WritableArray maxs = Arguments.createArray();
+                WritableArray zoneMins = Arguments.createArray();
+                WritableArray zoneMaxs = Arguments.createArray();
+                String sql = HistoryRollups.seriesSql("week".equals(period));
+                try (Cursor series = database.query(sql, new Object[]{limit})) {
+                    while (series.moveToNext()) {
+                        long count = series.getLong(1);
+                        periods.pushString(series.getString(0));
+                        counts.pushDouble(count);
+                        avgs.pushInt(count > 0 ? (int) Math.round((double) series.getLong(2) / count) : 0);
+                        mins.pushInt(series.getInt(3));
+                        maxs.pushInt(series.getInt(4));
+                        zoneMins.pushInt(series.getInt(5));
+                        zoneMaxs.pushInt(series.getInt(6));
+                    }
+                }
+                WritableMap seriesMap = Arguments.createMap();
+                seriesMap.putArray("period_start", periods);
+                seriesMap.putArray("count", counts);
+                seriesMap.putArray("avg_resting_hr", avgs);
+                seriesMap.putArray("min_resting_hr", mins);
+                seriesMap.putArray("max_resting_hr", maxs);
+                seriesMap.putArray("min_zone_min", zoneMins);
+                seriesMap.putArray("max_zone_max", zoneMaxs);
+                result.putMap("series", seriesMap);
+
+                promise.resolve(result);
+            } catch (Exception e) {
+                promise.reject("DB_QUERY_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    static HistoryQuery toHistoryQuery(ReadableMap filters) {
+        HistoryQuery query = new HistoryQuery();
+        if (filters == null) {
+            return query;
+        }
+        query.fromDate = optString(filters, "fromDate");
+        query.toDate = optString(filters, "toDate");
+        query.zoneName = optString(filters, "zoneName");
+        query.minRestingHR = optInt(filters, "minRestingHR");
+        query.maxRestingHR = optInt(filters, "maxRestingHR");
+        return query;
+    }
+
+    private static String optString(ReadableMap map, String key) {
+        return map.hasKey(key) && !map.isNull(key) ? map.getString(key) : null;
+    }
+
+    private static Integer optInt(ReadableMap map, String key) {
+        return map.hasKey(key) && !map.isNull(key) ? map.getInt(key) : null;
+    }
+
+    static WritableMap readHistoryColumns(Cursor cursor, int limit) {
+        WritableArray ids = Arguments.createArray();
+        WritableArray zoneNames = Arguments.createArray();
+        WritableArray ages = Arguments.createArray();
+        WritableArray restingHRs = Arguments.createArray();
+        WritableArray zoneMins = Arguments.createArray();
+        WritableArray zoneMaxs = Arguments.createArray();
+        WritableArray dates = Arguments.createArray();
+        int count = 0;
+        long lastId = 0;
+        String lastDate = null;
+        while (cursor.moveToNext()) {
+            lastId = cursor.getLong(0);
+            lastDate = cursor.getString(6);
+            ids.pushDouble(lastId);
+            zoneNames.pushString(cursor.getString(1));
+            ages.pushInt(cursor.getInt(2));
+            restingHRs.pushInt(cursor.getInt(3));
+            zoneMins.pushInt(cursor.getInt(4));
+            zoneMaxs.pushInt(cursor.getInt(5));
+            dates.pushString(lastDate);
+            count++;
+        }
+
+        WritableMap page = Arguments.createMap();
+        page.putInt("count", count);
+        page.putArray("id", ids);
+        page.putArray("zone_name", zoneNames);
+        page.putArray("age", ages);
+        page.putArray("resting_hr", restingHRs);
+        page.putArray("zone_min", zoneMins);
+        page.putArray("zone_max", zoneMaxs);
+        page.putArray("calculation_date", dates);
+        // Полная страница означает, что дальше могут быть строки
+        if (count == limit && lastDate != null) {
+            WritableMap next = Arguments.createMap();
+            next.putString("date", lastDate);
+            next.putDouble("id", lastId);
+            page.putMap("nextCursor", next);
+        } else {
+            page.putNull("nextCursor");
+        }
+        return page;
+    }
+
+    private static boolean isInsert(String sql) {
+        String head = sql.trim();
+        return head.regionMatches(true, 0, "INSERT", 0, 6)
+            || head.regionMatches(true, 0, "REPLACE", 0, 7);
+    }
+
+    static Object[] toArgs(ReadableArray params) {
+        if (params == null) {
+            return new Object[0];
+        }
+        Object[] args = new Object[params.size()];
+        for (int i = 0; i < args.length; i++) {
+            switch (params.getType(i)) {
+                case Null:
+                    args[i] = null;
+                    break;
+                case Boolean:
+                    args[i] = params.getBoolean(i);
+                    break;
+                case Number:
+                    args[i] = params.getDouble(i);
+                    break;
+                default:
+                    args[i] = params.getString(i);
+                    break;
+            }
+        }
+        return args;
+    }
+
+    static WritableArray readRows(Cursor cursor) {
+        WritableArray rows = Arguments.createArray();
+        String[] columns = cursor.getColumnNames();
+        while (cursor.moveToNext()) {
+            WritableMap row = Arguments.createMap();
+            for (int i = 0; i < columns.length; i++) {
+                switch (cursor.getType(i)) {
+                    case Cursor.FIELD_TYPE_NULL:
+                        row.putNull(columns[i]);
+                        break;
+                    case Cursor.FIELD_TYPE_INTEGER:
+                        row.putDouble(columns[i], cursor.getLong(i));
+                        break;
+                    case Cursor.FIELD_TYPE_FLOAT:
+                        row.putDouble(columns[i], cursor.getDouble(i));
+                        break;
+                    default:
+                        row.putString(columns[i], cursor.getString(i));
+                        break;
+                }
+            }
+            rows.pushMap(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,30 @@
+package com.medarithmi;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Счетчик с полосами по потокам: параллельные инкременты не бьются за одну
+// кэш-линию. LongAdder доступен только с API 24, поэтому своя реализация
+public final class StripedCounter {
+    private static final int STRIPES = 8;
+    // 8 long = 64 байта между полосами, по одной полосе на кэш-линию
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+    public void increment() {
+        add(1);
+    }
+
+    public void add(long delta) {
+        int stripe = (int) (Thread.currentThread().getId() & (STRIPES - 1));
+        cells.getAndAdd(stripe * PADDING, delta);
+    }
+
+    public long sum() {
+        long sum = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            sum += cells.get(stripe * PADDING);
+        }
+        return sum;
+    }
+}
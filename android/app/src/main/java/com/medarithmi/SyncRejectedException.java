@@ -0,0 +1,18 @@
+package com.medarithmi;
+
+// Сервер отклонил запрос синхронизации (4xx кроме 408 и 429): повтор того же
+// запроса ничего не изменит, в отличие от IOException
+public class SyncRejectedException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public SyncRejectedException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,14 @@
+package com.medarithmi;
+
+import java.io.IOException;
+
+// Обмен изменениями истории с сервером (HTTP в приложении, заглушка или локальный сервер в тестах).
+// IOException — временная ошибка, синхронизация будет повторена позже;
+// SyncRejectedException — сервер отказал, повторять тот же запрос бесполезно
+public interface SyncTransport {
+    // Пакет локальных изменений: JSON {device, changes}, сжатый gzip
+    void push(byte[] gzipBody) throws IOException, SyncRejectedException;
+
+    // Изменения сервера после cursor (null — с начала): JSON {cursor, more, changes}
+    String pull(String cursor, int limit) throws IOException, SyncRejectedException;
+}
@@ -0,0 +1,292 @@
+package com.medarithmi;
+
+import android.app.AlarmManager;
+import android.app.Service;
+import android.content.Context;
+import android.content.Intent;
+import android.database.Cursor;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.IBinder;
+import android.os.SystemClock;
+import android.os.VibrationEffect;
+import android.os.Vibrator;
+
+import androidx.core.app.NotificationCompat;
+import androidx.core.content.ContextCompat;
+
+/**
+ * Тренировка в фоне: отслеживание текущей зоны при выключенном экране.
+ *
+ * Поток "PulseWorkout" будится будильником AlarmManager раз в tickIntervalMs,
+ * забирает у источника пачку накопившихся отсчетов, решает о сигнале через
+ * ZoneAlertPolicy и обновляет одно постоянное уведомление на месте — не чаще
+ * раза в NOTIFY_INTERVAL_MS, если нет сигнала. Постоянной блокировки CPU нет:
+ * между будильниками устройство спит, а источник не держит своего потока.
+ *
+ * Датчика пульса пока нет, единственный источник — синтетическая тренировка
+ * ReplayHeartRateSource, поэтому сервис доступен только в debug-сборке (isAvailable).
+ */
+public class WorkoutService extends Service {
+    private static final String TAG = "WorkoutService";
+
+    public static final String ACTION_START = "com.medarithmi.action.WORKOUT_START";
+    public static final String ACTION_STOP = "com.medarithmi.action.WORKOUT_STOP";
+    public static final String EXTRA_TARGET_ZONE = "targetZone";
+    public static final String EXTRA_MODEL = "model";
+    public static final String EXTRA_MEASURED_MAX_HR = "measuredMaxHR";
+    public static final String EXTRA_SAMPLE_INTERVAL_MS = "sampleIntervalMs";
+    public static final String EXTRA_TICK_INTERVAL_MS = "tickIntervalMs";
+
+    // Ниже счетчика NotificationDispatcher, чтобы не пересекаться с напоминаниями
+    static final int NOTIFICATION_ID = 999;
+
+    private static final int DEFAULT_TARGET_ZONE = 2;
+    private static final long DEFAULT_SAMPLE_INTERVAL_MS = 1000;
+    private static final long DEFAULT_TICK_INTERVAL_MS = 5000;
+    private static final long MIN_TICK_INTERVAL_MS = 1000;
+    private static final long NOTIFY_INTERVAL_MS = 15_000;
+    private static final long MAX_WORKOUT_MS = 3 * 60 * 60 * 1000L;
+
+    private static final int HYSTERESIS_BPM = 3;
+    private static final long DEBOUNCE_MS = 10_000;
+    private static final long ALERT_COOLDOWN_MS = 60_000;
+    private static final long[] ALERT_PATTERN = {0, 400, 150, 400};
+
+    private static final String LATEST_CALCULATION_SQL =
+        "SELECT age, resting_hr FROM calculations ORDER BY calculation_date DESC, id DESC LIMIT 1";
+
+    private final ZoneTracker tracker = new ZoneTracker();
+    private final ZoneAlertPolicy alerts =
+        new ZoneAlertPolicy(HYSTERESIS_BPM, DEBOUNCE_MS, ALERT_COOLDOWN_MS);
+    private final HeartRateSource.Sink consumer = this::consume;
+    private final int[] zones = new int[ZoneCalculator.ZONE_COUNT * 2];
+    private final Runnable tick = this::tick;
+
+    private NotificationDispatcher dispatcher;
+    private NotificationCompat.Builder notification;
+    private HandlerThread thread;
+    private Handler handler;
+    private AlarmManager alarmManager;
+    private AlarmManager.OnAlarmListener alarm;
+
+    // Доступны только из потока PulseWorkout
+    private ReplayHeartRateSource source;
+    private long startedAt;
+    private long tickIntervalMs;
+    private int targetZone;
+    private int pendingEvent = ZoneAlertPolicy.EVENT_NONE;
+    private long lastNotifiedAt;
+    private String lastText;
+
+    // Только с реальным источником пульса сервис можно показывать пользователям
+    public static boolean isAvailable() {
+        return BuildConfig.DEBUG;
+    }
+
+    public static void start(Context context, int targetZone, int model, int measuredMaxHR,
+                             long sampleIntervalMs, long tickIntervalMs) {
+        Intent intent = new Intent(context, WorkoutService.class)
+            .setAction(ACTION_START)
+            .putExtra(EXTRA_TARGET_ZONE, targetZone)
+            .putExtra(EXTRA_MODEL, model)
+            .putExtra(EXTRA_MEASURED_MAX_HR, measuredMaxHR)
+            .putExtra(EXTRA_SAMPLE_INTERVAL_MS, sampleIntervalMs)
+            .putExtra(EXTRA_TICK_INTERVAL_MS, tickIntervalMs);
+        if (!isAvailable()) {
+            throw new IllegalStateException("Фоновая тренировка недоступна без датчика пульса");
+        }
+        ContextCompat.startForegroundService(context, intent);
+    }
+
+    public static void stop(Context context) {
+        context.stopService(new Intent(context, WorkoutService.class));
+    }
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        dispatcher = NotificationDispatcher.getInstance(this);
+        dispatcher.ensureChannel();
+        thread = new HandlerThread("PulseWorkout");
+        thread.start();
+        handler = new Handler(thread.getLooper());
+        alarmManager = (AlarmManager) getSystemService(Context.ALARM_SERVICE);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            alarm = this::tick;
+        }
+    }
+
+    @Override
+    public int onStartCommand(Intent intent, int flags, int startId) {
+        if (intent == null || ACTION_STOP.equals(intent.getAction())) {
+            stopSelf();
+            return START_NOT_STICKY;
+        }
+
+        // startForeground — сразу, до чтения базы, иначе система остановит сервис
+        notification = dispatcher.newOngoingBuilder("Тренировка", "Определяем зону…");
+        startForeground(NOTIFICATION_ID, notification.build());
+
+        int zone = intent.getIntExtra(EXTRA_TARGET_ZONE, DEFAULT_TARGET_ZONE);
+        int model = intent.getIntExtra(EXTRA_MODEL, ZoneCalculator.MODEL_FOX);
+        int measured = intent.getIntExtra(EXTRA_MEASURED_MAX_HR, 0);
+        long sampleInterval = intent.getLongExtra(EXTRA_SAMPLE_INTERVAL_MS, DEFAULT_SAMPLE_INTERVAL_MS);
+        long tickInterval = Math.max(MIN_TICK_INTERVAL_MS,
+            intent.getLongExtra(EXTRA_TICK_INTERVAL_MS, DEFAULT_TICK_INTERVAL_MS));
+        handler.post(() -> begin(zone, model, measured, sampleInterval, tickInterval));
+        return START_NOT_STICKY;
+    }
+
+    @Override
+    public void onDestroy() {
+        handler.post(this::end);
+        thread.quitSafely();
+        super.onDestroy();
+    }
+
+    @Override
+    public IBinder onBind(Intent intent) {
+        return null;
+    }
+
+    private void begin(int zone, int model, int measured, long sampleInterval, long tickInterval) {
+        int[] latest;
+        try {
+            PulseDatabase database = PulseDatabase.getInstance(this);
+            latest = database.submit(() -> {
+                try (Cursor cursor = database.query(LATEST_CALCULATION_SQL, null)) {
+                    return cursor.moveToFirst() ? new int[]{cursor.getInt(0), cursor.getInt(1)} : null;
+                }
+            }).get();
+        } catch (Exception e) {
+            PulseLog.e(TAG, "begin: failed to load zones", e);
+            latest = null;
+        }
+        if (latest == null) {
+            PulseLog.w(TAG, "begin: no calculation to track zones against");
+            stopSelf();
+            return;
+        }
+
+        end();
+        targetZone = Math.max(0, Math.min(ZoneCalculator.ZONE_COUNT - 1, zone));
+        tickIntervalMs = tickInterval;
+        int maxHR = ZoneTable.fillZones(ZoneTable.get(this), model, latest[0], latest[1], measured, zones, 0);
+        tracker.reset();
+        tracker.setZones(zones);
+        alerts.configure(zones[targetZone * 2], zones[targetZone * 2 + 1]);
+        pendingEvent = ZoneAlertPolicy.EVENT_NONE;
+        lastText = null;
+        lastNotifiedAt = 0;
+
+        startedAt = SystemClock.elapsedRealtime();
+        source = new ReplayHeartRateSource(null, sampleInterval, latest[1], maxHR);
+        source.drainDue(startedAt, consumer);
+        scheduleTick();
+    }
+
+    // Следующее пробуждение. Будильник с обработчиком будит CPU и держит его только
+    // на время tick(); до API 24 — Handler, который во сне CPU откладывается,
+    // а пропущенные отсчеты приходят пачкой после пробуждения
+    private void scheduleTick() {
+        long at = SystemClock.elapsedRealtime() + tickIntervalMs;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N && alarm != null && alarmManager != null) {
+            try {
+                alarmManager.setExact(AlarmManager.ELAPSED_REALTIME_WAKEUP, at, TAG, alarm, handler);
+                return;
+            } catch (SecurityException e) {
+                PulseLog.w(TAG, "exact alarm denied, falling back to handler: {}", e.getMessage());
+            }
+        }
+        handler.postDelayed(tick, tickIntervalMs);
+    }
+
+    private void end() {
+        handler.removeCallbacksAndMessages(null);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N && alarm != null && alarmManager != null) {
+            alarmManager.cancel(alarm);
+        }
+        source = null;
+    }
+
+    private void consume(long timestampMillis, int bpm) {
+        tracker.accept(timestampMillis, bpm);
+        int event = alerts.onSample(timestampMillis, bpm);
+        if (event != ZoneAlertPolicy.EVENT_NONE) {
+            pendingEvent = event;
+        }
+    }
+
+    private void tick() {
+        if (source == null) {
+            return;
+        }
+        long now = SystemClock.elapsedRealtime();
+        if (source.drainDue(now, consumer) > 0) {
+            int event = pendingEvent;
+            pendingEvent = ZoneAlertPolicy.EVENT_NONE;
+            if (event == ZoneAlertPolicy.EVENT_BELOW_ZONE || event == ZoneAlertPolicy.EVENT_ABOVE_ZONE) {
+                vibrate();
+            }
+            updateNotification(event);
+        }
+        // Страховка на случай, если тренировку забыли остановить
+        if (now - startedAt >= MAX_WORKOUT_MS) {
+            stopSelf();
+            return;
+        }
+        scheduleTick();
+    }
+
+    // notify только при изменении текста и не чаще NOTIFY_INTERVAL_MS, кроме событий зоны
+    private void updateNotification(int event) {
+        long now = SystemClock.elapsedRealtime();
+        if (event == ZoneAlertPolicy.EVENT_NONE && now - lastNotifiedAt < NOTIFY_INTERVAL_MS) {
+            return;
+        }
+        String title = titleFor(alerts.state());
+        String text = textFor(tracker.lastBpm(), tracker.currentZone());
+        String key = title + text;
+        if (key.equals(lastText)) {
+            return;
+        }
+        lastText = key;
+        lastNotifiedAt = now;
+        notification.setContentTitle(title).setContentText(text);
+        dispatcher.getNotificationManager().notify(NOTIFICATION_ID, notification.build());
+    }
+
+    private String titleFor(int state) {
+        switch (state) {
+            case ZoneAlertPolicy.STATE_BELOW:
+                return "Ниже целевой зоны " + (targetZone + 1);
+            case ZoneAlertPolicy.STATE_ABOVE:
+                return "Выше целевой зоны " + (targetZone + 1);
+            case ZoneAlertPolicy.STATE_IN_ZONE:
+                return "В целевой зоне " + (targetZone + 1);
+            default:
+                return "Тренировка";
+        }
+    }
+
+    private String textFor(int bpm, int zone) {
+        long seconds = tracker.timeInZoneMs(targetZone) / 1000;
+        String inZone = String.format("%d:%02d", seconds / 60, seconds % 60);
+        String current = zone == ZoneTracker.BELOW_ZONES ? "ниже зон" : "зона " + (zone + 1);
+        return bpm + " уд/мин, " + current + " · в цели " + inZone;
+    }
+
+    private void vibrate() {
+        Vibrator vibrator = (Vibrator) getSystemService(Context.VIBRATOR_SERVICE);
+        if (vibrator == null || !vibrator.hasVibrator()) {
+            return;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            vibrator.vibrate(VibrationEffect.createWaveform(ALERT_PATTERN, -1));
+        } else {
+            vibrator.vibrate(ALERT_PATTERN, -1);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.medarithmi;
+
+import android.database.Cursor;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Нативный модуль тренировок: записанные сессии (список из SQLite, отсчеты из файлов)
+// и фоновая тренировка через WorkoutService
+public class WorkoutSessionModule extends ReactContextBaseJavaModule {
+    public static final String NAME = "WorkoutSessionModule";
+    private static final StripedCounter CALLS = PulseMetrics.counter(PulseMetrics.BRIDGE_CALLS_PREFIX + NAME);
+
+    private final ReactApplicationContext reactContext;
+    private final PulseDatabase database;
+    private final SessionStore store;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "PulseSessions");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+
+    public WorkoutSessionModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+        this.reactContext = reactContext;
+        this.database = PulseDatabase.getInstance(reactContext);
+        this.store = SessionStore.getInstance(reactContext);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Map<String, Object> getConstants() {
+        Map<String, Object> constants = new HashMap<>();
+        constants.put("workoutServiceAvailable", WorkoutService.isAvailable());
+        return constants;
+    }
+
+    // Метаданные последних сессий колонками, как в StorageModule.queryHistoryPage
+    @ReactMethod
+    public void listSessions(int limit, Promise promise) {
+        CALLS.increment();
+        database.execute(() -> {
+            try (Cursor cursor = database.query("SELECT " + SessionStore.COLUMNS
+                + " FROM workout_sessions ORDER BY started_at DESC, id DESC LIMIT ?",
+                new Object[]{limit})) {
+                String[] names = cursor.getColumnNames();
+                WritableArray[] columns = new WritableArray[names.length];
+                for (int i = 0; i < names.length; i++) {
+                    columns[i] = Arguments.createArray();
+                }
+                while (cursor.moveToNext()) {
+                    for (int i = 0; i < names.length; i++) {
+                        columns[i].pushDouble(cursor.getLong(i));
+                    }
+                }
+                WritableMap result = Arguments.createMap();
+                for (int i = 0; i < names.length; i++) {
+                    result.putArray(names[i], columns[i]);
+                }
+                promise.resolve(result);
+            } catch (Exception e) {
+                promise.reject("SESSION_LIST_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    // Отсчеты сессии; maxPoints > 0 прореживает ряд для графика (каждый n-й и последний)
+    @ReactMethod
+    public void loadSession(double id, int maxPoints, Promise promise) {
+        CALLS.increment();
+        executor.execute(() -> {
+            try {
+                SessionStore.Session session = store.load((long) id);
+                if (session == null) {
+                    promise.reject("SESSION_NOT_FOUND", "Тренировка не найдена: " + (long) id);
+                    return;
+                }
+                int count = session.sampleCount;
+                int stride = maxPoints > 0 && count > maxPoints ? (count + maxPoints - 1) / maxPoints : 1;
+                WritableArray offsets = Arguments.createArray();
+                WritableArray bpms = Arguments.createArray();
+                for (int i = 0; i < count; i += stride) {
+                    offsets.pushDouble(session.offsetsMs[i]);
+                    bpms.pushInt(session.bpms[i]);
+                }
+                if (count > 0 && (count - 1) % stride != 0) {
+                    offsets.pushDouble(session.offsetsMs[count - 1]);
+                    bpms.pushInt(session.bpms[count - 1]);
+                }
+
+                WritableMap result = Arguments.createMap();
+                result.putDouble("startedAt", session.startedAt);
+                result.putDouble("durationMs", session.durationMs);
+                result.putInt("sampleCount", count);
+                result.putArray("offsetsMs", offsets);
+                result.putArray("bpm", bpms);
+                promise.resolve(result);
+            } catch (Exception e) {
+                promise.reject("SESSION_LOAD_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    @ReactMethod
+    public void deleteSession(double id, Promise promise) {
+        CALLS.increment();
+        executor.execute(() -> {
+            try {
+                promise.resolve(store.delete((long) id));
+            } catch (Exception e) {
+                promise.reject("SESSION_DELETE_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Тренировка в фоне через WorkoutService: options {targetZone?: number (0-4),
+     * model?, measuredMaxHR?, sampleIntervalMs?, tickIntervalMs?}. Без датчика
+     * пульса доступна только в debug-сборке (константа workoutServiceAvailable)
+     */
+    @ReactMethod
+    public void startWorkoutService(ReadableMap options, Promise promise) {
+        CALLS.increment();
+        if (!WorkoutService.isAvailable()) {
+            promise.reject("WORKOUT_SERVICE_UNAVAILABLE", "Фоновая тренировка недоступна без датчика пульса");
+            return;
+        }
+        try {
+            WorkoutService.start(
+                reactContext,
+                (int) doubleOption(options, "targetZone", 2),
+                (int) doubleOption(options, "model", ZoneCalculator.MODEL_FOX),
+                (int) doubleOption(options, "measuredMaxHR", 0),
+                (long) doubleOption(options, "sampleIntervalMs", 1000),
+                (long) doubleOption(options, "tickIntervalMs", 5000)
+            );
+            promise.resolve(null);
+        } catch (Exception e) {
+            promise.reject("WORKOUT_SERVICE_ERROR", e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void stopWorkoutService(Promise promise) {
+        CALLS.increment();
+        WorkoutService.stop(reactContext);
+        promise.resolve(null);
+    }
+
+    @Override
+    public void invalidate() {
+        executor.shutdown();
+        super.invalidate();
+    }
+
+    private static double doubleOption(ReadableMap options, String key, double fallback) {
+        return options != null && options.hasKey(key) && !options.isNull(key)
+            ? options.getDouble(key)
+            : fallback;
+    }
+}
@@ -0,0 +1,93 @@
+package com.medarithmi;
+
+/**
+ * Решение о сигнале выхода из целевой зоны. Без зависимостей от Android.
+ *
+ * Гистерезис: выход считается по границам, расширенным на hysteresisBpm, а возврат —
+ * по точным границам зоны. Новое состояние принимается, только если держится
+ * debounceMs, а вибросигналы выхода не чаще одного за cooldownMs.
+ * Пока пульс ни разу не был в зоне (разминка), сигналов нет.
+ */
+public final class ZoneAlertPolicy {
+    public static final int EVENT_NONE = 0;
+    public static final int EVENT_BELOW_ZONE = 1;
+    public static final int EVENT_ABOVE_ZONE = 2;
+    public static final int EVENT_BACK_IN_ZONE = 3;
+
+    static final int STATE_UNKNOWN = -1;
+    static final int STATE_IN_ZONE = 0;
+    static final int STATE_BELOW = 1;
+    static final int STATE_ABOVE = 2;
+
+    private final int hysteresisBpm;
+    private final long debounceMs;
+    private final long cooldownMs;
+
+    private int low;
+    private int high;
+    private int state = STATE_UNKNOWN;
+    private int candidate = STATE_UNKNOWN;
+    private long candidateSince;
+    private long lastAlertAt = Long.MIN_VALUE / 2;
+    private boolean wasInZone;
+
+    public ZoneAlertPolicy(int hysteresisBpm, long debounceMs, long cooldownMs) {
+        this.hysteresisBpm = hysteresisBpm;
+        this.debounceMs = debounceMs;
+        this.cooldownMs = cooldownMs;
+    }
+
+    // Границы целевой зоны в ударах в минуту; сбрасывает состояние
+    public void configure(int lowBpm, int highBpm) {
+        this.low = lowBpm;
+        this.high = highBpm;
+        state = STATE_UNKNOWN;
+        candidate = STATE_UNKNOWN;
+        wasInZone = false;
+        lastAlertAt = Long.MIN_VALUE / 2;
+    }
+
+    public int state() {
+        return state;
+    }
+
+    public int onSample(long timestampMillis, int bpm) {
+        int observed = observe(bpm);
+        if (observed == state) {
+            candidate = STATE_UNKNOWN;
+            return EVENT_NONE;
+        }
+        if (observed != candidate) {
+            candidate = observed;
+            candidateSince = timestampMillis;
+            return EVENT_NONE;
+        }
+        if (timestampMillis - candidateSince < debounceMs) {
+            return EVENT_NONE;
+        }
+
+        state = observed;
+        candidate = STATE_UNKNOWN;
+        if (state == STATE_IN_ZONE) {
+            boolean returned = wasInZone;
+            wasInZone = true;
+            return returned ? EVENT_BACK_IN_ZONE : EVENT_NONE;
+        }
+        if (!wasInZone || timestampMillis - lastAlertAt < cooldownMs) {
+            return EVENT_NONE;
+        }
+        lastAlertAt = timestampMillis;
+        return state == STATE_BELOW ? EVENT_BELOW_ZONE : EVENT_ABOVE_ZONE;
+    }
+
+    private int observe(int bpm) {
+        int margin = state == STATE_IN_ZONE ? hysteresisBpm : 0;
+        if (bpm < low - margin) {
+            return STATE_BELOW;
+        }
+        if (bpm > high + margin) {
+            return STATE_ABOVE;
+        }
+        return STATE_IN_ZONE;
+    }
+}
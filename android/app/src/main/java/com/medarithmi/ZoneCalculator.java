@@ -0,0 +1,86 @@
+package com.medarithmi;
+
+// Расчет пульсовых зон по формуле Карвонена без зависимостей от Android.
+// Вся арифметика целочисленная, чтобы результаты совпадали с JS до единицы.
+public final class ZoneCalculator {
+    // Модели расчета максимального пульса
+    public static final int MODEL_FOX = 0;       // 220 - возраст
+    public static final int MODEL_TANAKA = 1;    // 208 - 0.7 * возраст
+    public static final int MODEL_GELLISH = 2;   // 207 - 0.7 * возраст
+    public static final int MODEL_MEASURED = 3;  // измеренный пользователем максимум
+    public static final int MODEL_COUNT = 4;
+
+    public static final int ZONE_COUNT = 5;
+
+    // Границы зон в % от пульсового резерва (порядок как в zonePercentages)
+    static final int[] ZONE_MIN_PERCENT = {50, 60, 70, 80, 90};
+    static final int[] ZONE_MAX_PERCENT = {60, 70, 80, 90, 100};
+
+    private ZoneCalculator() {
+    }
+
+    // Максимальный пульс для модели; 0, если модель неприменима
+    public static int maxHeartRate(int model, int age, int measuredMaxHR) {
+        switch (model) {
+            case MODEL_FOX:
+                return 220 - age;
+            case MODEL_TANAKA:
+                return roundTenths(2080 - 7 * age);
+            case MODEL_GELLISH:
+                return roundTenths(2070 - 7 * age);
+            case MODEL_MEASURED:
+                return measuredMaxHR > 0 ? measuredMaxHR : 0;
+            default:
+                return 0;
+        }
+    }
+
+    // Граница зоны: пульс покоя + резерв * процент / 100 с округлением как Math.round
+    public static int zoneBound(int restingHR, int heartRateReserve, int percent) {
+        return restingHR + Math.floorDiv(heartRateReserve * percent + 50, 100);
+    }
+
+    /**
+     * Заполняет out границами всех пяти зон: [min0, max0, min1, max1, ...].
+     * Возвращает пульсовой резерв; при неприменимой модели границы равны 0.
+     */
+    public static int fillZones(int maxHR, int restingHR, int[] out, int offset) {
+        if (maxHR <= 0) {
+            for (int i = 0; i < ZONE_COUNT * 2; i++) {
+                out[offset + i] = 0;
+            }
+            return 0;
+        }
+        int reserve = maxHR - restingHR;
+        for (int zone = 0; zone < ZONE_COUNT; zone++) {
+            out[offset + zone * 2] = zoneBound(restingHR, reserve, ZONE_MIN_PERCENT[zone]);
+            out[offset + zone * 2 + 1] = zoneBound(restingHR, reserve, ZONE_MAX_PERCENT[zone]);
+        }
+        return reserve;
+    }
+
+    /**
+     * Пакетный расчет для нескольких спортсменов и моделей.
+     * maxHROut: [athlete * models.length + m], zonesOut: тот же индекс * ZONE_COUNT * 2.
+     */
+    public static void computeBatch(int[] ages, int[] restingHRs, int[] measuredMaxHRs,
+                                    int[] models, int[] maxHROut, int[] zonesOut) {
+        int modelCount = models.length;
+        for (int athlete = 0; athlete < ages.length; athlete++) {
+            int measured = measuredMaxHRs != null && athlete < measuredMaxHRs.length
+                ? measuredMaxHRs[athlete]
+                : 0;
+            for (int m = 0; m < modelCount; m++) {
+                int slot = athlete * modelCount + m;
+                int maxHR = maxHeartRate(models[m], ages[athlete], measured);
+                maxHROut[slot] = maxHR;
+                fillZones(maxHR, restingHRs[athlete], zonesOut, slot * ZONE_COUNT * 2);
+            }
+        }
+    }
+
+    // Округление значения в десятых долях до целого (половина вверх)
+    private static int roundTenths(int tenths) {
+        return Math.floorDiv(tenths + 5, 10);
+    }
+}
@@ -0,0 +1,93 @@
+package com.medarithmi;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Нативный модуль пакетного расчета пульсовых зон по нескольким моделям МЧСС
+public class ZoneEngineModule extends ReactContextBaseJavaModule {
+    public static final String NAME = "ZoneEngineModule";
+    private static final StripedCounter CALLS = PulseMetrics.counter(PulseMetrics.BRIDGE_CALLS_PREFIX + NAME);
+
+    public ZoneEngineModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Map<String, Object> getConstants() {
+        Map<String, Object> constants = new HashMap<>();
+        constants.put("MODEL_FOX", ZoneCalculator.MODEL_FOX);
+        constants.put("MODEL_TANAKA", ZoneCalculator.MODEL_TANAKA);
+        constants.put("MODEL_GELLISH", ZoneCalculator.MODEL_GELLISH);
+        constants.put("MODEL_MEASURED", ZoneCalculator.MODEL_MEASURED);
+        constants.put("ZONE_COUNT", ZoneCalculator.ZONE_COUNT);
+        return constants;
+    }
+
+    /**
+     * Один вызов на всех спортсменов: возвращает плоские массивы
+     * maxHR[athlete * models + m] и zones[(athlete * models + m) * 10 + zone * 2 (+1)].
+     */
+    @ReactMethod
+    public void computeZones(ReadableArray ages, ReadableArray restingHRs,
+                             ReadableArray measuredMaxHRs, ReadableArray models,
+                             Promise promise) {
+        CALLS.increment();
+        try {
+            int athleteCount = ages.size();
+            if (restingHRs.size() != athleteCount) {
+                promise.reject("INVALID_INPUT", "Размеры массивов возраста и пульса покоя не совпадают");
+                return;
+            }
+
+            int[] agesArr = toIntArray(ages);
+            int[] restingArr = toIntArray(restingHRs);
+            int[] measuredArr = measuredMaxHRs != null ? toIntArray(measuredMaxHRs) : null;
+            int[] modelsArr = toIntArray(models);
+
+            int slots = athleteCount * modelsArr.length;
+            int[] maxHR = new int[slots];
+            int[] zones = new int[slots * ZoneCalculator.ZONE_COUNT * 2];
+            ZoneTable.computeBatch(ZoneTable.get(getReactApplicationContext()),
+                agesArr, restingArr, measuredArr, modelsArr, maxHR, zones);
+
+            WritableMap result = Arguments.createMap();
+            result.putInt("athleteCount", athleteCount);
+            result.putInt("modelCount", modelsArr.length);
+            result.putArray("maxHR", fromIntArray(maxHR));
+            result.putArray("zones", fromIntArray(zones));
+            promise.resolve(result);
+        } catch (Exception e) {
+            promise.reject("ZONE_ENGINE_ERROR", e.getMessage());
+        }
+    }
+
+    private static int[] toIntArray(ReadableArray array) {
+        int[] out = new int[array.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = array.isNull(i) ? 0 : array.getInt(i);
+        }
+        return out;
+    }
+
+    private static WritableArray fromIntArray(int[] values) {
+        WritableArray array = Arguments.createArray();
+        for (int value : values) {
+            array.pushInt(value);
+        }
+        return array;
+    }
+}
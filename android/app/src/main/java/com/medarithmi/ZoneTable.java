@@ -0,0 +1,140 @@
+package com.medarithmi;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Таблица границ зон, сгенерированная при сборке (задача generateZoneTable в
+ * app/build.gradle) для всей допустимой области ввода. Файл assets/zone_table.bin
+ * хранится без сжатия и отображается в память; границы читаются по одному индексу.
+ *
+ * Заголовок (HEADER_SIZE байт, big-endian): magic "PZON", version, modelCount,
+ * zoneCount, reserved, ageMin, ageMax, restMin, restMax (short).
+ * Далее по [model][age][rest][zone] пары {min, max} беззнаковыми байтами.
+ */
+public final class ZoneTable {
+    private static final String TAG = "ZoneTable";
+    static final String ASSET_NAME = "zone_table.bin";
+    static final int MAGIC = 0x505A4F4E;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    private static volatile ZoneTable instance;
+    private static volatile boolean unavailable;
+
+    private final ByteBuffer table;
+    private final int modelCount;
+    private final int ageMin;
+    private final int ageMax;
+    private final int restMin;
+    private final int restMax;
+    private final int restCount;
+    private final int ageCount;
+
+    ZoneTable(ByteBuffer table) throws IOException {
+        if (table.limit() < HEADER_SIZE || table.getInt(0) != MAGIC || table.get(4) != VERSION) {
+            throw new IOException("Некорректная таблица зон");
+        }
+        if (table.get(6) != ZoneCalculator.ZONE_COUNT) {
+            throw new IOException("Таблица зон для другого числа зон: " + table.get(6));
+        }
+        this.table = table;
+        this.modelCount = table.get(5);
+        this.ageMin = table.getShort(8);
+        this.ageMax = table.getShort(10);
+        this.restMin = table.getShort(12);
+        this.restMax = table.getShort(14);
+        this.ageCount = ageMax - ageMin + 1;
+        this.restCount = restMax - restMin + 1;
+        long expected = HEADER_SIZE + (long) modelCount * ageCount * restCount * ZoneCalculator.ZONE_COUNT * 2;
+        if (table.limit() < expected) {
+            throw new IOException("Таблица зон обрезана");
+        }
+    }
+
+    // Отображенная таблица или null, если ассет недоступен (тогда считаем напрямую)
+    public static ZoneTable get(Context context) {
+        if (instance == null && !unavailable) {
+            synchronized (ZoneTable.class) {
+                if (instance == null && !unavailable) {
+                    try {
+                        instance = new ZoneTable(map(context));
+                    } catch (IOException e) {
+                        PulseLog.w(TAG, "zone table unavailable: {}", e.getMessage());
+                        unavailable = true;
+                    }
+                }
+            }
+        }
+        return instance;
+    }
+
+    private static ByteBuffer map(Context context) throws IOException {
+        try (AssetFileDescriptor descriptor = context.getAssets().openFd(ASSET_NAME);
+             FileInputStream input = descriptor.createInputStream();
+             FileChannel channel = input.getChannel()) {
+            return channel.map(FileChannel.MapMode.READ_ONLY,
+                descriptor.getStartOffset(), descriptor.getDeclaredLength());
+        }
+    }
+
+    // Покрывает ли таблица эти входные данные (измеренный МЧСС не табулируется)
+    public boolean covers(int model, int age, int restingHR) {
+        return model >= 0 && model < modelCount
+            && age >= ageMin && age <= ageMax
+            && restingHR >= restMin && restingHR <= restMax;
+    }
+
+    // Смещение пары {min, max} зоны; вызывать только при covers()
+    private int offsetOf(int model, int age, int restingHR, int zone) {
+        int row = (model * ageCount + (age - ageMin)) * restCount + (restingHR - restMin);
+        return HEADER_SIZE + (row * ZoneCalculator.ZONE_COUNT + zone) * 2;
+    }
+
+    public int zoneMin(int model, int age, int restingHR, int zone) {
+        return table.get(offsetOf(model, age, restingHR, zone)) & 0xFF;
+    }
+
+    public int zoneMax(int model, int age, int restingHR, int zone) {
+        return table.get(offsetOf(model, age, restingHR, zone) + 1) & 0xFF;
+    }
+
+    /**
+     * Заполняет out границами пяти зон в формате ZoneCalculator.fillZones и
+     * возвращает МЧСС. Вне таблицы (или без нее) считает через ZoneCalculator.
+     */
+    public static int fillZones(ZoneTable table, int model, int age, int restingHR,
+                                int measuredMaxHR, int[] out, int offset) {
+        int maxHR = ZoneCalculator.maxHeartRate(model, age, measuredMaxHR);
+        if (table != null && table.covers(model, age, restingHR)) {
+            int position = table.offsetOf(model, age, restingHR, 0);
+            for (int i = 0; i < ZoneCalculator.ZONE_COUNT * 2; i++) {
+                out[offset + i] = table.table.get(position + i) & 0xFF;
+            }
+        } else {
+            ZoneCalculator.fillZones(maxHR, restingHR, out, offset);
+        }
+        return maxHR;
+    }
+
+    // Аналог ZoneCalculator.computeBatch с чтением из таблицы
+    public static void computeBatch(ZoneTable table, int[] ages, int[] restingHRs, int[] measuredMaxHRs,
+                                    int[] models, int[] maxHROut, int[] zonesOut) {
+        int modelCount = models.length;
+        for (int athlete = 0; athlete < ages.length; athlete++) {
+            int measured = measuredMaxHRs != null && athlete < measuredMaxHRs.length
+                ? measuredMaxHRs[athlete]
+                : 0;
+            for (int m = 0; m < modelCount; m++) {
+                int slot = athlete * modelCount + m;
+                maxHROut[slot] = fillZones(table, models[m], ages[athlete], restingHRs[athlete],
+                    measured, zonesOut, slot * ZoneCalculator.ZONE_COUNT * 2);
+            }
+        }
+    }
+}
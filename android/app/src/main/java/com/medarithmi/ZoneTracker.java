@@ -0,0 +1,87 @@
+package com.medarithmi;
+
+// Инкрементальная классификация отсчетов пульса по зонам и накопление времени в зонах.
+// Без зависимостей от Android и без выделения памяти на отсчет
+public final class ZoneTracker implements HeartRateRingBuffer.Consumer {
+    public static final int BELOW_ZONES = -1;
+
+    // Разрыв между отсчетами больше этого (пауза датчика) не засчитывается целиком
+    static final long MAX_GAP_MS = 5000;
+
+    private final int[] bounds = new int[ZoneCalculator.ZONE_COUNT * 2];
+    private final long[] timeInZoneMs = new long[ZoneCalculator.ZONE_COUNT];
+    private long belowZonesMs;
+
+    private long lastTimestamp = -1;
+    private int lastBpm;
+    private int currentZone = BELOW_ZONES;
+    private long sampleCount;
+
+    // Границы в формате ZoneCalculator.fillZones: [min0, max0, min1, max1, ...]
+    public void setZones(int[] zoneBounds) {
+        System.arraycopy(zoneBounds, 0, bounds, 0, bounds.length);
+        currentZone = lastTimestamp >= 0 ? classify(lastBpm) : BELOW_ZONES;
+    }
+
+    // Старшая зона, нижняя граница которой не выше bpm; выше последней зоны — последняя
+    public int classify(int bpm) {
+        for (int zone = ZoneCalculator.ZONE_COUNT - 1; zone >= 0; zone--) {
+            if (bpm >= bounds[zone * 2]) {
+                return zone;
+            }
+        }
+        return BELOW_ZONES;
+    }
+
+    // Интервал до нового отсчета засчитывается зоне предыдущего
+    @Override
+    public void accept(long timestampMillis, int bpm) {
+        if (lastTimestamp >= 0) {
+            long delta = Math.min(Math.max(0, timestampMillis - lastTimestamp), MAX_GAP_MS);
+            if (currentZone == BELOW_ZONES) {
+                belowZonesMs += delta;
+            } else {
+                timeInZoneMs[currentZone] += delta;
+            }
+        }
+        lastTimestamp = timestampMillis;
+        lastBpm = bpm;
+        currentZone = classify(bpm);
+        sampleCount++;
+    }
+
+    public void reset() {
+        for (int i = 0; i < timeInZoneMs.length; i++) {
+            timeInZoneMs[i] = 0;
+        }
+        belowZonesMs = 0;
+        lastTimestamp = -1;
+        lastBpm = 0;
+        currentZone = BELOW_ZONES;
+        sampleCount = 0;
+    }
+
+    public int currentZone() {
+        return currentZone;
+    }
+
+    public int lastBpm() {
+        return lastBpm;
+    }
+
+    public long lastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public long sampleCount() {
+        return sampleCount;
+    }
+
+    public long timeInZoneMs(int zone) {
+        return timeInZoneMs[zone];
+    }
+
+    public long belowZonesMs() {
+        return belowZonesMs;
+    }
+}
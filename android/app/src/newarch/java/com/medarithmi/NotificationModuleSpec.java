@@ -0,0 +1,10 @@
+package com.medarithmi;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+
+// Новая архитектура: базовый класс из codegen (src/specs/NativeNotificationModule.ts)
+abstract class NotificationModuleSpec extends NativeNotificationModuleSpec {
+    NotificationModuleSpec(ReactApplicationContext context) {
+        super(context);
+    }
+}
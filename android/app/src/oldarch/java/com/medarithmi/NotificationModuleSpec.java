@@ -0,0 +1,23 @@
+package com.medarithmi;
+
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReadableArray;
+
+// Старая архитектура (newArchEnabled=false): те же методы, что в спецификации codegen
+abstract class NotificationModuleSpec extends ReactContextBaseJavaModule {
+    NotificationModuleSpec(ReactApplicationContext context) {
+        super(context);
+    }
+
+    public abstract void showNotification(String title, String message, Promise promise);
+
+    public abstract void scheduleDailyNotification(String title, String message, int hour, int minute, Promise promise);
+
+    public abstract void setReminders(ReadableArray reminders, Promise promise);
+
+    public abstract void getReminders(Promise promise);
+
+    public abstract void cancelScheduledNotification(Promise promise);
+}
@@ -0,0 +1,111 @@
+package com.medarithmi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class AnalyticsBufferTest {
+    private static AnalyticsEvent event(String name) {
+        return new AnalyticsEvent(name, null, false, 0);
+    }
+
+    private static AnalyticsEvent screen(String name) {
+        return new AnalyticsEvent(name, null, true, 0);
+    }
+
+    private static List<String> names(List<AnalyticsEvent> events) {
+        List<String> names = new ArrayList<>();
+        for (AnalyticsEvent event : events) {
+            names.add(event.name);
+        }
+        return names;
+    }
+
+    @Test
+    public void skipsRepeatedScreenViewOnly() {
+        AnalyticsBuffer buffer = new AnalyticsBuffer(10, 10);
+
+        buffer.add(screen("Main"));
+        buffer.add(screen("Main"));
+        buffer.add(event("tap"));
+        buffer.add(event("tap"));
+        buffer.add(screen("History"));
+        buffer.add(screen("Main"));
+
+        assertEquals(Arrays.asList("Main", "tap", "tap", "History", "Main"), names(buffer.nextBatch()));
+    }
+
+    @Test
+    public void clearForgetsLastScreen() {
+        AnalyticsBuffer buffer = new AnalyticsBuffer(10, 10);
+        buffer.add(screen("Main"));
+
+        buffer.clear();
+        buffer.add(screen("Main"));
+
+        assertEquals(1, buffer.size());
+    }
+
+    @Test
+    public void dropsOldestWhenFull() {
+        AnalyticsBuffer buffer = new AnalyticsBuffer(3, 10);
+
+        for (int i = 0; i < 5; i++) {
+            buffer.add(event("e" + i));
+        }
+
+        assertEquals(3, buffer.size());
+        assertEquals(2, buffer.droppedCount());
+        assertEquals(Arrays.asList("e2", "e3", "e4"), names(buffer.nextBatch()));
+    }
+
+    @Test
+    public void reportsFullBatchAndSplitsByBatchSize() {
+        AnalyticsBuffer buffer = new AnalyticsBuffer(10, 2);
+
+        assertFalse(buffer.add(event("a")));
+        assertTrue(buffer.add(event("b")));
+        buffer.add(event("c"));
+
+        assertEquals(Arrays.asList("a", "b"), names(buffer.nextBatch()));
+        assertEquals(Arrays.asList("c"), names(buffer.nextBatch()));
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void requeueRestoresOrderAtTheFront() {
+        AnalyticsBuffer buffer = new AnalyticsBuffer(10, 2);
+        buffer.add(event("a"));
+        buffer.add(event("b"));
+        buffer.add(event("c"));
+
+        List<AnalyticsEvent> batch = buffer.nextBatch();
+        buffer.requeue(batch);
+
+        assertEquals(Arrays.asList("a", "b"), names(buffer.nextBatch()));
+        assertEquals(Arrays.asList("c"), names(buffer.nextBatch()));
+    }
+
+    @Test
+    public void requeueStaysWithinCapacity() {
+        AnalyticsBuffer buffer = new AnalyticsBuffer(3, 2);
+        buffer.add(event("a"));
+        buffer.add(event("b"));
+        List<AnalyticsEvent> batch = buffer.nextBatch();
+        buffer.add(event("c"));
+        buffer.add(event("d"));
+
+        buffer.requeue(batch);
+
+        // Места хватило только на последнее событие пачки
+        assertEquals(3, buffer.size());
+        assertEquals(1, buffer.droppedCount());
+        assertEquals(Arrays.asList("b", "c"), names(buffer.nextBatch()));
+    }
+}
@@ -0,0 +1,173 @@
+package com.medarithmi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class AnalyticsPipelineTest {
+    // Получатель-заглушка: запоминает пачки, может отказать заданное число раз
+    private static final class RecordingSink implements AnalyticsSink {
+        final List<List<String>> batches = new ArrayList<>();
+        int failures;
+        Boolean collectionEnabled;
+
+        @Override
+        public void deliver(List<AnalyticsEvent> batch) throws Exception {
+            if (failures > 0) {
+                failures--;
+                throw new Exception("offline");
+            }
+            List<String> names = new ArrayList<>();
+            for (AnalyticsEvent event : batch) {
+                names.add(event.name);
+            }
+            batches.add(names);
+        }
+
+        @Override
+        public void setCollectionEnabled(boolean enabled) {
+            collectionEnabled = enabled;
+        }
+
+        int delivered() {
+            int total = 0;
+            for (List<String> batch : batches) {
+                total += batch.size();
+            }
+            return total;
+        }
+    }
+
+    private ScheduledExecutorService executor;
+    private RecordingSink sink;
+    private volatile boolean allowed;
+    private AnalyticsPipeline pipeline;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        sink = new RecordingSink();
+        allowed = true;
+        pipeline = new AnalyticsPipeline(() -> allowed, sink, executor);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // Дождаться выполнения всех задач, поставленных в поток конвейера
+    private void awaitIdle() throws Exception {
+        executor.submit(() -> {
+        }).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void deliversFullBatchWithoutWaitingForTimer() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            pipeline.logEvent("e" + i, null);
+        }
+        awaitIdle();
+
+        assertEquals(1, sink.batches.size());
+        assertEquals(20, sink.batches.get(0).size());
+        assertEquals("e0", sink.batches.get(0).get(0));
+    }
+
+    @Test
+    public void holdsPartialBatchUntilFlush() throws Exception {
+        pipeline.logEvent("a", Collections.singletonMap("k", 1));
+        pipeline.logScreenView("Main");
+        pipeline.logScreenView("Main");
+        awaitIdle();
+        assertTrue(sink.batches.isEmpty());
+
+        pipeline.flushAsync();
+        awaitIdle();
+
+        assertEquals(1, sink.batches.size());
+        assertEquals(2, sink.delivered());
+    }
+
+    @Test
+    public void failedDeliveryIsRequeuedInOrder() throws Exception {
+        sink.failures = 1;
+        pipeline.logEvent("a", null);
+        pipeline.logEvent("b", null);
+        pipeline.flushAsync();
+        awaitIdle();
+        assertTrue(sink.batches.isEmpty());
+
+        pipeline.logEvent("c", null);
+        pipeline.flushAsync();
+        awaitIdle();
+
+        assertEquals(1, sink.batches.size());
+        assertEquals("a", sink.batches.get(0).get(0));
+        assertEquals("b", sink.batches.get(0).get(1));
+        assertEquals("c", sink.batches.get(0).get(2));
+    }
+
+    @Test
+    public void dropsEventsWithoutConsent() throws Exception {
+        pipeline.logEvent("before", null);
+        awaitIdle();
+        allowed = false;
+        pipeline.logEvent("denied", null);
+        pipeline.flushAsync();
+        awaitIdle();
+        allowed = true;
+        pipeline.flushAsync();
+        awaitIdle();
+
+        assertEquals(0, sink.delivered());
+    }
+
+    @Test
+    public void disablingCollectionDiscardsBufferedEvents() throws Exception {
+        pipeline.logEvent("a", null);
+        pipeline.setCollectionEnabled(false);
+        pipeline.flushAsync();
+        awaitIdle();
+
+        assertFalse(sink.collectionEnabled);
+        assertEquals(0, sink.delivered());
+    }
+
+    @Test
+    public void keepsEventTimeFromLogCall() throws Exception {
+        List<Long> times = new ArrayList<>();
+        pipeline.setSink(new AnalyticsSink() {
+            @Override
+            public void deliver(List<AnalyticsEvent> batch) {
+                for (AnalyticsEvent event : batch) {
+                    times.add(event.timestampMillis);
+                }
+            }
+
+            @Override
+            public void setCollectionEnabled(boolean enabled) {
+            }
+        });
+        long before = System.currentTimeMillis();
+        pipeline.logEvent("a", null);
+        long after = System.currentTimeMillis();
+        awaitIdle();
+        pipeline.flushAsync();
+        awaitIdle();
+
+        assertEquals(1, times.size());
+        assertTrue(times.get(0) >= before && times.get(0) <= after);
+    }
+}
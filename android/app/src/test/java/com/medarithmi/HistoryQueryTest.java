@@ -0,0 +1,50 @@
+package com.medarithmi;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HistoryQueryTest {
+    @Test
+    public void cursorBoundsDateSeparatelyForIndexRange() {
+        HistoryQuery query = new HistoryQuery();
+        query.cursorDate = "2024-01-02 10:00:00";
+        query.cursorId = 42L;
+
+        String sql = query.pageSql(20);
+
+        // Без отдельного "calculation_date <= ?" SQLite сканирует индекс от самых новых строк
+        assertTrue(sql, sql.contains(" WHERE calculation_date <= ? AND (calculation_date < ? OR id < ?)"));
+        assertArrayEquals(new Object[]{"2024-01-02 10:00:00", "2024-01-02 10:00:00", 42L, 20}, query.args());
+    }
+
+    @Test
+    public void filtersComeBeforeCursor() {
+        HistoryQuery query = new HistoryQuery();
+        query.zoneName = "Аэробная";
+        query.fromDate = "2024-01-01 00:00:00";
+        query.cursorDate = "2024-01-02 10:00:00";
+        query.cursorId = 7L;
+
+        String sql = query.pageSql(10);
+
+        assertEquals("SELECT " + HistoryQuery.COLUMNS + " FROM calculations"
+                + " WHERE zone_name = ? AND calculation_date >= ? AND " + HistoryQuery.CURSOR_PREDICATE
+                + " ORDER BY calculation_date DESC, id DESC LIMIT ?",
+            sql);
+        assertArrayEquals(new Object[]{"Аэробная", "2024-01-01 00:00:00",
+            "2024-01-02 10:00:00", "2024-01-02 10:00:00", 7L, 10}, query.args());
+    }
+
+    @Test
+    public void countIgnoresCursor() {
+        HistoryQuery query = new HistoryQuery();
+        query.cursorDate = "2024-01-02 10:00:00";
+        query.cursorId = 7L;
+
+        assertEquals("SELECT COUNT(*) FROM calculations", query.countSql());
+        assertEquals(0, query.args().length);
+    }
+}
@@ -0,0 +1,358 @@
+package com.medarithmi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Application;
+import android.database.Cursor;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPInputStream;
+
+// HistorySync на базе в памяти (SQLite через Robolectric) с подменным транспортом.
+// MainApplication не поднимается: React Native в JVM-тестах не нужен
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class HistorySyncTest {
+    private static final class FakeTransport implements SyncTransport {
+        final List<JSONObject> pushed = new ArrayList<>();
+        final List<Integer> pushedBytes = new ArrayList<>();
+        final List<String> pullCursors = new ArrayList<>();
+        final Deque<String> pages = new ArrayDeque<>();
+        IOException pushFailure;
+        // Статус отказа для всех пакетов; 413 - только для пакетов больше maxAccepted изменений
+        int rejectStatus;
+        int maxAccepted = Integer.MAX_VALUE;
+
+        @Override
+        public void push(byte[] gzipBody) throws IOException, SyncRejectedException {
+            if (pushFailure != null) {
+                throw pushFailure;
+            }
+            byte[] json = gunzip(gzipBody);
+            JSONObject batch;
+            int count;
+            try {
+                batch = new JSONObject(new String(json, StandardCharsets.UTF_8));
+                count = batch.getJSONArray("changes").length();
+            } catch (JSONException e) {
+                throw new AssertionError(e);
+            }
+            if (rejectStatus != 0 && (rejectStatus != 413 || count > maxAccepted)) {
+                throw new SyncRejectedException(rejectStatus, "HTTP " + rejectStatus);
+            }
+            pushed.add(batch);
+            pushedBytes.add(json.length);
+        }
+
+        @Override
+        public String pull(String cursor, int limit) {
+            pullCursors.add(cursor);
+            return pages.isEmpty() ? "{\"cursor\":null,\"more\":false,\"changes\":[]}" : pages.poll();
+        }
+    }
+
+    private PulseDatabase database;
+    private FakeTransport transport;
+    private String deviceId;
+    private HistorySync sync;
+
+    @Before
+    public void setUp() throws Exception {
+        database = new PulseDatabase(RuntimeEnvironment.getApplication(), null, true);
+        transport = new FakeTransport();
+        deviceId = onDb(() -> HistorySync.readState(database, HistorySync.KEY_DEVICE_ID));
+        sync = new HistorySync(database, transport, deviceId);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void batchesAreLimitedByRowCount() throws Exception {
+        insert(HistorySync.MAX_BATCH_ROWS + 1, "Аэробная");
+
+        sync.run();
+
+        assertEquals(2, transport.pushed.size());
+        assertEquals(HistorySync.MAX_BATCH_ROWS, changes(0).length());
+        assertEquals(1, changes(1).length());
+        assertEquals(0, pendingChanges());
+    }
+
+    @Test
+    public void batchesAreLimitedByJsonSize() throws Exception {
+        // Кириллица занимает два байта UTF-8: предел считается в байтах, а не в символах
+        char[] name = new char[1000];
+        Arrays.fill(name, 'ж');
+        insert(300, new String(name));
+
+        sync.run();
+
+        int total = 0;
+        assertTrue(transport.pushed.size() > 1);
+        for (int i = 0; i < transport.pushed.size(); i++) {
+            assertTrue(transport.pushedBytes.get(i) <= HistorySync.MAX_BATCH_BYTES);
+            total += changes(i).length();
+        }
+        assertEquals(300, total);
+    }
+
+    @Test
+    public void pullAdvancesCursorPageByPage() throws Exception {
+        transport.pages.add(page("c1", true, upsert("other-1")));
+        transport.pages.add(page("c2", false, upsert("other-2")));
+
+        sync.run();
+
+        assertEquals(Arrays.asList(null, "c1"), transport.pullCursors);
+        assertEquals("c2", onDb(() -> HistorySync.readState(database, HistorySync.KEY_CURSOR)));
+        assertEquals(2, count("SELECT COUNT(*) FROM calculations"));
+
+        new HistorySync(database, transport, deviceId).run();
+        assertEquals("c2", transport.pullCursors.get(2));
+    }
+
+    @Test
+    public void pulledRowsAreNotPushedBack() throws Exception {
+        transport.pages.add(page("c1", false, upsert("other-1")));
+
+        sync.run();
+        sync.run();
+
+        assertEquals(0, pendingChanges());
+        assertTrue(transport.pushed.isEmpty());
+    }
+
+    @Test
+    public void echoOfOwnRowIsNotInsertedAgain() throws Exception {
+        insert(1, "Аэробная");
+        sync.run();
+        String ownId = changes(0).getJSONObject(0).getString("id");
+        assertEquals(deviceId + "-", ownId.substring(0, deviceId.length() + 1));
+
+        transport.pages.add(page("c1", false, upsert(ownId)));
+        sync.run();
+
+        assertEquals(1, count("SELECT COUNT(*) FROM calculations"));
+        assertEquals(0, pendingChanges());
+    }
+
+    @Test
+    public void rowDeletedBeforePushIsNeverSent() throws Exception {
+        insert(1, "Аэробная");
+        onDb(() -> database.executeUpdate("DELETE FROM calculations", null));
+
+        sync.run();
+
+        assertTrue(transport.pushed.isEmpty());
+        assertEquals(0, pendingChanges());
+    }
+
+    @Test
+    public void deleteAfterPushCarriesGlobalId() throws Exception {
+        insert(1, "Аэробная");
+        sync.run();
+        String ownId = changes(0).getJSONObject(0).getString("id");
+
+        onDb(() -> database.executeUpdate("DELETE FROM calculations", null));
+        sync.run();
+
+        JSONObject change = changes(1).getJSONObject(0);
+        assertEquals("delete", change.getString("op"));
+        assertEquals(ownId, change.getString("id"));
+    }
+
+    @Test
+    public void pulledDeleteRemovesRow() throws Exception {
+        transport.pages.add(page("c1", false, upsert("other-1")));
+        sync.run();
+
+        JSONObject delete = new JSONObject().put("op", "delete").put("id", "other-1");
+        transport.pages.add(page("c2", false, delete));
+        sync.run();
+
+        assertEquals(0, count("SELECT COUNT(*) FROM calculations"));
+        assertEquals(0, pendingChanges());
+    }
+
+    @Test
+    public void failedPushKeepsChangeLog() throws Exception {
+        insert(3, "Аэробная");
+        transport.pushFailure = new IOException("HTTP 503");
+
+        assertThrows(IOException.class, () -> sync.run());
+        assertEquals(3, pendingChanges());
+        assertTrue(transport.pullCursors.isEmpty());
+
+        transport.pushFailure = null;
+        sync.run();
+        assertEquals(3, changes(0).length());
+        assertEquals(0, pendingChanges());
+    }
+
+    @Test
+    public void rejectedBatchIsMovedAsideAndPullContinues() throws Exception {
+        insert(2, "Аэробная");
+        transport.rejectStatus = 400;
+
+        sync.run();
+
+        assertEquals(0, pendingChanges());
+        assertEquals(1, count("SELECT COUNT(*) FROM sync_rejected WHERE status = 400"));
+        assertEquals(1, transport.pullCursors.size());
+    }
+
+    @Test
+    public void tooLargeBatchIsSplit() throws Exception {
+        insert(5, "Аэробная");
+        transport.rejectStatus = 413;
+        transport.maxAccepted = 2;
+
+        sync.run();
+
+        int total = 0;
+        for (JSONObject batch : transport.pushed) {
+            total += batch.getJSONArray("changes").length();
+        }
+        assertEquals(5, total);
+        assertEquals(0, pendingChanges());
+        assertEquals(0, count("SELECT COUNT(*) FROM sync_rejected"));
+    }
+
+    @Test
+    public void disabledSyncKeepsNoChangeLog() throws Exception {
+        PulseDatabase disabled = new PulseDatabase(RuntimeEnvironment.getApplication(), null, false);
+        try {
+            long pending = disabled.submit(() -> {
+                disabled.insertCalculation("Аэробная", 30, 60, 120, 140);
+                disabled.executeUpdate("DELETE FROM calculations", null);
+                disabled.insertCalculation("Аэробная", 30, 60, 120, 140);
+                try (Cursor cursor = disabled.query("SELECT COUNT(*) FROM sync_changes", null)) {
+                    cursor.moveToFirst();
+                    return cursor.getLong(0);
+                }
+            }).get();
+            assertEquals(0, pending);
+        } finally {
+            disabled.close();
+        }
+    }
+
+    @Test
+    public void reenablingQueuesChangesMadeWhileDisabled() throws Exception {
+        insert(2, "Аэробная");
+        sync.run();
+        String pushedId = changes(0).getJSONObject(0).getString("id");
+        long pushedCalcId = count("SELECT MIN(id) FROM calculations");
+
+        configure(false);
+        assertEquals(0, pendingChanges());
+        onDb(() -> database.executeUpdate("DELETE FROM calculations WHERE id = ?", new Object[]{pushedCalcId}));
+        insert(1, "Жиросжигание");
+        assertEquals(0, pendingChanges());
+
+        configure(true);
+        sync.run();
+
+        JSONArray changes = changes(1);
+        assertEquals(2, changes.length());
+        assertEquals("upsert", changes.getJSONObject(0).getString("op"));
+        assertEquals("Жиросжигание", changes.getJSONObject(0).getString("zone_name"));
+        assertEquals("delete", changes.getJSONObject(1).getString("op"));
+        assertEquals(pushedId, changes.getJSONObject(1).getString("id"));
+    }
+
+    private void configure(boolean enabled) throws Exception {
+        onDb(() -> {
+            HistorySync.configure(database.getWritableDatabase(), enabled);
+            return null;
+        });
+    }
+
+    private <T> T onDb(Callable<T> task) throws Exception {
+        return database.submit(task).get();
+    }
+
+    private void insert(int rows, String zoneName) throws Exception {
+        onDb(() -> {
+            for (int i = 0; i < rows; i++) {
+                database.insertCalculation(zoneName, 30, 60, 120, 140);
+            }
+            return null;
+        });
+    }
+
+    private long count(String sql) throws Exception {
+        return onDb(() -> {
+            try (Cursor cursor = database.query(sql, null)) {
+                cursor.moveToFirst();
+                return cursor.getLong(0);
+            }
+        });
+    }
+
+    private long pendingChanges() throws Exception {
+        return count("SELECT COUNT(*) FROM sync_changes");
+    }
+
+    private JSONArray changes(int batch) throws Exception {
+        return transport.pushed.get(batch).getJSONArray("changes");
+    }
+
+    private static JSONObject upsert(String id) throws Exception {
+        return new JSONObject()
+            .put("op", "upsert")
+            .put("id", id)
+            .put("zone_name", "Жиросжигание")
+            .put("age", 40)
+            .put("resting_hr", 65)
+            .put("zone_min", 110)
+            .put("zone_max", 130)
+            .put("calculation_date", "2024-01-02 10:00:00");
+    }
+
+    private static String page(String cursor, boolean more, JSONObject... changes) throws Exception {
+        return new JSONObject()
+            .put("cursor", cursor)
+            .put("more", more)
+            .put("changes", new JSONArray(Arrays.asList(changes)))
+            .toString();
+    }
+
+    private static byte[] gunzip(byte[] gzip) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
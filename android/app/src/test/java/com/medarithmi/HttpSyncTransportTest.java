@@ -0,0 +1,126 @@
+package com.medarithmi;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+// HttpSyncTransport против локального HTTP-сервера на свободном порту
+public class HttpSyncTransportTest {
+    private HttpServer server;
+    private HttpSyncTransport transport;
+
+    // Ответ сервера и последний запрос к нему
+    private volatile int status = 200;
+    private volatile String responseBody = "";
+    private volatile String method;
+    private volatile String query;
+    private volatile String deviceHeader;
+    private volatile String encodingHeader;
+    private volatile byte[] requestBody;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/changes", this::handle);
+        server.start();
+        transport = new HttpSyncTransport(
+            "http://127.0.0.1:" + server.getAddress().getPort() + "/", "device-1");
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        method = exchange.getRequestMethod();
+        query = exchange.getRequestURI().getRawQuery();
+        deviceHeader = exchange.getRequestHeaders().getFirst("X-Device-Id");
+        encodingHeader = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        requestBody = readAll(exchange.getRequestBody());
+        byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void pushPostsBodyAsIsWithDeviceId() throws Exception {
+        byte[] body = {0x1f, (byte) 0x8b, 8, 0, 1, 2, 3};
+
+        transport.push(body);
+
+        assertEquals("POST", method);
+        assertEquals("device-1", deviceHeader);
+        assertEquals("gzip", encodingHeader);
+        assertArrayEquals(body, requestBody);
+    }
+
+    @Test
+    public void pullSendsCursorAndLimitAndReturnsBody() throws Exception {
+        responseBody = "{\"cursor\":\"c 2\",\"more\":false,\"changes\":[]}";
+
+        String page = transport.pull("c 1", 50);
+
+        assertEquals("GET", method);
+        assertEquals("limit=50&since=c+1", query);
+        assertEquals(responseBody, page);
+    }
+
+    @Test
+    public void firstPullHasNoCursor() throws Exception {
+        responseBody = "{}";
+
+        transport.pull(null, 10);
+
+        assertEquals("limit=10", query);
+    }
+
+    @Test
+    public void serverErrorsAndThrottlingAreRetryable() {
+        for (int code : new int[]{500, 503, 408, 429}) {
+            status = code;
+            IOException e = assertThrows(IOException.class, () -> transport.push(new byte[]{1}));
+            assertTrue(e.getMessage(), e.getMessage().contains(String.valueOf(code)));
+        }
+    }
+
+    @Test
+    public void otherClientErrorsAreRejected() {
+        for (int code : new int[]{400, 401, 404, 413}) {
+            status = code;
+            SyncRejectedException e = assertThrows(SyncRejectedException.class,
+                () -> transport.push(new byte[]{1}));
+            assertEquals(code, e.getStatus());
+        }
+        status = 400;
+        assertThrows(SyncRejectedException.class, () -> transport.pull(null, 10));
+    }
+}
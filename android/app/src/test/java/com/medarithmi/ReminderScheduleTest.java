@@ -0,0 +1,85 @@
+package com.medarithmi;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+public class ReminderScheduleTest {
+    private static final ZoneId ZONE = ZoneId.of("Europe/Moscow");
+    private static final int MINUTE_11_23 = 11 * 60 + 23;
+    private static final int MINUTE_18_30 = 18 * 60 + 30;
+
+    private static ZonedDateTime at(int day, int hour, int minute) {
+        return ZonedDateTime.of(2024, 5, day, hour, minute, 0, 0, ZONE);
+    }
+
+    private static long millis(ZonedDateTime time) {
+        return time.toInstant().toEpochMilli();
+    }
+
+    private static Reminder adaptive() {
+        return new Reminder("adaptive", Reminder.ALL_DAYS, 9, 0, "t", "m", true);
+    }
+
+    @Test
+    public void laterMinuteAfterFiringAppliesFromNextDay() {
+        ReminderSchedule schedule = new ReminderSchedule();
+        schedule.setAdaptiveMinuteOfDay(MINUTE_11_23);
+        schedule.add(adaptive(), at(14, 8, 0));
+        assertEquals(millis(at(14, 11, 23)), schedule.nextFireAtMillis());
+
+        List<Reminder> due = schedule.pollDue(millis(at(14, 11, 23)), ZONE, 60_000);
+        assertEquals(1, due.size());
+        schedule.setAdaptiveMinuteOfDay(MINUTE_18_30);
+        schedule.recomputeAdaptive(at(14, 11, 23));
+
+        // Без переноса на завтра то же напоминание пришло бы еще раз сегодня в 18:30
+        assertEquals(millis(at(15, 18, 30)), schedule.nextFireAtMillis());
+    }
+
+    @Test
+    public void unfiredReminderMovesWithinToday() {
+        ReminderSchedule schedule = new ReminderSchedule();
+        schedule.setAdaptiveMinuteOfDay(MINUTE_11_23);
+        schedule.add(adaptive(), at(14, 8, 0));
+
+        schedule.setAdaptiveMinuteOfDay(MINUTE_18_30);
+        schedule.recomputeAdaptive(at(14, 9, 0));
+        assertEquals(millis(at(14, 18, 30)), schedule.nextFireAtMillis());
+
+        // Минута уже прошла — следующий день
+        schedule.setAdaptiveMinuteOfDay(8 * 60);
+        schedule.recomputeAdaptive(at(14, 9, 0));
+        assertEquals(millis(at(15, 8, 0)), schedule.nextFireAtMillis());
+    }
+
+    @Test
+    public void midnightOnScheduledDayIsKept() {
+        ReminderSchedule schedule = new ReminderSchedule();
+        schedule.setAdaptiveMinuteOfDay(MINUTE_11_23);
+        schedule.add(adaptive(), at(14, 12, 0));
+        assertEquals(millis(at(15, 11, 23)), schedule.nextFireAtMillis());
+
+        schedule.setAdaptiveMinuteOfDay(0);
+        schedule.recomputeAdaptive(at(14, 12, 0));
+
+        assertEquals(millis(at(15, 0, 0)), schedule.nextFireAtMillis());
+    }
+
+    @Test
+    public void fixedRemindersAreNotMoved() {
+        ReminderSchedule schedule = new ReminderSchedule();
+        schedule.add(new Reminder("fixed", Reminder.ALL_DAYS, 20, 0, "t", "m"), at(14, 8, 0));
+
+        schedule.setAdaptiveMinuteOfDay(MINUTE_18_30);
+        schedule.recomputeAdaptive(at(14, 8, 0));
+
+        assertEquals(1, schedule.size());
+        assertEquals(millis(at(14, 20, 0)), schedule.nextFireAtMillis());
+        assertEquals("fixed", schedule.entries().iterator().next().reminder.id);
+    }
+}
@@ -0,0 +1,70 @@
+package com.medarithmi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+public class ReplayHeartRateSourceTest {
+    @Test
+    public void stopWaitsForSampleInFlight() throws Exception {
+        ReplayHeartRateSource source = new ReplayHeartRateSource(new int[]{60, 61, 62}, 1, 60, 180);
+        AtomicBoolean inSink = new AtomicBoolean();
+        AtomicInteger samples = new AtomicInteger();
+        CountDownLatch entered = new CountDownLatch(1);
+
+        source.start((timestampMillis, bpm) -> {
+            inSink.set(true);
+            entered.countDown();
+            // Медленный приемник: stop приходит, пока отсчет еще отдается;
+            // прерывание от stop не сокращает ожидание
+            long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+            while (System.nanoTime() < until) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            samples.incrementAndGet();
+            inSink.set(false);
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        source.stop();
+
+        assertFalse(inSink.get());
+        int afterStop = samples.get();
+        Thread.sleep(100);
+        assertEquals(afterStop, samples.get());
+    }
+
+    @Test
+    public void stopWithoutStartAndRestartWork() throws Exception {
+        ReplayHeartRateSource source = new ReplayHeartRateSource(new int[]{70}, 1, 60, 180);
+        source.stop();
+
+        CountDownLatch received = new CountDownLatch(1);
+        source.start((timestampMillis, bpm) -> received.countDown());
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        source.stop();
+        source.stop();
+    }
+
+    @Test
+    public void drainDueEmitsSamplesOnSchedule() {
+        ReplayHeartRateSource source = new ReplayHeartRateSource(new int[]{60, 61}, 100, 60, 180);
+        StringBuilder out = new StringBuilder();
+        HeartRateSource.Sink sink =
+            (timestampMillis, bpm) -> out.append(timestampMillis).append(':').append(bpm).append(' ');
+
+        assertEquals(1, source.drainDue(1_000, sink));
+        assertEquals(0, source.drainDue(1_050, sink));
+        assertEquals(3, source.drainDue(1_300, sink));
+
+        assertEquals("1000:60 1100:61 1200:60 1300:61 ", out.toString());
+    }
+}
@@ -0,0 +1,99 @@
+package com.medarithmi;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+public class SessionCodecTest {
+    private static final long STARTED_AT = 1_700_000_000_000L;
+
+    @Test
+    public void roundTripsIrregularSamples() throws IOException {
+        Random random = new Random(42);
+        int count = 5_000;
+        long[] offsets = new long[count];
+        int[] bpms = new int[count];
+        long offset = 0;
+        for (int i = 0; i < count; i++) {
+            offsets[i] = offset;
+            bpms[i] = 40 + random.nextInt(181);
+            // Пропуски и дубликаты времени, как при потере связи с датчиком
+            offset += random.nextInt(10) == 0 ? random.nextInt(60_000) : random.nextInt(2_000);
+        }
+
+        ByteBuffer buffer = SessionCodec.encode(STARTED_AT, offsets, bpms, count);
+        SessionCodec.Header header = SessionCodec.readHeader(buffer);
+        long[] decodedOffsets = new long[count];
+        int[] decodedBpms = new int[count];
+        SessionCodec.decodeOffsets(buffer, header, decodedOffsets);
+        SessionCodec.decodeBpm(buffer, header, decodedBpms);
+
+        assertEquals(count, header.sampleCount);
+        assertEquals(STARTED_AT, header.startedAt);
+        assertEquals(offsets[count - 1], header.durationMs);
+        assertArrayEquals(offsets, decodedOffsets);
+        assertArrayEquals(bpms, decodedBpms);
+    }
+
+    @Test
+    public void headerKeepsMinAndMaxBpm() throws IOException {
+        ByteBuffer buffer = SessionCodec.encode(STARTED_AT,
+            new long[]{0, 1000, 2000}, new int[]{120, 65, 201}, 3);
+
+        SessionCodec.Header header = SessionCodec.readHeader(buffer);
+
+        assertEquals(65, header.minBpm);
+        assertEquals(201, header.maxBpm);
+    }
+
+    @Test
+    public void emptySessionRoundTrips() throws IOException {
+        ByteBuffer buffer = SessionCodec.encode(STARTED_AT, new long[0], new int[0], 0);
+
+        SessionCodec.Header header = SessionCodec.readHeader(buffer);
+
+        assertEquals(SessionCodec.HEADER_SIZE, buffer.limit());
+        assertEquals(0, header.sampleCount);
+        assertEquals(0, header.durationMs);
+    }
+
+    // Час записи на 1 Гц с плавно меняющимся пульсом укладывается в несколько КБ
+    @Test
+    public void oneHourAtOneHertzTakesAFewKilobytes() throws IOException {
+        int count = 3_600;
+        long[] offsets = new long[count];
+        int[] bpms = new int[count];
+        Random random = new Random(7);
+        int bpm = 70;
+        for (int i = 0; i < count; i++) {
+            offsets[i] = i * 1000L;
+            bpm = Math.max(50, Math.min(190, bpm + random.nextInt(7) - 3));
+            bpms[i] = bpm;
+        }
+
+        ByteBuffer buffer = SessionCodec.encode(STARTED_AT, offsets, bpms, count);
+
+        // Один байт на время и один на пульс; по лишнему байту занимают первый
+        // пульс и первый шаг времени, дальше разности малы
+        assertEquals(SessionCodec.HEADER_SIZE + 2 * count + 2, buffer.limit());
+        assertTrue(buffer.limit() < 8 * 1024);
+    }
+
+    @Test
+    public void rejectsForeignAndTruncatedFiles() {
+        assertThrows(IOException.class,
+            () -> SessionCodec.readHeader(ByteBuffer.wrap(new byte[SessionCodec.HEADER_SIZE])));
+
+        ByteBuffer encoded = SessionCodec.encode(STARTED_AT,
+            new long[]{0, 1000}, new int[]{100, 101}, 2);
+        ByteBuffer truncated = ByteBuffer.wrap(encoded.array(), 0, encoded.limit() - 1).slice();
+        assertThrows(IOException.class, () -> SessionCodec.readHeader(truncated));
+    }
+}
@@ -0,0 +1,110 @@
+package com.medarithmi;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+public class StartupTimelineTest {
+    private static final class FakeClock implements StartupTimeline.Clock {
+        long now = 1_000;
+
+        @Override
+        public long nanoTime() {
+            return now;
+        }
+    }
+
+    @Test
+    public void recordsPhasesRelativeToOrigin() {
+        FakeClock clock = new FakeClock();
+        StartupTimeline timeline = new StartupTimeline(clock);
+
+        clock.now += 100;
+        timeline.begin("a");
+        clock.now += 50;
+        timeline.end("a");
+
+        assertArrayEquals(new long[]{100, 150}, timeline.snapshot().get("a"));
+        assertEquals(50, timeline.durationNanos("a"));
+    }
+
+    @Test
+    public void keepsFirstBeginAndFirstEnd() {
+        FakeClock clock = new FakeClock();
+        StartupTimeline timeline = new StartupTimeline(clock);
+
+        timeline.begin("a");
+        clock.now += 10;
+        timeline.begin("a");
+        timeline.end("a");
+        clock.now += 10;
+        timeline.end("a");
+
+        assertArrayEquals(new long[]{0, 10}, timeline.snapshot().get("a"));
+    }
+
+    @Test
+    public void ignoresEndWithoutBeginAndReportsUnfinishedPhase() {
+        FakeClock clock = new FakeClock();
+        StartupTimeline timeline = new StartupTimeline(clock);
+
+        timeline.end("missing");
+        timeline.begin("open");
+
+        assertFalse(timeline.snapshot().containsKey("missing"));
+        assertEquals(-1, timeline.durationNanos("open"));
+        assertEquals(-1, timeline.durationNanos("missing"));
+    }
+
+    @Test
+    public void markIsInstantAndKeepsOrder() {
+        FakeClock clock = new FakeClock();
+        StartupTimeline timeline = new StartupTimeline(clock);
+
+        timeline.begin("first");
+        clock.now += 5;
+        timeline.mark("second");
+
+        Map<String, long[]> snapshot = timeline.snapshot();
+        assertEquals(Arrays.asList("first", "second"), new ArrayList<>(snapshot.keySet()));
+        assertEquals(0, timeline.durationNanos("second"));
+    }
+
+    @Test
+    public void originMovesToProcessStartAndShiftsRecordedPhases() {
+        FakeClock clock = new FakeClock();
+        StartupTimeline timeline = new StartupTimeline(clock);
+
+        clock.now += 20;
+        timeline.begin("early");
+        clock.now += 10;
+        timeline.end("early");
+        // Процесс стартовал за 500 нс до текущего момента
+        timeline.setOriginNanosAgo(500);
+        clock.now += 40;
+        timeline.mark("late");
+
+        assertArrayEquals(new long[]{490, 500}, timeline.snapshot().get("early"));
+        assertArrayEquals(new long[]{540, 540}, timeline.snapshot().get("late"));
+        assertEquals(10, timeline.durationNanos("early"));
+    }
+
+    @Test
+    public void snapshotIsACopy() {
+        StartupTimeline timeline = new StartupTimeline(new FakeClock());
+        timeline.begin("a");
+
+        timeline.snapshot().get("a")[0] = 999;
+        timeline.snapshot().clear();
+
+        assertTrue(timeline.snapshot().containsKey("a"));
+        assertEquals(0, timeline.snapshot().get("a")[0]);
+    }
+}
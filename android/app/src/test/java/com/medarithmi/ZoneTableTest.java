@@ -0,0 +1,74 @@
+package com.medarithmi;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+// Таблица из generateZoneTable (app/build.gradle) должна совпадать с ZoneCalculator
+public class ZoneTableTest {
+    // Область ввода из CalculatorService.validateAge/validateRestingHR
+    private static final int AGE_MIN = 12;
+    private static final int AGE_MAX = 90;
+    private static final int REST_MIN = 40;
+    private static final int REST_MAX = 100;
+    private static final int[] TABLE_MODELS = {
+        ZoneCalculator.MODEL_FOX, ZoneCalculator.MODEL_TANAKA, ZoneCalculator.MODEL_GELLISH,
+    };
+
+    private ZoneTable table;
+
+    @Before
+    public void setUp() throws IOException {
+        String path = System.getProperty("zoneTable.path");
+        assertNotNull("zoneTable.path не задан: запускайте через Gradle", path);
+        table = new ZoneTable(ByteBuffer.wrap(Files.readAllBytes(Paths.get(path))));
+    }
+
+    @Test
+    public void matchesCalculatorAcrossFullInputRange() {
+        int[] expected = new int[ZoneCalculator.ZONE_COUNT * 2];
+        int[] actual = new int[ZoneCalculator.ZONE_COUNT * 2];
+        for (int model : TABLE_MODELS) {
+            for (int age = AGE_MIN; age <= AGE_MAX; age++) {
+                for (int rest = REST_MIN; rest <= REST_MAX; rest++) {
+                    assertTrue(table.covers(model, age, rest));
+                    int maxHR = ZoneCalculator.maxHeartRate(model, age, 0);
+                    ZoneCalculator.fillZones(maxHR, rest, expected, 0);
+
+                    for (int zone = 0; zone < ZoneCalculator.ZONE_COUNT; zone++) {
+                        actual[zone * 2] = table.zoneMin(model, age, rest, zone);
+                        actual[zone * 2 + 1] = table.zoneMax(model, age, rest, zone);
+                    }
+                    assertArrayEquals("model " + model + ", age " + age + ", rest " + rest,
+                        expected, actual);
+                    assertEquals(maxHR, ZoneTable.fillZones(table, model, age, rest, 0, actual, 0));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void measuredModelAndOutOfRangeInputFallBackToCalculator() {
+        assertFalse(table.covers(ZoneCalculator.MODEL_MEASURED, 30, 60));
+        assertFalse(table.covers(ZoneCalculator.MODEL_FOX, AGE_MIN - 1, 60));
+        assertFalse(table.covers(ZoneCalculator.MODEL_FOX, 30, REST_MAX + 1));
+
+        int[] expected = new int[ZoneCalculator.ZONE_COUNT * 2];
+        int[] actual = new int[ZoneCalculator.ZONE_COUNT * 2];
+        int maxHR = ZoneCalculator.maxHeartRate(ZoneCalculator.MODEL_MEASURED, 30, 187);
+        ZoneCalculator.fillZones(maxHR, 60, expected, 0);
+
+        assertEquals(maxHR, ZoneTable.fillZones(table, ZoneCalculator.MODEL_MEASURED, 30, 60, 187, actual, 0));
+        assertArrayEquals(expected, actual);
+    }
+}
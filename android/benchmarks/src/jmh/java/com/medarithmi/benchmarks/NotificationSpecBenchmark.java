@@ -0,0 +1,105 @@
+package com.medarithmi.benchmarks;
+
+import com.medarithmi.NotificationSpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Сборка содержимого уведомления; NotificationCompat.Builder заменен заглушкой
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NotificationSpecBenchmark {
+    private static final int ICON = 0x7f080001;
+    private static final int COLOR = 0xFFFF6B6B;
+
+    private final StubBuilder builder = new StubBuilder();
+
+    @Benchmark
+    public StubBuilder reminder() {
+        NotificationSpec.reminder("Пульс", "Время проверить пульс покоя", ICON, COLOR).applyTo(builder);
+        return builder;
+    }
+
+    @Benchmark
+    public StubBuilder ongoing() {
+        NotificationSpec.ongoing("Тренировка", "Зона 3 · 142 уд/мин", ICON, COLOR).applyTo(builder);
+        return builder;
+    }
+
+    // Хранит поля так же, как NotificationCompat.Builder, без обращения к Android
+    public static final class StubBuilder implements NotificationSpec.Target {
+        int icon;
+        CharSequence title;
+        CharSequence text;
+        boolean autoCancel;
+        boolean ongoing;
+        boolean onlyAlertOnce;
+        boolean silent;
+        boolean showWhen = true;
+        int priority;
+        int defaults;
+        int color;
+
+        @Override
+        public void setSmallIcon(int icon) {
+            this.icon = icon;
+        }
+
+        @Override
+        public void setContentTitle(CharSequence title) {
+            this.title = title;
+        }
+
+        @Override
+        public void setContentText(CharSequence text) {
+            this.text = text;
+        }
+
+        @Override
+        public void setAutoCancel(boolean autoCancel) {
+            this.autoCancel = autoCancel;
+        }
+
+        @Override
+        public void setOngoing(boolean ongoing) {
+            this.ongoing = ongoing;
+        }
+
+        @Override
+        public void setOnlyAlertOnce(boolean onlyAlertOnce) {
+            this.onlyAlertOnce = onlyAlertOnce;
+        }
+
+        @Override
+        public void setSilent(boolean silent) {
+            this.silent = silent;
+        }
+
+        @Override
+        public void setShowWhen(boolean showWhen) {
+            this.showWhen = showWhen;
+        }
+
+        @Override
+        public void setPriority(int priority) {
+            this.priority = priority;
+        }
+
+        @Override
+        public void setDefaults(int defaults) {
+            this.defaults = defaults;
+        }
+
+        @Override
+        public void setColor(int color) {
+            this.color = color;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.medarithmi.benchmarks;
+
+import com.medarithmi.Reminder;
+import com.medarithmi.ReminderSchedule;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.DayOfWeek;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Время следующего срабатывания (путь scheduleDailyNotification -> ReminderScheduler)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReminderBenchmark {
+    private static final ZoneId ZONE = ZoneId.of("Europe/Moscow");
+    private static final long STALE_MS = TimeUnit.HOURS.toMillis(1);
+
+    private final Reminder daily = new Reminder("daily_heart_check", Reminder.ALL_DAYS, 9, 0, "Пульс", "Время проверить пульс");
+    private final Reminder weekly = new Reminder("weekly", Reminder.dayBit(DayOfWeek.SUNDAY), 20, 30, "Итоги", "Итоги недели");
+
+    // Будний день до времени напоминания и воскресенье после него
+    private final ZonedDateTime morning = ZonedDateTime.of(2024, 3, 4, 7, 15, 0, 0, ZONE);
+    private final ZonedDateTime sundayEvening = ZonedDateTime.of(2024, 3, 10, 21, 0, 0, 0, ZONE);
+
+    private ReminderSchedule schedule;
+    private long dueAtMillis;
+
+    @Setup
+    public void setUp() {
+        schedule = new ReminderSchedule();
+        for (int i = 0; i < 16; i++) {
+            schedule.add(new Reminder("r" + i, Reminder.ALL_DAYS, 6 + i, (i * 7) % 60, "t", "m"), morning);
+        }
+        dueAtMillis = schedule.nextFireAtMillis();
+    }
+
+    @Benchmark
+    public ZonedDateTime nextFireDaily() {
+        return daily.nextFireAfter(morning);
+    }
+
+    @Benchmark
+    public ZonedDateTime nextFireWeeklyWrap() {
+        return weekly.nextFireAfter(sundayEvening);
+    }
+
+    // Срабатывание головы очереди и перевзвод: очередь возвращается в то же состояние
+    @Benchmark
+    public List<Reminder> pollDueAndRearm() {
+        List<Reminder> due = schedule.pollDue(dueAtMillis, ZONE, STALE_MS);
+        schedule.recompute(morning);
+        return due;
+    }
+}
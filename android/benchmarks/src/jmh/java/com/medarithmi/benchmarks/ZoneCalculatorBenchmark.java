@@ -0,0 +1,66 @@
+package com.medarithmi.benchmarks;
+
+import com.medarithmi.ZoneCalculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Расчет зон: один калькулятор (как calculateAll в CalculatorService) и пакет по спортсменам
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ZoneCalculatorBenchmark {
+    @Param({"1", "100", "10000"})
+    public int athletes;
+
+    private final int[] models = {
+        ZoneCalculator.MODEL_FOX,
+        ZoneCalculator.MODEL_TANAKA,
+        ZoneCalculator.MODEL_GELLISH,
+        ZoneCalculator.MODEL_MEASURED,
+    };
+    private final int[] single = new int[ZoneCalculator.ZONE_COUNT * 2];
+
+    private int[] ages;
+    private int[] restingHRs;
+    private int[] measuredMaxHRs;
+    private int[] maxHROut;
+    private int[] zonesOut;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        ages = new int[athletes];
+        restingHRs = new int[athletes];
+        measuredMaxHRs = new int[athletes];
+        for (int i = 0; i < athletes; i++) {
+            ages[i] = 12 + random.nextInt(79);
+            restingHRs[i] = 40 + random.nextInt(61);
+            measuredMaxHRs[i] = 160 + random.nextInt(40);
+        }
+        maxHROut = new int[athletes * models.length];
+        zonesOut = new int[athletes * models.length * ZoneCalculator.ZONE_COUNT * 2];
+    }
+
+    @Benchmark
+    public int singleFox() {
+        int maxHR = ZoneCalculator.maxHeartRate(ZoneCalculator.MODEL_FOX, ages[0], 0);
+        ZoneCalculator.fillZones(maxHR, restingHRs[0], single, 0);
+        return single[ZoneCalculator.ZONE_COUNT * 2 - 1];
+    }
+
+    @Benchmark
+    public int[] batchAllModels() {
+        ZoneCalculator.computeBatch(ages, restingHRs, measuredMaxHRs, models, maxHROut, zonesOut);
+        return zonesOut;
+    }
+}
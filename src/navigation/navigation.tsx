@@ -1,14 +1,30 @@
 import * as React from 'react';
-import {NavigationContainer} from '@react-navigation/native';
+import {LinkingOptions, NavigationContainer} from '@react-navigation/native';
 import {createStackNavigator} from '@react-navigation/stack';
 import {MainScreen} from '../screens/MainScreen';
 import {CalculatorScreen} from '../screens/CalculatorScreen';
 import {SettingsScreen} from '../screens/SettingsScreen';
 import {HistoryScreen} from '../screens/HistoryScreen';
 import {TopBar} from '../components/TopBar';
+import {ScreensList} from '../types/navigation';
 
 const Stack = createStackNavigator();
 
+// Глубокие ссылки из уведомлений (NotificationDispatcher.DEEP_LINK_*). При
+// холодном старте под открытым экраном остается Main, чтобы "назад" не закрывал приложение
+const linking: LinkingOptions<ScreensList> = {
+  prefixes: ['medarithmi://'],
+  config: {
+    initialRouteName: 'Main',
+    screens: {
+      Main: 'main',
+      Calculator: 'calculator',
+      Settings: 'settings',
+      History: 'history',
+    },
+  },
+};
+
 // Выносим компонент TopBarWrapper отдельно
 const TopBarWrapper = () => {
   return <TopBar />;
@@ -16,7 +32,7 @@ const TopBarWrapper = () => {
 
 const Navigation = () => {
   return (
-    <NavigationContainer>
+    <NavigationContainer linking={linking}>
       <Stack.Navigator
         screenOptions={{
           header: TopBarWrapper,
@@ -92,12 +92,27 @@ export function CalculatorScreen() {
   };
 
   useEffect(() => {
-    if (age && restingHR && !ageError && !restingHRError) {
-      const result = CalculatorService.calculateAll({age, restingHR, zoneName});
-      setCalculationResult(result);
-    } else {
+    if (!age || !restingHR || ageError || restingHRError) {
       setCalculationResult(null);
+      return;
     }
+
+    // Ответ для устаревшего ввода отбрасывается
+    let cancelled = false;
+    CalculatorService.calculateZone({age, restingHR, zoneName})
+      .catch(error => {
+        console.error('Ошибка нативного расчета:', error);
+        return CalculatorService.calculateAll({age, restingHR, zoneName});
+      })
+      .then(result => {
+        if (!cancelled) {
+          setCalculationResult(result);
+        }
+      });
+
+    return () => {
+      cancelled = true;
+    };
   }, [age, restingHR, ageError, restingHRError, zoneName]);
 
   useEffect(() => {
@@ -131,7 +146,7 @@ export function CalculatorScreen() {
             zoneMax: calculationResult.zoneLimits.max,
           });
 
-          await FirebaseService.logEvent('calculation_completed', {
+          FirebaseService.logEvent('calculation_completed', {
             zone: zoneName,
             age: parseInt(age, 10),
             resting_hr: parseInt(restingHR, 10),
@@ -1,5 +1,11 @@
 // HistoryScreen.tsx
-import React, {useState, useEffect, useCallback, useMemo} from 'react';
+import React, {
+  useState,
+  useEffect,
+  useCallback,
+  useMemo,
+  useRef,
+} from 'react';
 import {
   View,
   Text,
@@ -9,12 +15,18 @@ import {
   ScrollView,
   ActivityIndicator,
   Alert,
+  NativeScrollEvent,
+  NativeSyntheticEvent,
 } from 'react-native';
 import {useNavigation} from '@react-navigation/native';
 import type {StackNavigationProp} from '@react-navigation/stack';
 import type {ScreensList} from '../types/navigation';
 import {BottomBar} from '../components/BottomBar';
-import DatabaseService from '../services/DatabaseService';
+import DatabaseService, {
+  HistoryCursor,
+  HistoryPage,
+  HistoryStats,
+} from '../services/DatabaseService';
 import FirebaseService from '../services/FirebaseService';
 import Card, {ZoneName} from '../components/Card';
 import Icon from '../components/Icons';
@@ -35,6 +47,27 @@ interface GroupedHistory {
   [date: string]: HistoryItem[];
 }
 
+const PAGE_SIZE = 20;
+// Расстояние до конца списка, при котором подгружаем следующую страницу
+const LOAD_MORE_THRESHOLD = 400;
+
+// Преобразование колоночной страницы в элементы списка
+const pageToItems = (page: HistoryPage): HistoryItem[] => {
+  const items: HistoryItem[] = new Array(page.count);
+  for (let i = 0; i < page.count; i++) {
+    items[i] = {
+      id: page.id[i],
+      zone_name: page.zone_name[i],
+      age: page.age[i],
+      resting_hr: page.resting_hr[i],
+      zone_min: page.zone_min[i],
+      zone_max: page.zone_max[i],
+      calculation_date: page.calculation_date[i],
+    };
+  }
+  return items;
+};
+
 // Кэш для отформатированных дат
 const dateCache = new Map<string, string>();
 const timeCache = new Map<string, string>();
@@ -60,6 +93,9 @@ export function HistoryScreen() {
   const [minRestingHR, setMinRestingHR] = useState<number | null>(null);
   const [maxRestingHR, setMaxRestingHR] = useState<number | null>(null);
   const [totalCount, setTotalCount] = useState(0);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const nextCursorRef = useRef<HistoryCursor | null>(null);
+  const loadingMoreRef = useRef(false);
 
   const bottomBarItems = useMemo(
     () => [
@@ -111,42 +147,23 @@ export function HistoryScreen() {
 
   // Оптимизированная группировка с кэшированием дат
   const groupByDate = useCallback(
-    (items: HistoryItem[]): GroupedHistory => {
-      const grouped: GroupedHistory = {};
+    (items: HistoryItem[], base: GroupedHistory = {}): GroupedHistory => {
+      const grouped: GroupedHistory = {...base};
       items.forEach(item => {
         const date = formatDate(item.calculation_date);
-        if (!grouped[date]) {
-          grouped[date] = [];
-        }
-        grouped[date].push(item);
+        grouped[date] = grouped[date] ? [...grouped[date], item] : [item];
       });
       return grouped;
     },
     [formatDate],
   );
 
-  // Оптимизированный расчет статистики
-  const calculateRestingHRStats = useCallback((items: HistoryItem[]) => {
-    if (items.length === 0) {
-      return {avg: null, min: null, max: null};
-    }
-
-    let sum = 0;
-    let min = Infinity;
-    let max = -Infinity;
-
-    for (const item of items) {
-      sum += item.resting_hr;
-      if (item.resting_hr < min) {
-        min = item.resting_hr;
-      }
-      if (item.resting_hr > max) {
-        max = item.resting_hr;
-      }
-    }
-
-    const avg = Math.round(sum / items.length);
-    return {avg, min, max};
+  // Статистика по всей истории из сводок БД
+  const applyStats = useCallback((stats: HistoryStats) => {
+    setTotalCount(stats.count);
+    setAverageRestingHR(stats.avgRestingHR);
+    setMinRestingHR(stats.minRestingHR);
+    setMaxRestingHR(stats.maxRestingHR);
   }, []);
 
   // Функция загрузки истории
@@ -154,32 +171,27 @@ export function HistoryScreen() {
     try {
       setLoading(true);
 
-      const data: HistoryItem[] = await DatabaseService.getCalculationHistory(
-        20,
-      );
+      const [page, stats] = await Promise.all([
+        DatabaseService.getCalculationHistoryPage({}, null, PAGE_SIZE),
+        DatabaseService.getHistoryStats('day', 0),
+      ]);
+      const data = pageToItems(page);
+      nextCursorRef.current = page.nextCursor;
 
-      await FirebaseService.logEvent('history_viewed', {
-        item_count: data.length,
+      FirebaseService.logEvent('history_viewed', {
+        item_count: stats.count,
       });
 
-      setTotalCount(data.length);
+      applyStats(stats);
 
       if (data.length === 0) {
         setIsEmpty(true);
         setHistory({});
-        setAverageRestingHR(null);
-        setMinRestingHR(null);
-        setMaxRestingHR(null);
       } else {
         setIsEmpty(false);
 
         const grouped = groupByDate(data);
         setHistory(grouped);
-
-        const stats = calculateRestingHRStats(data);
-        setAverageRestingHR(stats.avg);
-        setMinRestingHR(stats.min);
-        setMaxRestingHR(stats.max);
       }
     } catch (error) {
       console.error('Ошибка загрузки истории:', error);
@@ -190,7 +202,47 @@ export function HistoryScreen() {
     } finally {
       setLoading(false);
     }
-  }, [groupByDate, calculateRestingHRStats]);
+  }, [groupByDate, applyStats]);
+
+  // Подгрузка следующей страницы по курсору
+  const loadMore = useCallback(async () => {
+    const cursor = nextCursorRef.current;
+    if (!cursor || loadingMoreRef.current) {
+      return;
+    }
+
+    loadingMoreRef.current = true;
+    setLoadingMore(true);
+    try {
+      const page = await DatabaseService.getCalculationHistoryPage(
+        {},
+        cursor,
+        PAGE_SIZE,
+      );
+      const items = pageToItems(page);
+      nextCursorRef.current = page.nextCursor;
+
+      setHistory(prevHistory => groupByDate(items, prevHistory));
+    } catch (error) {
+      console.error('Ошибка подгрузки истории:', error);
+    } finally {
+      loadingMoreRef.current = false;
+      setLoadingMore(false);
+    }
+  }, [groupByDate]);
+
+  const handleScroll = useCallback(
+    (event: NativeSyntheticEvent<NativeScrollEvent>) => {
+      const {layoutMeasurement, contentOffset, contentSize} = event.nativeEvent;
+      if (
+        layoutMeasurement.height + contentOffset.y >=
+        contentSize.height - LOAD_MORE_THRESHOLD
+      ) {
+        loadMore();
+      }
+    },
+    [loadMore],
+  );
 
   // Загрузка при монтировании
   useEffect(() => {
@@ -227,25 +279,15 @@ export function HistoryScreen() {
                     return newHistory;
                   });
 
-                  // Обновляем статистику
-                  setTotalCount(prev => prev - 1);
-
-                  // Получаем все элементы из текущего состояния
-                  setHistory(prevHistory => {
-                    const allItems = Object.values(prevHistory).flat();
-                    if (allItems.length > 0) {
-                      const stats = calculateRestingHRStats(allItems);
-                      setAverageRestingHR(stats.avg);
-                      setMinRestingHR(stats.min);
-                      setMaxRestingHR(stats.max);
-                    } else {
-                      setIsEmpty(true);
-                      setAverageRestingHR(null);
-                      setMinRestingHR(null);
-                      setMaxRestingHR(null);
-                    }
-                    return prevHistory;
-                  });
+                  // Сводки уже обновлены триггером удаления
+                  const stats = await DatabaseService.getHistoryStats(
+                    'day',
+                    0,
+                  );
+                  applyStats(stats);
+                  if (stats.count === 0) {
+                    setIsEmpty(true);
+                  }
 
                   await FirebaseService.logEvent('history_item_deleted', {
                     zone_name: zoneName,
@@ -262,7 +304,7 @@ export function HistoryScreen() {
         ],
       );
     },
-    [calculateRestingHRStats],
+    [applyStats],
   );
 
   // Мемоизированная функция для получения обработчика удаления
@@ -293,13 +335,15 @@ export function HistoryScreen() {
       <View style={styles.content}>
         <ScrollView
           contentContainerStyle={styles.scrollViewContent}
-          showsVerticalScrollIndicator={false}>
+          showsVerticalScrollIndicator={false}
+          onScroll={handleScroll}
+          scrollEventThrottle={200}>
           <Text style={styles.title}>История расчетов</Text>
 
           {!isEmpty && averageRestingHR !== null && (
             <Card
               type="stats"
-              description={`Показаны последние ${totalCount} расчетов`}
+              description={`Всего расчетов: ${totalCount}`}
               stats={{
                 min: minRestingHR || 0,
                 avg: averageRestingHR,
@@ -348,6 +392,14 @@ export function HistoryScreen() {
               </View>
             ))
           )}
+
+          {loadingMore && (
+            <ActivityIndicator
+              style={styles.loadingMore}
+              size="small"
+              color="#E75F55"
+            />
+          )}
         </ScrollView>
       </View>
 
@@ -375,6 +427,9 @@ const styles = StyleSheet.create({
     justifyContent: 'center',
     alignItems: 'center',
   },
+  loadingMore: {
+    marginVertical: 20,
+  },
   loadingText: {
     marginTop: 15,
     fontSize: 16,
@@ -1,4 +1,5 @@
 // services/CalculatorService.ts
+import {NativeModules} from 'react-native';
 import DatabaseService from './DatabaseService';
 
 // Интерфейсы
@@ -20,6 +21,41 @@ export interface CalculationResult {
   zoneLimits: {min: number; max: number};
 }
 
+// Модели расчета МЧСС (совпадают с константами ZoneEngineModule)
+export const MaxHRModel = {
+  FOX: 0,
+  TANAKA: 1,
+  GELLISH: 2,
+  MEASURED: 3,
+} as const;
+
+export interface AthleteInput {
+  age: number;
+  restingHR: number;
+  measuredMaxHR?: number;
+}
+
+// Плоские массивы результата пакетного расчета:
+// maxHR[athlete * modelCount + m], zones[(athlete * modelCount + m) * 10 + zone * 2 (+1)]
+export interface ZoneBatchResult {
+  athleteCount: number;
+  modelCount: number;
+  maxHR: number[];
+  zones: number[];
+}
+
+interface ZoneEngineModule {
+  computeZones(
+    ages: number[],
+    restingHRs: number[],
+    measuredMaxHRs: number[],
+    models: number[],
+  ): Promise<ZoneBatchResult>;
+}
+
+const zoneEngine: ZoneEngineModule | undefined =
+  NativeModules.ZoneEngineModule;
+
 // Интерпретация ощущений для каждой зоны
 export const zoneInterpretations: Record<string, string> = {
   Восстановление: 'Очень легко. Возможен свободный разговор и пение.',
@@ -71,6 +107,102 @@ class CalculatorService {
     return {min, max};
   }
 
+  // МЧСС по выбранной модели (целочисленно, как в ZoneCalculator.java)
+  static calculateMaxHRByModel(
+    model: number,
+    age: number,
+    measuredMaxHR: number = 0,
+  ): number {
+    switch (model) {
+      case MaxHRModel.FOX:
+        return 220 - age;
+      case MaxHRModel.TANAKA:
+        return Math.floor((2080 - 7 * age + 5) / 10);
+      case MaxHRModel.GELLISH:
+        return Math.floor((2070 - 7 * age + 5) / 10);
+      case MaxHRModel.MEASURED:
+        return measuredMaxHR > 0 ? measuredMaxHR : 0;
+      default:
+        return 0;
+    }
+  }
+
+  // Пакетный расчет всех пяти зон для нескольких спортсменов и моделей
+  // за один вызов нативного модуля (с запасным расчетом в JS)
+  static async calculateModels(
+    athletes: AthleteInput[],
+    models: number[] = [
+      MaxHRModel.FOX,
+      MaxHRModel.TANAKA,
+      MaxHRModel.GELLISH,
+      MaxHRModel.MEASURED,
+    ],
+  ): Promise<ZoneBatchResult> {
+    const ages = athletes.map(a => a.age);
+    const restingHRs = athletes.map(a => a.restingHR);
+    const measured = athletes.map(a => a.measuredMaxHR || 0);
+
+    if (zoneEngine) {
+      return zoneEngine.computeZones(ages, restingHRs, measured, models);
+    }
+
+    const percentList = Object.values(zonePercentages);
+    const maxHR: number[] = [];
+    const zones: number[] = [];
+    athletes.forEach((athlete, i) => {
+      models.forEach(model => {
+        const max = this.calculateMaxHRByModel(model, ages[i], measured[i]);
+        maxHR.push(max);
+        const reserve = max - restingHRs[i];
+        percentList.forEach(p => {
+          zones.push(
+            max > 0 ? restingHRs[i] + Math.round((reserve * p.min) / 100) : 0,
+            max > 0 ? restingHRs[i] + Math.round((reserve * p.max) / 100) : 0,
+          );
+        });
+      });
+    });
+
+    return {
+      athleteCount: athletes.length,
+      modelCount: models.length,
+      maxHR,
+      zones,
+    };
+  }
+
+  // Расчет выбранной зоны через нативный пакетный движок (модель Фокса, как в
+  // calculateAll): все пять зон считаются вне JS-потока за один вызов моста
+  static async calculateZone(
+    input: CalculationInput,
+  ): Promise<CalculationResult | null> {
+    const ageNum = parseInt(input.age, 10);
+    const restingHRNum = parseInt(input.restingHR, 10);
+    const zoneIndex = Object.keys(zonePercentages).indexOf(input.zoneName);
+
+    if (isNaN(ageNum) || isNaN(restingHRNum)) {
+      return null;
+    }
+
+    const batch = await this.calculateModels(
+      [{age: ageNum, restingHR: restingHRNum}],
+      [MaxHRModel.FOX],
+    );
+    const maxHR = batch.maxHR[0];
+
+    return {
+      maxHR,
+      heartRateReserve: this.calculateHeartRateReserve(maxHR, restingHRNum),
+      zoneLimits:
+        zoneIndex >= 0
+          ? {
+              min: batch.zones[zoneIndex * 2],
+              max: batch.zones[zoneIndex * 2 + 1],
+            }
+          : {min: 0, max: 0},
+    };
+  }
+
   // Основная функция расчета
   static calculateAll(input: CalculationInput): CalculationResult | null {
     const {age, restingHR, zoneName} = input;
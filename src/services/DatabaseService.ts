@@ -1,6 +1,6 @@
 // services/DatabaseService.ts
 import SQLite from 'react-native-sqlite-storage';
-import {Platform} from 'react-native';
+import {NativeModules, Platform} from 'react-native';
 
 const databaseName = 'PulseSportDB.db';
 
@@ -16,13 +16,173 @@ export interface UserProfile {
   hasCompletedOnboarding: boolean;
 }
 
+// Фильтры истории; даты в формате 'YYYY-MM-DD HH:MM:SS'
+export interface HistoryFilters {
+  fromDate?: string;
+  toDate?: string;
+  zoneName?: string;
+  minRestingHR?: number;
+  maxRestingHR?: number;
+}
+
+// Курсор постраничной выборки: последняя строка предыдущей страницы
+export interface HistoryCursor {
+  date: string;
+  id: number;
+}
+
+// Страница истории в виде массивов по колонкам
+export interface HistoryPage {
+  count: number;
+  id: number[];
+  zone_name: string[];
+  age: number[];
+  resting_hr: number[];
+  zone_min: number[];
+  zone_max: number[];
+  calculation_date: string[];
+  nextCursor: HistoryCursor | null;
+}
+
+const HISTORY_COLUMNS =
+  'id, zone_name, age, resting_hr, zone_min, zone_max, calculation_date';
+
+// Условия WHERE для фильтров (та же логика, что в HistoryQuery.java)
+function buildHistoryWhere(
+  filters: HistoryFilters,
+  cursor: HistoryCursor | null,
+): {where: string; params: any[]} {
+  const conditions: string[] = [];
+  const params: any[] = [];
+  if (filters.zoneName != null) {
+    conditions.push('zone_name = ?');
+    params.push(filters.zoneName);
+  }
+  if (filters.fromDate != null) {
+    conditions.push('calculation_date >= ?');
+    params.push(filters.fromDate);
+  }
+  if (filters.toDate != null) {
+    conditions.push('calculation_date <= ?');
+    params.push(filters.toDate);
+  }
+  if (filters.minRestingHR != null) {
+    conditions.push('resting_hr >= ?');
+    params.push(filters.minRestingHR);
+  }
+  if (filters.maxRestingHR != null) {
+    conditions.push('resting_hr <= ?');
+    params.push(filters.maxRestingHR);
+  }
+  // Отдельная граница calculation_date <= ? позволяет искать по диапазону индекса
+  if (cursor) {
+    conditions.push(
+      'calculation_date <= ? AND (calculation_date < ? OR id < ?)',
+    );
+    params.push(cursor.date, cursor.date, cursor.id);
+  }
+  return {
+    where: conditions.length ? ` WHERE ${conditions.join(' AND ')}` : '',
+    params,
+  };
+}
+
+// Итоги истории и ряд по дням/неделям (ответ StorageModule.getHistoryStats)
+export interface HistoryStats {
+  count: number;
+  avgRestingHR: number | null;
+  minRestingHR: number | null;
+  maxRestingHR: number | null;
+  series: {
+    period_start: string[];
+    count: number[];
+    avg_resting_hr: number[];
+    min_resting_hr: number[];
+    max_resting_hr: number[];
+    min_zone_min: number[];
+    max_zone_max: number[];
+  };
+}
+
+// Периоды в местном времени, как DAY_OF и WEEK_OF в HistoryRollups.java:
+// calculation_date хранится в UTC. Неделя начинается с понедельника
+const dayOf = (column: string) => `date(${column}, 'localtime')`;
+const weekOf = (column: string) =>
+  `date(${column}, 'localtime', '-6 days', 'weekday 1')`;
+
+// Журнал синхронизации истории ведут только триггеры HistorySync.triggerDdl(),
+// которые PulseDatabase ставит на Android при включенной синхронизации. Ранние сборки
+// создавали их из JS и на других платформах; там журнал рос бы бесконечно
+const SYNC_CLEANUP = [
+  'DROP TRIGGER IF EXISTS trg_calculations_sync_insert',
+  'DROP TRIGGER IF EXISTS trg_calculations_sync_delete',
+  'DROP TABLE IF EXISTS sync_changes',
+  'DROP TABLE IF EXISTS sync_rows',
+  'DROP TABLE IF EXISTS sync_state',
+];
+
+// Выражение пакета: query = true для SELECT (результат в rows)
+export interface BatchStatement {
+  sql: string;
+  params?: any[];
+  query?: boolean;
+}
+
+export interface BatchResult {
+  rows?: any[];
+  rowsAffected?: number;
+  insertId?: number;
+}
+
+// Нативное хранилище (Android): WAL, кэш выражений, отдельный поток БД
+interface StorageModule {
+  open(): Promise<boolean>;
+  insertCalculation(
+    zoneName: string,
+    age: number,
+    restingHR: number,
+    zoneMin: number,
+    zoneMax: number,
+  ): Promise<number>;
+  executeSql(sql: string, params: any[]): Promise<{rowsAffected: number}>;
+  query<T>(sql: string, params: any[]): Promise<T[]>;
+  executeBatch(statements: BatchStatement[]): Promise<BatchResult[]>;
+  queryHistoryPage(
+    filters: HistoryFilters,
+    cursor: HistoryCursor | null,
+    limit: number,
+  ): Promise<HistoryPage>;
+  countCalculations(filters: HistoryFilters): Promise<number>;
+  getHistoryStats(period: 'day' | 'week', limit: number): Promise<HistoryStats>;
+}
+
+const nativeStorage: StorageModule | undefined = NativeModules.StorageModule;
+
+// Нативный снимок настроек с отложенной пакетной записью
+interface SettingsModule {
+  getSnapshot(): Promise<Record<string, string>>;
+  saveSettings(values: Record<string, string>): Promise<void>;
+  flush(): Promise<void>;
+}
+
+const nativeSettings: SettingsModule | undefined = NativeModules.SettingsModule;
+
+const DEFAULT_SETTINGS: Record<string, string> = {
+  [SETTINGS_KEYS.ALLOW_ANALYTICS]: 'true',
+  [SETTINGS_KEYS.ALLOW_MESSAGES]: 'true',
+  user_name: '',
+  user_age: '',
+  has_completed_onboarding: 'false',
+};
+
 SQLite.enablePromise(true);
 
 class DatabaseService {
   private db: SQLite.SQLiteDatabase | null = null;
+  private nativeOpened = false;
   private initializationPromise: Promise<void> | null = null;
-  private saveInProgress = false;
-  private lastSaveTime = 0;
+  private settings: Record<string, string> | null = null;
+  private settingsPromise: Promise<Record<string, string>> | null = null;
   async initializeDatabase(): Promise<void> {
     // Если уже инициализируем, возвращаем существующий промис
     if (this.initializationPromise) {
@@ -36,10 +196,15 @@ class DatabaseService {
   private async _initializeDatabase(): Promise<void> {
     try {
       console.log('Opening database...');
-      this.db = await SQLite.openDatabase({
-        name: databaseName,
-        location: Platform.OS === 'ios' ? 'Library' : 'default',
-      });
+      if (nativeStorage) {
+        await nativeStorage.open();
+        this.nativeOpened = true;
+      } else {
+        this.db = await SQLite.openDatabase({
+          name: databaseName,
+          location: Platform.OS === 'ios' ? 'Library' : 'default',
+        });
+      }
       console.log('Database opened');
 
       await this.createTables();
@@ -56,13 +221,19 @@ class DatabaseService {
 
   // НОВЫЙ МЕТОД: проверка инициализации
   private async ensureInitialized(): Promise<void> {
-    if (!this.db) {
+    if (!this.db && !this.nativeOpened) {
       console.log('Database not initialized, initializing now...');
       await this.initializeDatabase();
     }
   }
 
+  // Схему нативной базы, включая сводки, гистограмму часов и журнал
+  // синхронизации с их триггерами, создает PulseDatabase.onCreate при open()
   private async createTables(): Promise<void> {
+    if (this.nativeOpened) {
+      return;
+    }
+
     const queries = [
       `CREATE TABLE IF NOT EXISTS calculations (
         id INTEGER PRIMARY KEY AUTOINCREMENT,
@@ -80,54 +251,76 @@ class DatabaseService {
         value TEXT,
         updated_at DATETIME DEFAULT CURRENT_TIMESTAMP
       )`,
+
+      `CREATE INDEX IF NOT EXISTS idx_calculations_date
+        ON calculations (calculation_date)`,
+
+      `CREATE INDEX IF NOT EXISTS idx_calculations_zone_date
+        ON calculations (zone_name, calculation_date)`,
+
+      ...(Platform.OS === 'android' ? [] : SYNC_CLEANUP),
     ];
 
-    for (const query of queries) {
-      await this.executeAction(query, []);
-    }
+    // Вся схема одной транзакцией за один вызов
+    await this.executeBatch(queries.map(sql => ({sql})));
   }
 
+  // Значения по умолчанию для отсутствующих ключей (совпадают с SettingsStore.java)
   private async initializeDefaultSettings(): Promise<void> {
     try {
-      const existingAnalytics = await this.getSetting(
-        SETTINGS_KEYS.ALLOW_ANALYTICS,
-      );
-      if (existingAnalytics === null) {
-        await this.saveSetting(SETTINGS_KEYS.ALLOW_ANALYTICS, 'true');
-      }
+      await this.loadSettings();
+    } catch (error) {
+      console.error('Error initializing default settings:', error);
+    }
+  }
 
-      const existingMessages = await this.getSetting(
-        SETTINGS_KEYS.ALLOW_MESSAGES,
-      );
-      if (existingMessages === null) {
-        await this.saveSetting(SETTINGS_KEYS.ALLOW_MESSAGES, 'true');
-      }
+  // Загрузка всех настроек одним запросом в снимок в памяти
+  private loadSettings(): Promise<Record<string, string>> {
+    if (!this.settingsPromise) {
+      this.settingsPromise = this._loadSettings().catch(error => {
+        this.settingsPromise = null;
+        throw error;
+      });
+    }
+    return this.settingsPromise;
+  }
 
-      // Инициализируем профиль, если его нет
-      const existingName = await this.getSetting('user_name');
-      if (existingName === null) {
-        await this.saveSetting('user_name', '');
-      }
+  private async _loadSettings(): Promise<Record<string, string>> {
+    if (nativeSettings) {
+      this.settings = await nativeSettings.getSnapshot();
+      return this.settings;
+    }
 
-      const existingAge = await this.getSetting('user_age');
-      if (existingAge === null) {
-        await this.saveSetting('user_age', '');
-      }
+    const rows = await this.executeQuery<{key: string; value: string}>(
+      'SELECT key, value FROM user_settings',
+      [],
+    );
+    const snapshot: Record<string, string> = {};
+    for (const row of rows) {
+      snapshot[row.key] = row.value ?? '';
+    }
 
-      const existingOnboarding = await this.getSetting(
-        'has_completed_onboarding',
-      );
-      if (existingOnboarding === null) {
-        await this.saveSetting('has_completed_onboarding', 'false');
+    const missing: Record<string, string> = {};
+    for (const [key, value] of Object.entries(DEFAULT_SETTINGS)) {
+      if (!(key in snapshot)) {
+        missing[key] = value;
+        snapshot[key] = value;
       }
-    } catch (error) {
-      console.error('Error initializing default settings:', error);
     }
+    this.settings = snapshot;
+    if (Object.keys(missing).length > 0) {
+      await this.saveSettings(missing);
+    }
+    return snapshot;
   }
 
   private async executeQuery<T>(sql: string, params: any[]): Promise<T[]> {
     await this.ensureInitialized(); // Добавляем проверку
 
+    if (nativeStorage) {
+      return nativeStorage.query<T>(sql, params);
+    }
+
     return new Promise((resolve, reject) => {
       this.db!.transaction(tx => {
         tx.executeSql(
@@ -149,9 +342,44 @@ class DatabaseService {
     });
   }
 
+  // Несколько выражений в одной транзакции; результаты в том же порядке
+  async executeBatch(statements: BatchStatement[]): Promise<BatchResult[]> {
+    await this.ensureInitialized();
+
+    if (nativeStorage) {
+      return nativeStorage.executeBatch(statements);
+    }
+
+    const results: BatchResult[] = new Array(statements.length);
+    await this.db!.transaction(tx => {
+      statements.forEach((statement, index) => {
+        tx.executeSql(statement.sql, statement.params || [], (_, res) => {
+          if (statement.query) {
+            const rows: any[] = [];
+            for (let i = 0; i < res.rows.length; i++) {
+              rows.push(res.rows.item(i));
+            }
+            results[index] = {rows};
+          } else {
+            results[index] = {
+              rowsAffected: res.rowsAffected,
+              insertId: res.insertId,
+            };
+          }
+        });
+      });
+    });
+    return results;
+  }
+
   private async executeAction(sql: string, params: any[]): Promise<boolean> {
     await this.ensureInitialized(); // Добавляем проверку
 
+    if (nativeStorage) {
+      const result = await nativeStorage.executeSql(sql, params);
+      return result.rowsAffected > 0;
+    }
+
     return new Promise((resolve, reject) => {
       this.db!.transaction(tx => {
         tx.executeSql(
@@ -171,20 +399,41 @@ class DatabaseService {
 
   // Методы для настроек
   async saveSetting(key: string, value: string): Promise<void> {
+    await this.saveSettings({[key]: value});
+  }
+
+  // Несколько настроек за один вызов; снимок обновляется сразу
+  async saveSettings(values: Record<string, string>): Promise<void> {
     await this.ensureInitialized(); // Добавляем проверку
-    const query = `
+
+    if (this.settings) {
+      Object.assign(this.settings, values);
+    }
+
+    if (nativeSettings) {
+      await nativeSettings.saveSettings(values);
+      return;
+    }
+
+    const sql = `
       INSERT OR REPLACE INTO user_settings (key, value) 
       VALUES (?, ?)
     `;
-
-    await this.executeAction(query, [key, value]);
+    await this.executeBatch(
+      Object.entries(values).map(([key, value]) => ({sql, params: [key, value]})),
+    );
   }
 
   async getSetting(key: string): Promise<string | null> {
     await this.ensureInitialized(); // Добавляем проверку
-    const query = 'SELECT value FROM user_settings WHERE key = ?';
-    const result = await this.executeQuery<{value: string}>(query, [key]);
-    return result[0]?.value || null;
+    const settings = await this.loadSettings();
+    return settings[key] || null;
+  }
+
+  // Все настройки за один вызов
+  async getAllSettings(): Promise<Record<string, string>> {
+    await this.ensureInitialized();
+    return {...(await this.loadSettings())};
   }
 
   async getBooleanSetting(key: string): Promise<boolean> {
@@ -194,34 +443,21 @@ class DatabaseService {
   }
 
   // Методы для профиля пользователя
+  // Частые сохранения объединяются нативным хранилищем в одну транзакцию
   async saveUserProfile(profile: UserProfile): Promise<void> {
-    // Защита от множественных одновременных сохранений
-    if (this.saveInProgress) {
-      console.log('Save already in progress, queueing...');
-      // Ждем немного и пробуем снова
-      await new Promise(resolve => setTimeout(resolve, 100));
-      return this.saveUserProfile(profile);
-    }
-
     try {
-      this.saveInProgress = true;
       console.log('Saving user profile to DB:', profile);
-      await this.ensureInitialized();
-
-      await this.saveSetting('user_name', profile.name || '');
-      await this.saveSetting('user_age', profile.age || '');
-      await this.saveSetting(
-        'has_completed_onboarding',
-        profile.hasCompletedOnboarding ? 'true' : 'false',
-      );
-
-      this.lastSaveTime = Date.now();
+      await this.saveSettings({
+        user_name: profile.name || '',
+        user_age: profile.age || '',
+        has_completed_onboarding: profile.hasCompletedOnboarding
+          ? 'true'
+          : 'false',
+      });
       console.log('Profile saved successfully to DB');
     } catch (error) {
       console.error('Error saving profile:', error);
       throw error;
-    } finally {
-      this.saveInProgress = false;
     }
   }
   async getUserProfile(): Promise<UserProfile> {
@@ -229,11 +465,10 @@ class DatabaseService {
       console.log('========== DATABASE LOAD ==========');
       await this.ensureInitialized();
 
-      const [name, age, hasCompletedOnboarding] = await Promise.all([
-        this.getSetting('user_name'),
-        this.getSetting('user_age'),
-        this.getSetting('has_completed_onboarding'),
-      ]);
+      const settings = await this.loadSettings();
+      const name = settings.user_name || null;
+      const age = settings.user_age || null;
+      const hasCompletedOnboarding = settings.has_completed_onboarding || null;
 
       console.log('Raw DB values:', {
         name: `"${name}"`,
@@ -271,6 +506,17 @@ class DatabaseService {
   }): Promise<number> {
     await this.ensureInitialized(); // Добавляем проверку
 
+    // Нативный путь: INSERT и id за один вызов
+    if (nativeStorage) {
+      return nativeStorage.insertCalculation(
+        data.zoneName,
+        data.age,
+        data.restingHR,
+        data.zoneMin,
+        data.zoneMax,
+      );
+    }
+
     const query = `
       INSERT INTO calculations 
       (zone_name, age, resting_hr, zone_min, zone_max) 
@@ -285,13 +531,9 @@ class DatabaseService {
       data.zoneMax,
     ];
 
-    await this.executeAction(query, params);
-    // Возвращаем ID последней вставленной записи
-    const result = await this.executeQuery<{last_insert_rowid: number}>(
-      'SELECT last_insert_rowid() as last_insert_rowid',
-      [],
-    );
-    return result[0]?.last_insert_rowid || -1;
+    // INSERT и id вставленной записи в одной транзакции
+    const [result] = await this.executeBatch([{sql: query, params}]);
+    return result?.insertId ?? -1;
   }
 
   async getCalculationHistory(limit: number = 20): Promise<any[]> {
@@ -306,6 +548,118 @@ class DatabaseService {
     return await this.executeQuery(query, [limit]);
   }
 
+  // Страница истории по курсору (от новых к старым) с фильтрами
+  async getCalculationHistoryPage(
+    filters: HistoryFilters = {},
+    cursor: HistoryCursor | null = null,
+    limit: number = 20,
+  ): Promise<HistoryPage> {
+    await this.ensureInitialized();
+
+    if (nativeStorage) {
+      return nativeStorage.queryHistoryPage(filters, cursor, limit);
+    }
+
+    const {where, params} = buildHistoryWhere(filters, cursor);
+    const rows = await this.executeQuery<any>(
+      `SELECT ${HISTORY_COLUMNS} FROM calculations${where}
+       ORDER BY calculation_date DESC, id DESC LIMIT ?`,
+      [...params, limit],
+    );
+
+    const page: HistoryPage = {
+      count: rows.length,
+      id: [],
+      zone_name: [],
+      age: [],
+      resting_hr: [],
+      zone_min: [],
+      zone_max: [],
+      calculation_date: [],
+      nextCursor: null,
+    };
+    for (const row of rows) {
+      page.id.push(row.id);
+      page.zone_name.push(row.zone_name);
+      page.age.push(row.age);
+      page.resting_hr.push(row.resting_hr);
+      page.zone_min.push(row.zone_min);
+      page.zone_max.push(row.zone_max);
+      page.calculation_date.push(row.calculation_date);
+    }
+    if (rows.length === limit) {
+      const last = rows[rows.length - 1];
+      page.nextCursor = {date: last.calculation_date, id: last.id};
+    }
+    return page;
+  }
+
+  // Количество расчетов по фильтрам
+  async countCalculations(filters: HistoryFilters = {}): Promise<number> {
+    await this.ensureInitialized();
+
+    if (nativeStorage) {
+      return nativeStorage.countCalculations(filters);
+    }
+
+    const {where, params} = buildHistoryWhere(filters, null);
+    const result = await this.executeQuery<{total: number}>(
+      `SELECT COUNT(*) as total FROM calculations${where}`,
+      params,
+    );
+    return result[0]?.total || 0;
+  }
+
+  // Итоги и ряд по дням/неделям из сводок, без просмотра всей истории
+  async getHistoryStats(
+    period: 'day' | 'week' = 'day',
+    limit: number = 30,
+  ): Promise<HistoryStats> {
+    await this.ensureInitialized();
+
+    if (nativeStorage) {
+      return nativeStorage.getHistoryStats(period, limit);
+    }
+
+    // Без нативного хранилища сводных таблиц нет: итоги считаются по calculations
+    const [totals] = await this.executeQuery<any>(
+      `SELECT COUNT(*) as total, SUM(resting_hr) as sum_hr,
+         MIN(resting_hr) as min_hr, MAX(resting_hr) as max_hr
+       FROM calculations`,
+      [],
+    );
+    const periodStart =
+      period === 'week' ? weekOf('calculation_date') : dayOf('calculation_date');
+    const rows = await this.executeQuery<any>(
+      `SELECT ${periodStart} as period_start, COUNT(*) as count,
+         SUM(resting_hr) as sum_hr,
+         MIN(resting_hr) as min_hr, MAX(resting_hr) as max_hr,
+         MIN(zone_min) as zone_min, MAX(zone_max) as zone_max
+       FROM calculations
+       GROUP BY period_start ORDER BY period_start DESC LIMIT ?`,
+      [limit],
+    );
+
+    const count = totals?.total || 0;
+    return {
+      count,
+      avgRestingHR: count > 0 ? Math.round(totals.sum_hr / count) : null,
+      minRestingHR: count > 0 ? totals.min_hr : null,
+      maxRestingHR: count > 0 ? totals.max_hr : null,
+      series: {
+        period_start: rows.map(r => r.period_start),
+        count: rows.map(r => r.count),
+        avg_resting_hr: rows.map(r =>
+          r.count > 0 ? Math.round(r.sum_hr / r.count) : 0,
+        ),
+        min_resting_hr: rows.map(r => r.min_hr),
+        max_resting_hr: rows.map(r => r.max_hr),
+        min_zone_min: rows.map(r => r.zone_min),
+        max_zone_max: rows.map(r => r.zone_max),
+      },
+    };
+  }
+
   async getLastCalculation(): Promise<{
     zoneRange: string;
     restingHR: string;
@@ -336,16 +690,20 @@ class DatabaseService {
     }
   }
 
-  async getCalculationsByZone(zoneName: string): Promise<any[]> {
+  async getCalculationsByZone(
+    zoneName: string,
+    limit: number = 100,
+  ): Promise<any[]> {
     await this.ensureInitialized(); // Добавляем проверку
 
     const query = `
       SELECT * FROM calculations 
       WHERE zone_name = ? 
-      ORDER BY calculation_date DESC
+      ORDER BY calculation_date DESC 
+      LIMIT ?
     `;
 
-    return await this.executeQuery(query, [zoneName]);
+    return await this.executeQuery(query, [zoneName, limit]);
   }
 
   async deleteCalculation(id: number): Promise<boolean> {
@@ -363,6 +721,13 @@ class DatabaseService {
   }
 
   async closeDatabase(): Promise<void> {
+    // Нативная база живет весь процесс, сбрасываем только флаг
+    this.nativeOpened = false;
+    if (nativeSettings) {
+      await nativeSettings.flush();
+    }
+    this.settings = null;
+    this.settingsPromise = null;
     if (this.db) {
       await this.db.close();
       this.db = null;
@@ -0,0 +1,83 @@
+// services/DiagnosticsService.ts
+import {NativeModules} from 'react-native';
+
+// Уровни android.util.Log
+export const LogLevel = {
+  VERBOSE: 2,
+  DEBUG: 3,
+  INFO: 4,
+  WARN: 5,
+  ERROR: 6,
+} as const;
+
+export interface LogEntry {
+  time: number;
+  level: number;
+  tag: string;
+  message: string;
+}
+
+export interface LatencyStats {
+  count: number;
+  errors: number;
+  meanMs: number;
+  p50Ms: number;
+  p90Ms: number;
+  p99Ms: number;
+  maxMs: number;
+}
+
+// Значения накоплены с запуска процесса
+export interface MetricsSnapshot {
+  counters: Record<string, number>;
+  histograms: Record<string, LatencyStats>;
+}
+
+interface DiagnosticsModule {
+  getRecentLogs(): Promise<LogEntry[]>;
+  getMetricsSnapshot(): Promise<MetricsSnapshot>;
+  setLogLevel(level: number): void;
+  clearLogs(): void;
+}
+
+const nativeModule: DiagnosticsModule | undefined =
+  NativeModules.DiagnosticsModule;
+
+// Последние записи нативного журнала для отчетов с устройств
+class DiagnosticsService {
+  async getRecentLogs(): Promise<LogEntry[]> {
+    if (!nativeModule) {
+      return [];
+    }
+
+    try {
+      return await nativeModule.getRecentLogs();
+    } catch (error) {
+      console.error('Ошибка получения нативного журнала:', error);
+      return [];
+    }
+  }
+
+  async getMetricsSnapshot(): Promise<MetricsSnapshot> {
+    if (!nativeModule) {
+      return {counters: {}, histograms: {}};
+    }
+
+    try {
+      return await nativeModule.getMetricsSnapshot();
+    } catch (error) {
+      console.error('Ошибка получения нативных метрик:', error);
+      return {counters: {}, histograms: {}};
+    }
+  }
+
+  setLogLevel(level: number): void {
+    nativeModule?.setLogLevel(level);
+  }
+
+  clearLogs(): void {
+    nativeModule?.clearLogs();
+  }
+}
+
+export default new DiagnosticsService();
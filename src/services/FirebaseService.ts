@@ -1,4 +1,17 @@
 import analytics from '@react-native-firebase/analytics';
+import {NativeModules} from 'react-native';
+
+// Нативный конвейер (Android): события копятся и отправляются пачками,
+// согласие проверяется по allow_analytics в нативном хранилище настроек
+interface AnalyticsModule {
+  logEvent(eventName: string, params: {[key: string]: any}): void;
+  logScreenView(screenName: string): void;
+  setCollectionEnabled(enabled: boolean): void;
+  flush(): Promise<void>;
+}
+
+const nativeAnalytics: AnalyticsModule | undefined =
+  NativeModules.AnalyticsModule;
 
 class FirebaseService {
   private analyticsEnabled: boolean = false;
@@ -13,7 +26,11 @@ class FirebaseService {
       }
 
       // Включаем сбор аналитики
-      await analytics().setAnalyticsCollectionEnabled(true);
+      if (nativeAnalytics) {
+        nativeAnalytics.setCollectionEnabled(true);
+      } else {
+        await analytics().setAnalyticsCollectionEnabled(true);
+      }
       console.log('Firebase Analytics инициализирован');
     } catch (error) {
       console.error('Ошибка инициализации Firebase:', error);
@@ -25,7 +42,11 @@ class FirebaseService {
     this.analyticsEnabled = enabled;
 
     try {
-      await analytics().setAnalyticsCollectionEnabled(enabled);
+      if (nativeAnalytics) {
+        nativeAnalytics.setCollectionEnabled(enabled);
+      } else {
+        await analytics().setAnalyticsCollectionEnabled(enabled);
+      }
       console.log(`Firebase Analytics ${enabled ? 'включен' : 'отключен'}`);
     } catch (error) {
       console.error('Ошибка изменения состояния аналитики:', error);
@@ -37,6 +58,12 @@ class FirebaseService {
       return;
     }
 
+    // Без ожидания моста: событие встает в нативную очередь
+    if (nativeAnalytics) {
+      nativeAnalytics.logEvent(eventName, params || {});
+      return;
+    }
+
     try {
       await analytics().logEvent(eventName, params);
       console.log(`Событие отправлено: ${eventName}`, params);
@@ -50,6 +77,11 @@ class FirebaseService {
       return;
     }
 
+    if (nativeAnalytics) {
+      nativeAnalytics.logScreenView(screenName);
+      return;
+    }
+
     try {
       await analytics().logScreenView({
         screen_name: screenName,
@@ -0,0 +1,85 @@
+// services/HeartRateStreamService.ts
+import {NativeEventEmitter, NativeModules} from 'react-native';
+
+export interface StreamOptions {
+  source?: 'replay';
+  samples?: number[];
+  sampleIntervalMs?: number;
+  updateIntervalMs?: number;
+  model?: number;
+  measuredMaxHR?: number;
+  record?: boolean;
+}
+
+// Одна пачка отсчетов; zone = -1 ниже первой зоны
+export interface StreamUpdate {
+  bpm: number;
+  zone: number;
+  timestamp: number;
+  batchSize: number;
+  sampleCount: number;
+  dropped: number;
+  timeInZoneMs: number[];
+  belowZonesMs: number;
+  sessionId?: number;
+}
+
+interface HeartRateStreamModule {
+  startStream(options: StreamOptions): Promise<{maxHR: number; zones: number[]}>;
+  stopStream(): Promise<StreamUpdate>;
+  getSnapshot(): Promise<StreamUpdate>;
+  addListener(eventName: string): void;
+  removeListeners(count: number): void;
+}
+
+const nativeModule: HeartRateStreamModule | undefined =
+  NativeModules.HeartRateStreamModule;
+
+// Отсчеты пульса обрабатываются нативно, в JS приходят только сводные обновления
+class HeartRateStreamService {
+  private emitter: NativeEventEmitter | null = null;
+
+  isAvailable(): boolean {
+    return nativeModule !== undefined;
+  }
+
+  onUpdate(listener: (update: StreamUpdate) => void): () => void {
+    if (!nativeModule) {
+      return () => {};
+    }
+    if (!this.emitter) {
+      this.emitter = new NativeEventEmitter(nativeModule as any);
+    }
+    const subscription = this.emitter.addListener(
+      'HeartRateStreamUpdate',
+      listener,
+    );
+    return () => subscription.remove();
+  }
+
+  async start(
+    options: StreamOptions = {},
+  ): Promise<{maxHR: number; zones: number[]} | null> {
+    if (!nativeModule) {
+      console.warn('Heart rate stream is not available on this platform');
+      return null;
+    }
+    return nativeModule.startStream(options);
+  }
+
+  async stop(): Promise<StreamUpdate | null> {
+    if (!nativeModule) {
+      return null;
+    }
+    return nativeModule.stopStream();
+  }
+
+  async getSnapshot(): Promise<StreamUpdate | null> {
+    if (!nativeModule) {
+      return null;
+    }
+    return nativeModule.getSnapshot();
+  }
+}
+
+export default new HeartRateStreamService();
@@ -0,0 +1,69 @@
+// services/HistoryTransferService.ts
+import {NativeEventEmitter, NativeModules} from 'react-native';
+
+export type TransferFormat = 'csv' | 'ndjson';
+
+export interface ExportOptions {
+  format: TransferFormat;
+  includeSettings?: boolean;
+  fileName?: string;
+}
+
+export interface TransferProgress {
+  rows: number;
+  fraction: number;
+}
+
+interface HistoryTransferModule {
+  exportHistory(options: ExportOptions): Promise<{path: string; rows: number}>;
+  importHistory(path: string, options: {format: TransferFormat}): Promise<number>;
+  addListener(eventName: string): void;
+  removeListeners(count: number): void;
+}
+
+const nativeModule: HistoryTransferModule | undefined =
+  NativeModules.HistoryTransferModule;
+
+// Экспорт/импорт выполняется нативно потоком, строки не проходят через мост
+class HistoryTransferService {
+  private emitter: NativeEventEmitter | null = null;
+
+  isAvailable(): boolean {
+    return nativeModule !== undefined;
+  }
+
+  // Подписка на прогресс (события приходят не чаще 4 раз в секунду)
+  onProgress(listener: (progress: TransferProgress) => void): () => void {
+    if (!nativeModule) {
+      return () => {};
+    }
+    if (!this.emitter) {
+      this.emitter = new NativeEventEmitter(nativeModule as any);
+    }
+    const subscription = this.emitter.addListener(
+      'HistoryTransferProgress',
+      listener,
+    );
+    return () => subscription.remove();
+  }
+
+  async exportHistory(
+    options: ExportOptions,
+  ): Promise<{path: string; rows: number} | null> {
+    if (!nativeModule) {
+      console.warn('History export is not available on this platform');
+      return null;
+    }
+    return nativeModule.exportHistory(options);
+  }
+
+  async importHistory(path: string, format: TransferFormat): Promise<number> {
+    if (!nativeModule) {
+      console.warn('History import is not available on this platform');
+      return 0;
+    }
+    return nativeModule.importHistory(path, {format});
+  }
+}
+
+export default new HistoryTransferService();
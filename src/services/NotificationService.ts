@@ -1,4 +1,14 @@
-import {Platform, NativeModules} from 'react-native';
+import {Platform} from 'react-native';
+
+// Напоминание: дни недели 1 (пн) - 7 (вс); пустой список - каждый день
+export interface ReminderConfig {
+  id: string;
+  days: number[];
+  hour: number;
+  minute: number;
+  title: string;
+  message: string;
+}
 
 interface NotificationModule {
   showNotification(title: string, message: string): Promise<number>;
@@ -9,13 +19,16 @@ interface NotificationModule {
     minute: number,
   ): Promise<boolean>;
   cancelScheduledNotification(): Promise<void>; // уже правильно
+  setReminders(reminders: ReminderConfig[]): Promise<number>;
+  getReminders(): Promise<ReminderConfig[]>;
 }
 
 class NotificationService {
   private readonly isAndroid = Platform.OS === 'android';
   private notificationModule: NotificationModule | null = null;
 
-  // Все уведомления в одной категории (14 сообщений)
+  // Все уведомления в одной категории (14 сообщений);
+  // нативный каталог для напоминаний — ReminderMessages.java
   private readonly allMessages = [
     {
       title: '🏃 Время для активности!',
@@ -85,18 +98,18 @@ class NotificationService {
     },
   ];
 
-  constructor() {
-    this.initialize();
-  }
-
   initialize(): void {
-    if (this.isAndroid) {
-      this.notificationModule = NativeModules.NotificationModule;
+    if (this.isAndroid && !this.notificationModule) {
+      // Нативный модуль создается только при первом обращении (TurboReactPackage),
+      // поэтому спецификация подключается здесь, а не при импорте сервиса
+      const nativeModule = require('../specs/NativeNotificationModule').default;
+      this.notificationModule = (nativeModule as NotificationModule) || null;
       console.log('NotificationService initialized');
     }
   }
 
   isAvailable(): boolean {
+    this.initialize();
     return this.isAndroid && this.notificationModule !== null;
   }
 
@@ -141,7 +154,9 @@ class NotificationService {
     );
   }
 
-  // Запланировать ежедневное уведомление на 9:00
+  // Запланировать ежедневное напоминание. Текст по кругу из каталога и время по
+  // привычкам пользователя выбирает нативный ReminderPlanner; 11:23 — время, пока
+  // сохраненных расчетов слишком мало для подбора
   async scheduleDailyNotification(): Promise<boolean> {
     if (!this.isAvailable()) {
       console.warn('Cannot schedule notification: module not available');
@@ -151,14 +166,11 @@ class NotificationService {
     console.log('NotificationService: Scheduling daily notification...');
 
     try {
-      const message = this.getRandomMessage();
-      console.log('NotificationService: Selected message:', message);
-
-      console.log('NotificationService: Calling native module...');
+      const message = this.allMessages[0];
       const result = await this.notificationModule!.scheduleDailyNotification(
         message.title,
         message.message,
-        11, // час (20:30)
+        11, // час
         23, // минута
       );
 
@@ -175,6 +187,34 @@ class NotificationService {
     }
   }
 
+  // Заменить набор напоминаний; возвращает время ближайшего срабатывания (мс)
+  async setReminders(reminders: ReminderConfig[]): Promise<number | null> {
+    if (!this.isAvailable()) {
+      console.warn('Cannot schedule reminders: module not available');
+      return null;
+    }
+
+    try {
+      return await this.notificationModule!.setReminders(reminders);
+    } catch (error) {
+      console.error('NotificationService: Error setting reminders:', error);
+      return null;
+    }
+  }
+
+  async getReminders(): Promise<ReminderConfig[]> {
+    if (!this.isAvailable()) {
+      return [];
+    }
+
+    try {
+      return await this.notificationModule!.getReminders();
+    } catch (error) {
+      console.error('NotificationService: Error loading reminders:', error);
+      return [];
+    }
+  }
+
   // Отменить все запланированные уведомления
   async cancelAll(): Promise<void> {
     console.log('Cancelling all scheduled notifications...');
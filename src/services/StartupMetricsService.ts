@@ -0,0 +1,56 @@
+// services/StartupMetricsService.ts
+import {NativeModules} from 'react-native';
+
+export interface StartupPhase {
+  startMs: number;
+  endMs: number;
+  durationMs: number;
+}
+
+export type StartupMetrics = Record<string, StartupPhase>;
+
+// Фазы, отмечаемые из JS (нативные фазы пишет MainApplication/MainActivity)
+export const StartupPhases = {
+  DATABASE_INIT: 'database_init',
+  FIRST_FRAME: 'first_frame',
+  APP_READY: 'app_ready',
+} as const;
+
+interface StartupMetricsModule {
+  markPhaseStart(phase: string): void;
+  markPhaseEnd(phase: string): void;
+  mark(phase: string): void;
+  getStartupMetrics(): Promise<StartupMetrics>;
+}
+
+const nativeModule: StartupMetricsModule | undefined =
+  NativeModules.StartupMetricsModule;
+
+class StartupMetricsService {
+  markPhaseStart(phase: string): void {
+    nativeModule?.markPhaseStart(phase);
+  }
+
+  markPhaseEnd(phase: string): void {
+    nativeModule?.markPhaseEnd(phase);
+  }
+
+  mark(phase: string): void {
+    nativeModule?.mark(phase);
+  }
+
+  async getStartupMetrics(): Promise<StartupMetrics> {
+    if (!nativeModule) {
+      return {};
+    }
+
+    try {
+      return await nativeModule.getStartupMetrics();
+    } catch (error) {
+      console.error('Ошибка получения метрик запуска:', error);
+      return {};
+    }
+  }
+}
+
+export default new StartupMetricsService();
@@ -0,0 +1,107 @@
+// services/WorkoutSessionService.ts
+import {NativeModules} from 'react-native';
+
+export interface WorkoutSessionSummary {
+  id: number;
+  startedAt: number;
+  durationMs: number;
+  sampleCount: number;
+  avgHR: number;
+  minHR: number;
+  maxHR: number;
+  byteSize: number;
+}
+
+export interface WorkoutSession {
+  startedAt: number;
+  durationMs: number;
+  sampleCount: number;
+  offsetsMs: number[];
+  bpm: number[];
+}
+
+// Фоновая тренировка: targetZone 0-4, tickIntervalMs — период пробуждений
+export interface WorkoutServiceOptions {
+  targetZone?: number;
+  model?: number;
+  measuredMaxHR?: number;
+  sampleIntervalMs?: number;
+  tickIntervalMs?: number;
+}
+
+interface WorkoutSessionModule {
+  workoutServiceAvailable: boolean;
+  listSessions(limit: number): Promise<Record<string, number[]>>;
+  loadSession(id: number, maxPoints: number): Promise<WorkoutSession>;
+  deleteSession(id: number): Promise<boolean>;
+  startWorkoutService(options: WorkoutServiceOptions): Promise<void>;
+  stopWorkoutService(): Promise<void>;
+}
+
+const nativeModule: WorkoutSessionModule | undefined =
+  NativeModules.WorkoutSessionModule;
+
+// Записанные тренировки: отсчеты хранятся в нативных файлах сессий, в БД только сводка.
+// Фоновая тренировка пока работает только на синтетических отсчетах (debug-сборка)
+class WorkoutSessionService {
+  isAvailable(): boolean {
+    return nativeModule !== undefined;
+  }
+
+  async listSessions(limit: number = 50): Promise<WorkoutSessionSummary[]> {
+    if (!nativeModule) {
+      return [];
+    }
+    const columns = await nativeModule.listSessions(limit);
+    return (columns.id || []).map((id, i) => ({
+      id,
+      startedAt: columns.started_at[i],
+      durationMs: columns.duration_ms[i],
+      sampleCount: columns.sample_count[i],
+      avgHR: columns.avg_hr[i],
+      minHR: columns.min_hr[i],
+      maxHR: columns.max_hr[i],
+      byteSize: columns.byte_size[i],
+    }));
+  }
+
+  // maxPoints ограничивает число точек для графика; 0 — все отсчеты
+  async loadSession(
+    id: number,
+    maxPoints: number = 0,
+  ): Promise<WorkoutSession | null> {
+    if (!nativeModule) {
+      return null;
+    }
+    return nativeModule.loadSession(id, maxPoints);
+  }
+
+  async deleteSession(id: number): Promise<boolean> {
+    if (!nativeModule) {
+      return false;
+    }
+    return nativeModule.deleteSession(id);
+  }
+
+  isWorkoutServiceAvailable(): boolean {
+    return nativeModule?.workoutServiceAvailable === true;
+  }
+
+  // Отслеживание зоны при выключенном экране с постоянным уведомлением
+  async startWorkoutService(options: WorkoutServiceOptions = {}): Promise<void> {
+    if (!nativeModule || !nativeModule.workoutServiceAvailable) {
+      console.warn('Background workout is not available in this build');
+      return;
+    }
+    return nativeModule.startWorkoutService(options);
+  }
+
+  async stopWorkoutService(): Promise<void> {
+    if (!nativeModule || !nativeModule.workoutServiceAvailable) {
+      return;
+    }
+    return nativeModule.stopWorkoutService();
+  }
+}
+
+export default new WorkoutSessionService();
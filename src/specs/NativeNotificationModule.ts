@@ -0,0 +1,21 @@
+// specs/NativeNotificationModule.ts
+// Спецификация codegen для NotificationModule (TurboModule при новой архитектуре)
+import type {TurboModule} from 'react-native';
+import {TurboModuleRegistry} from 'react-native';
+import type {Int32} from 'react-native/Libraries/Types/CodegenTypes';
+
+export interface Spec extends TurboModule {
+  showNotification(title: string, message: string): Promise<number>;
+  scheduleDailyNotification(
+    title: string,
+    message: string,
+    hour: Int32,
+    minute: Int32,
+  ): Promise<boolean>;
+  setReminders(reminders: Array<Object>): Promise<number>;
+  getReminders(): Promise<Array<Object>>;
+  cancelScheduledNotification(): Promise<void>;
+}
+
+// get, а не getEnforcing: на iOS модуля нет
+export default TurboModuleRegistry.get<Spec>('NotificationModule');